@@ -0,0 +1,70 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Pedidos de exemplo com N itens, no formato que chega pela API (DTO) e no
+ * formato persistido (entidade).
+ */
+final class OrderFixtures {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 5, 8, 10, 0, 5, 123_000_000);
+
+    private OrderFixtures() {
+    }
+
+    static OrderDTO orderDto(int items) {
+        List<OrderItemDTO> itemDtos = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setId(UUID.randomUUID());
+            item.setProductId("PROD-" + i);
+            item.setProductName("Produto " + i);
+            item.setQuantity(1 + i % 5);
+            item.setPrice(new BigDecimal(10 + i % 90 + ".90"));
+            itemDtos.add(item);
+        }
+
+        OrderDTO dto = new OrderDTO();
+        dto.setId(UUID.randomUUID());
+        dto.setOrderNumber("ORD-BENCH-" + items);
+        dto.setStatus(OrderStatus.CALCULATED);
+        dto.setCreatedAt(CREATED_AT);
+        dto.setProcessedAt(CREATED_AT.plusSeconds(2));
+        dto.setTotalAmount(new BigDecimal("1234.50"));
+        dto.setItems(itemDtos);
+        dto.setVersion(3L);
+        return dto;
+    }
+
+    static Order order(int items) {
+        Order order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-BENCH-" + items);
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setCreatedAt(CREATED_AT);
+        order.setProcessedAt(CREATED_AT.plusSeconds(2));
+        order.setVersion(3L);
+        for (OrderItemDTO itemDto : orderDto(items).getItems()) {
+            OrderItem item = new OrderItem();
+            item.setId(itemDto.getId());
+            item.setProductId(itemDto.getProductId());
+            item.setProductName(itemDto.getProductName());
+            item.setQuantity(itemDto.getQuantity());
+            item.setPrice(itemDto.getPrice());
+            order.addItem(item);
+        }
+        order.calculateTotal();
+        return order;
+    }
+}
@@ -0,0 +1,67 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.integration.dto.ExternalOrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.util.OrderMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão entidade ↔ DTO feita em toda leitura sem cache, em toda
+ * criação de pedido e na notificação ao sistema externo B. Rodar com
+ * {@code -prof gc} para ver a alocação por operação.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    /** Tamanho de página usado pela listagem de pedidos. */
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private OrderMapper orderMapper;
+    private Order order;
+    private OrderDTO orderDto;
+    private List<Order> page;
+
+    @Setup
+    public void setUp() {
+        orderMapper = new OrderMapper();
+        order = OrderFixtures.order(items);
+        orderDto = OrderFixtures.orderDto(items);
+        page = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(OrderFixtures.order(items));
+        }
+    }
+
+    @Benchmark
+    public OrderDTO mapToDto() {
+        return orderMapper.toDto(order);
+    }
+
+    @Benchmark
+    public Order mapToEntity() {
+        return orderMapper.toEntity(orderDto);
+    }
+
+    @Benchmark
+    public ExternalOrderDTO mapToExternalOrder() {
+        return orderMapper.toExternalOrder(order);
+    }
+
+    @Benchmark
+    public List<OrderDTO> mapPage() {
+        return orderMapper.toDtos(page);
+    }
+}
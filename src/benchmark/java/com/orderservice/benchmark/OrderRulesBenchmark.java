@@ -0,0 +1,69 @@
+package com.orderservice.benchmark;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.util.OrderCalculator;
+import com.orderservice.util.OrderDuplicateChecker;
+import com.orderservice.util.OrderValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras executadas na criação e no processamento de cada pedido: cálculo
+ * de total, validação e detecção de conteúdo duplicado.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRulesBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    private Order order;
+    private OrderDTO orderDto;
+    private OrderCalculator calculator;
+    private OrderValidator validator;
+    private OrderDuplicateChecker duplicateChecker;
+
+    @Setup
+    public void setUp() {
+        order = OrderFixtures.order(items);
+        orderDto = OrderFixtures.orderDto(items);
+        calculator = new OrderCalculator();
+        validator = new OrderValidator();
+        // sem proxy de cache: o próprio checker responde como um cache vazio
+        duplicateChecker = new OrderDuplicateChecker(new OrderDuplicateChecker(null));
+    }
+
+    @Benchmark
+    public BigDecimal orderCalculateTotal() {
+        order.calculateTotal();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public BigDecimal calculatorCalculateTotal() {
+        return calculator.calculateTotal(orderDto.getItems());
+    }
+
+    @Benchmark
+    public OrderDTO validate() {
+        validator.validate(orderDto);
+        return orderDto;
+    }
+
+    /**
+     * Após a primeira chamada o hash já está no buffer em memória: mede o
+     * caminho comum de hash (ordenação + SHA-256) e consulta ao buffer.
+     */
+    @Benchmark
+    public boolean isOrderContentDuplicate() {
+        return duplicateChecker.isOrderContentDuplicate(orderDto);
+    }
+}
@@ -0,0 +1,62 @@
+package com.orderservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.orderservice.config.WebConfig;
+import com.orderservice.dto.OrderDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialização de {@link OrderDTO} nos formatos aceitos pela API, com os
+ * mesmos ObjectMappers dos conversores HTTP. O tamanho do payload de cada
+ * combinação é impresso no setup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderSerializationBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private OrderDTO orderDto;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        WebConfig webConfig = new WebConfig(
+                new DefaultListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class));
+        mapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> webConfig.binaryMapper(new CBORFactory());
+            case "smile" -> webConfig.binaryMapper(new SmileFactory());
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        orderDto = OrderFixtures.orderDto(items);
+        payload = mapper.writeValueAsBytes(orderDto);
+        System.out.printf("%n%s, %d itens: %d bytes%n", format, items, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(orderDto);
+    }
+
+    @Benchmark
+    public OrderDTO deserialize() throws IOException {
+        return mapper.readValue(payload, OrderDTO.class);
+    }
+}
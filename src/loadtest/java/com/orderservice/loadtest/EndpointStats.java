@@ -0,0 +1,73 @@
+package com.orderservice.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências (em microssegundos) e contadores de uma operação. A latência é
+ * medida a partir do instante planejado da chegada, não do envio: atrasos
+ * do próprio gerador ou do servidor em aceitar conexões entram na medição
+ * (sem omissão coordenada).
+ */
+final class EndpointStats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    final String name;
+    final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    final LongAdder successes = new LongAdder();
+    final LongAdder errors = new LongAdder();
+    /** Erros por causa: código HTTP, exceção do cliente ou descarte pelo gerador. */
+    final Map<String, LongAdder> errorCauses = new ConcurrentHashMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    void success(long intendedStartNanos, long endNanos) {
+        record(intendedStartNanos, endNanos);
+        successes.increment();
+    }
+
+    /** Erros também entram no histograma: uma resposta lenta com erro ainda foi lenta. */
+    void error(long intendedStartNanos, long endNanos, String cause) {
+        record(intendedStartNanos, endNanos);
+        dropped(cause);
+    }
+
+    /** Erro sem latência (chegada que nem chegou a ser enviada). */
+    void dropped(String cause) {
+        errors.increment();
+        errorCauses.computeIfAbsent(cause, key -> new LongAdder()).increment();
+    }
+
+    long total() {
+        return successes.sum() + errors.sum();
+    }
+
+    double errorRate() {
+        long total = total();
+        return total == 0 ? 0 : (double) errors.sum() / total;
+    }
+
+    double percentileMillis(double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    Map<String, Long> errorCauses() {
+        Map<String, Long> causes = new ConcurrentSkipListMap<>();
+        errorCauses.forEach((cause, count) -> causes.put(cause, count.sum()));
+        return causes;
+    }
+
+    private void record(long intendedStartNanos, long endNanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(endNanos - intendedStartNanos));
+        histogram.recordValue(Math.min(micros, MAX_TRACKABLE_MICROS));
+    }
+}
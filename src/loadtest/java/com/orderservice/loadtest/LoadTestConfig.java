@@ -0,0 +1,112 @@
+package com.orderservice.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parâmetros do teste de carga, lidos de argumentos {@code chave=valor}.
+ *
+ * <ul>
+ *   <li>{@code target}: URL de uma instância já em execução; sem ele a
+ *   aplicação é iniciada no perfil mock (H2, serviços externos simulados)</li>
+ *   <li>{@code rate}: chegadas por segundo (modelo aberto, Poisson)</li>
+ *   <li>{@code warmup} / {@code duration}: aquecimento descartado e janela medida</li>
+ *   <li>{@code mix}: pesos das operações, ex. {@code create:20,get:30,status:40,list:10}</li>
+ *   <li>{@code items}: distribuição de itens por pedido, ex. {@code 1:40,3:30,10:20,50:10}</li>
+ *   <li>{@code products}: produtos sorteados ({@code PROD-1} a {@code PROD-n}), o
+ *   catálogo do perfil mock ({@code mock.external.catalog-size})</li>
+ *   <li>{@code notified-timeout}: espera máxima por NOTIFIED após a criação</li>
+ *   <li>{@code max-in-flight}: requisições simultâneas antes de descartar chegadas</li>
+ *   <li>{@code max-p99}: limites de p99 por operação, ex. {@code status:50ms,notified:2s}</li>
+ *   <li>{@code max-error-rate}: fração máxima de erros por operação</li>
+ *   <li>{@code report-dir}: diretório dos histogramas (.hgrm)</li>
+ * </ul>
+ *
+ * Argumentos {@code --propriedade=valor} são repassados à aplicação iniciada
+ * pelo teste, ex. {@code --mock.external.product-b.error-rate=0.05}.
+ */
+record LoadTestConfig(String target,
+                      double rate,
+                      Duration warmup,
+                      Duration duration,
+                      Map<Operation, Integer> mix,
+                      Map<Integer, Integer> items,
+                      int products,
+                      Duration notifiedTimeout,
+                      int maxInFlight,
+                      Map<String, Duration> maxP99,
+                      double maxErrorRate,
+                      String reportDir,
+                      List<String> applicationArgs) {
+
+    enum Operation {
+        CREATE, GET, STATUS, LIST;
+
+        String label() {
+            return name().toLowerCase();
+        }
+    }
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Argumento inválido (esperado chave=valor): " + arg);
+            }
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else {
+                values.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        weights(values.getOrDefault("mix", "create:20,get:30,status:40,list:10"))
+                .forEach((key, weight) -> mix.put(Operation.valueOf(key.toUpperCase()), weight));
+
+        Map<Integer, Integer> items = new LinkedHashMap<>();
+        weights(values.getOrDefault("items", "1:40,3:30,10:20,50:10"))
+                .forEach((key, weight) -> items.put(Integer.parseInt(key), weight));
+
+        Map<String, Duration> maxP99 = new LinkedHashMap<>();
+        String limits = values.getOrDefault("max-p99", "");
+        if (!limits.isBlank()) {
+            for (String limit : limits.split(",")) {
+                String[] parts = limit.split(":");
+                maxP99.put(parts[0].trim().toLowerCase(), DurationStyle.detectAndParse(parts[1].trim()));
+            }
+        }
+
+        return new LoadTestConfig(
+                values.get("target"),
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                mix,
+                items,
+                Integer.parseInt(values.getOrDefault("products", "1000")),
+                DurationStyle.detectAndParse(values.getOrDefault("notified-timeout", "30s")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                maxP99,
+                Double.parseDouble(values.getOrDefault("max-error-rate", "0.01")),
+                values.getOrDefault("report-dir", "target/loadtest"),
+                List.copyOf(applicationArgs));
+    }
+
+    private static Map<String, Integer> weights(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
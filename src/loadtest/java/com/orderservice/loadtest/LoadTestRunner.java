@@ -0,0 +1,359 @@
+package com.orderservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.orderservice.OrderServiceApplication;
+import com.orderservice.loadtest.LoadTestConfig.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga de ponta a ponta em modelo aberto: as chegadas seguem um
+ * processo de Poisson na taxa configurada, independente das respostas, e
+ * cada requisição roda numa virtual thread. A latência é contada a partir do
+ * instante planejado da chegada, então um servidor saturado aparece nos
+ * percentis em vez de simplesmente reduzir a taxa de envio.
+ *
+ * Cada pedido criado é acompanhado por long-poll até NOTIFIED, medindo o
+ * tempo de ponta a ponta do fluxo assíncrono. Ao final imprime vazão e
+ * percentis por operação, grava os histogramas em {@code report-dir} e
+ * termina com código 1 se algum limite ({@code max-p99},
+ * {@code max-error-rate}) for violado.
+ *
+ * <pre>
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="rate=200 duration=60s max-p99=status:50ms"
+ * </pre>
+ */
+public final class LoadTestRunner {
+
+    private static final int KNOWN_IDS = 4096;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration MAX_LONG_POLL = Duration.ofSeconds(30);
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService followUps = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final EndpointStats notified = new EndpointStats("notified");
+    private final AtomicReferenceArray<UUID> knownIds = new AtomicReferenceArray<>(KNOWN_IDS);
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    LoadTestRunner(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.inFlight = new Semaphore(config.maxInFlight());
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.label()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        ConfigurableApplicationContext application = null;
+        String target = config.target();
+        if (target == null) {
+            application = startApplication(config.applicationArgs());
+            target = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        boolean passed;
+        try {
+            passed = new LoadTestRunner(config, target).run();
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Sobe a aplicação no perfil mock (H2 em memória) numa porta livre. As
+     * propriedades vão como argumentos de linha de comando para prevalecer
+     * sobre os arquivos de configuração; {@code extraArgs} vêm por último e
+     * podem sobrescrever qualquer uma.
+     */
+    static ConfigurableApplicationContext startApplication(List<String> extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.orderservice=WARN"));
+        args.addAll(extraArgs);
+        return new SpringApplicationBuilder(OrderServiceApplication.class)
+                .profiles("mock")
+                .run(args.toArray(String[]::new));
+    }
+
+    boolean run() throws IOException {
+        long start = System.nanoTime();
+        long measureStart = start + config.warmup().toNanos();
+        long end = measureStart + config.duration().toNanos();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / config.rate();
+
+        System.out.printf("Carga em %s: %.0f req/s, aquecimento %s, medição %s%n",
+                baseUrl, config.rate(), config.warmup(), config.duration());
+
+        long next = start;
+        while (next < end) {
+            long now = System.nanoTime();
+            if (next > now) {
+                LockSupport.parkNanos(next - now);
+            }
+
+            long intended = next;
+            boolean measured = intended >= measureStart;
+            Operation operation = pickOperation();
+            if (inFlight.tryAcquire()) {
+                workers.execute(() -> {
+                    try {
+                        execute(operation, intended, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            } else if (measured) {
+                stats.get(operation).dropped("descartada");
+            }
+
+            next += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos);
+        }
+
+        // aguarda as requisições em andamento e depois os acompanhamentos até NOTIFIED
+        workers.close();
+        followUps.close();
+        return report(Duration.ofNanos(end - measureStart));
+    }
+
+    private Operation pickOperation() {
+        int total = config.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int choice = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : config.mix().entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                Operation operation = entry.getKey();
+                boolean needsId = operation == Operation.GET || operation == Operation.STATUS;
+                return needsId && created.get() == 0 ? Operation.CREATE : operation;
+            }
+        }
+        return Operation.LIST;
+    }
+
+    private void execute(Operation operation, long intended, boolean measured) {
+        EndpointStats endpoint = stats.get(operation);
+        try {
+            HttpResponse<byte[]> response = client.send(request(operation), HttpResponse.BodyHandlers.ofByteArray());
+            long endNanos = System.nanoTime();
+            boolean ok = response.statusCode() / 100 == 2;
+            if (measured) {
+                if (ok) {
+                    endpoint.success(intended, endNanos);
+                } else {
+                    endpoint.error(intended, endNanos, "HTTP " + response.statusCode());
+                }
+            }
+            if (ok && operation == Operation.CREATE) {
+                UUID id = UUID.fromString(objectMapper.readTree(response.body()).get("id").asText());
+                knownIds.set((int) (created.getAndIncrement() % KNOWN_IDS), id);
+                followUps.execute(() -> awaitNotified(id, intended, measured));
+            }
+        } catch (IOException e) {
+            if (measured) {
+                endpoint.error(intended, System.nanoTime(), describe(e));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpRequest request(Operation operation) throws IOException {
+        return switch (operation) {
+            case CREATE -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(newOrder())))
+                    .build();
+            case GET -> get("/api/orders/" + knownId());
+            case STATUS -> get("/api/orders/" + knownId() + "/status");
+            case LIST -> get("/api/orders?page=0&size=20");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private UUID knownId() {
+        int size = (int) Math.min(created.get(), KNOWN_IDS);
+        UUID id = knownIds.get(ThreadLocalRandom.current().nextInt(size));
+        return id != null ? id : knownIds.get(0);
+    }
+
+    /**
+     * Pedido com número único e produtos do catálogo. A quantidade é sorteada
+     * numa faixa larga para que o conteúdo não esbarre na detecção de
+     * duplicidade.
+     */
+    private ObjectNode newOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int itemCount = Math.min(pickItemCount(), config.products());
+
+        ObjectNode order = objectMapper.createObjectNode();
+        order.put("orderNumber", "LOAD-" + runId + "-" + sequence.incrementAndGet());
+        ArrayNode items = order.putArray("items");
+        Set<Integer> products = new HashSet<>();
+        while (products.size() < itemCount) {
+            products.add(1 + random.nextInt(config.products()));
+        }
+        for (int product : products) {
+            items.addObject()
+                    .put("productId", "PROD-" + product)
+                    .put("quantity", 1 + random.nextInt(100_000));
+        }
+        return order;
+    }
+
+    private int pickItemCount() {
+        int total = config.items().values().stream().mapToInt(Integer::intValue).sum();
+        int choice = ThreadLocalRandom.current().nextInt(total);
+        for (Map.Entry<Integer, Integer> entry : config.items().entrySet()) {
+            choice -= entry.getValue();
+            if (choice < 0) {
+                return entry.getKey();
+            }
+        }
+        return 1;
+    }
+
+    /** Long-poll até NOTIFIED (ou COMPLETED), contando desde a chegada planejada da criação. */
+    private void awaitNotified(UUID id, long intended, boolean measured) {
+        long deadline = intended + config.notifiedTimeout().toNanos();
+        String cause = "timeout";
+        try {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                long waitMillis = Math.min(TimeUnit.NANOSECONDS.toMillis(remaining), MAX_LONG_POLL.toMillis());
+                HttpRequest request = HttpRequest.newBuilder(URI.create(
+                                baseUrl + "/api/orders/" + id + "/status?waitFor=NOTIFIED&timeout=" + Math.max(1, waitMillis) + "ms"))
+                        .timeout(MAX_LONG_POLL.plus(REQUEST_TIMEOUT))
+                        .GET()
+                        .build();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                if (response.statusCode() != 200) {
+                    cause = "HTTP " + response.statusCode();
+                    break;
+                }
+                JsonNode status = objectMapper.readTree(response.body()).get("status");
+                if (status != null && ("NOTIFIED".equals(status.asText()) || "COMPLETED".equals(status.asText()))) {
+                    if (measured) {
+                        notified.success(intended, System.nanoTime());
+                    }
+                    return;
+                }
+                cause = status != null ? "timeout em " + status.asText() : "timeout";
+            }
+        } catch (IOException e) {
+            cause = describe(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            notified.error(intended, System.nanoTime(), cause);
+        }
+    }
+
+    private static String describe(IOException e) {
+        return e.getMessage() != null ? e.getClass().getSimpleName() + ": " + e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private boolean report(Duration measured) throws IOException {
+        Path reportDir = Path.of(config.reportDir());
+        Files.createDirectories(reportDir);
+
+        List<EndpointStats> all = new ArrayList<>(stats.values());
+        all.add(notified);
+
+        double seconds = measured.toNanos() / 1e9;
+        System.out.println();
+        System.out.printf("%-10s %9s %7s %9s %9s %9s %9s %9s%n",
+                "operação", "total", "erros", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : all) {
+            System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.name, endpoint.total(), endpoint.errors.sum(), endpoint.successes.sum() / seconds,
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(99), endpoint.percentileMillis(99.9),
+                    endpoint.histogram.getMaxValue() / 1000.0);
+            endpoint.errorCauses().forEach((cause, count) ->
+                    System.out.printf("%-10s   %s: %d%n", "", cause, count));
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportDir.resolve(endpoint.name + ".hgrm")))) {
+                endpoint.histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("Histogramas (ms) em " + reportDir.toAbsolutePath());
+
+        List<String> violations = new ArrayList<>();
+        for (EndpointStats endpoint : all) {
+            Duration limit = config.maxP99().get(endpoint.name);
+            if (limit != null && endpoint.percentileMillis(99) > limit.toMillis()) {
+                violations.add(String.format("%s p99 %.2f ms > %d ms",
+                        endpoint.name, endpoint.percentileMillis(99), limit.toMillis()));
+            }
+            if (endpoint.errorRate() > config.maxErrorRate()) {
+                violations.add(String.format("%s erros %.2f%% > %.2f%%",
+                        endpoint.name, endpoint.errorRate() * 100, config.maxErrorRate() * 100));
+            }
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("Resultado: OK");
+            return true;
+        }
+        System.out.println("Resultado: FALHOU");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        return false;
+    }
+}
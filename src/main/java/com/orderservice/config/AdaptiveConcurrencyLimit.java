@@ -0,0 +1,91 @@
+package com.orderservice.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência ajustado pela latência observada (AIMD).
+ *
+ * Compara duas médias móveis da latência: uma curta, que reflete as últimas
+ * respostas, e uma longa, que serve de referência. Uma resposta com falha,
+ * ou a média curta acima de {@code maxLatency} ou de {@code tolerance} vezes
+ * a referência, indica fila crescendo atrás do limite: ele é multiplicado
+ * por {@code backoffRatio}, no máximo uma vez por intervalo de referência,
+ * para que as respostas de uma mesma rajada não o derrubem várias vezes.
+ * Caso contrário, cresce 1/limite por resposta (≈ +1 por ciclo), desde que
+ * esteja de fato em uso.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double RECENT_SMOOTHING = 0.2;
+    private static final double BASELINE_SMOOTHING = 0.01;
+
+    private final AdmissionProperties.Budget spec;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double recentNanos = Double.NaN;
+    private double baselineNanos = Double.NaN;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimit(AdmissionProperties.Budget spec) {
+        this.spec = spec;
+        this.limit = Math.max(spec.getMinLimit(), Math.min(spec.getMaxLimit(), spec.getInitialLimit()));
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /** Reserva uma vaga; {@code false} se o limite atual já está ocupado. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** Libera a vaga de uma requisição admitida e ajusta o limite pela sua latência. */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        onSample(latencyNanos, failed, inFlightBeforeRelease, System.nanoTime());
+    }
+
+    synchronized void onSample(long latencyNanos, boolean failed, int inFlightAtSample, long nowNanos) {
+        if (!failed) {
+            // inclui as respostas lentas: se a latência normal subir de vez, a referência acompanha
+            recentNanos = smooth(recentNanos, latencyNanos, RECENT_SMOOTHING);
+            baselineNanos = smooth(baselineNanos, latencyNanos, BASELINE_SMOOTHING);
+        }
+        boolean overloaded = failed
+                || recentNanos > spec.getMaxLatency().toNanos()
+                || recentNanos > spec.getTolerance() * baselineNanos;
+
+        if (overloaded) {
+            long window = Double.isNaN(baselineNanos) ? 0 : (long) baselineNanos;
+            if (nowNanos - lastDecreaseNanos >= window) {
+                limit = Math.max(spec.getMinLimit(), limit * spec.getBackoffRatio());
+                lastDecreaseNanos = nowNanos;
+            }
+        } else if (inFlightAtSample * 2 >= limit) {
+            limit = Math.min(spec.getMaxLimit(), limit + 1 / limit);
+        }
+    }
+
+    private static double smooth(double average, long sample, double weight) {
+        return Double.isNaN(average) ? sample : average + weight * (sample - average);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(spec.getRetryAfter().toMillis() / 1000.0));
+    }
+}
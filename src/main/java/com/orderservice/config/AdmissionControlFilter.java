@@ -0,0 +1,115 @@
+package com.orderservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Admissão na API de pedidos: cada requisição ocupa uma vaga do orçamento da
+ * sua classe e, com o {@link AdaptiveConcurrencyLimit} esgotado, é recusada
+ * na hora com 503 e {@code Retry-After}, sem ocupar thread do Tomcat à
+ * espera. Escritas, consultas pontuais de pedido/status e listagens têm
+ * orçamentos separados, para que uma rajada de uma não bloqueie as outras.
+ *
+ * Long-poll e SSE ficam de fora: a duração deles não reflete carga e o
+ * número de assinaturas já é limitado por {@code app.status-stream}.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    static final String WRITES = "writes";
+    static final String STATUS = "status";
+    static final String LISTINGS = "listings";
+
+    private static final String ORDERS_PATH = "/api/orders";
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new HashMap<>();
+    private final Map<String, Counter> rejectedCounters = new HashMap<>();
+
+    public AdmissionControlFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        properties.getBudgets().forEach((budget, spec) -> {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(spec);
+            limits.put(budget, limit);
+            Gauge.builder("http.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Limite atual de requisições simultâneas admitidas")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+            Gauge.builder("http.admission.inflight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Requisições admitidas em andamento")
+                    .tag("budget", budget)
+                    .register(meterRegistry);
+            rejectedCounters.put(budget, Counter.builder("http.admission.rejected")
+                    .description("Requisições recusadas com 503 por falta de vaga")
+                    .tag("budget", budget)
+                    .register(meterRegistry));
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String budget = budgetOf(request);
+        return budget == null || !limits.containsKey(budget);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String budget = budgetOf(request);
+        AdaptiveConcurrencyLimit limit = limits.get(budget);
+        if (!limit.tryAcquire()) {
+            rejectedCounters.get(budget).increment();
+            log.debug("Requisição {} {} recusada: orçamento {} no limite de {}",
+                    request.getMethod(), request.getRequestURI(), budget, limit.getLimit());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(limit.getRetryAfterSeconds()));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean overloaded = true;
+        try {
+            chain.doFilter(request, response);
+            overloaded = isOverloadSignal(response.getStatus());
+        } finally {
+            limit.release(System.nanoTime() - start, overloaded);
+        }
+    }
+
+    /**
+     * Só 503 e 504 contam como sobrecarga, além da latência e das exceções
+     * que escapam da cadeia. Os demais 5xx incluem erros de cliente que o
+     * {@code GlobalExceptionHandler} ainda mapeia para 500 (pedido
+     * inexistente, entrada inválida) e não devem reduzir o limite.
+     */
+    static boolean isOverloadSignal(int status) {
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    /** Orçamento da requisição, ou {@code null} se ela não passa pela admissão. */
+    static String budgetOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(ORDERS_PATH)) {
+            return null;
+        }
+        if (path.endsWith("/status/stream") || request.getParameter("waitFor") != null) {
+            return null;
+        }
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            return path.length() == ORDERS_PATH.length() || path.equals(ORDERS_PATH + "/") ? LISTINGS : STATUS;
+        }
+        return path.endsWith("/status:batchGet") ? STATUS : WRITES;
+    }
+}
@@ -0,0 +1,44 @@
+package com.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controle de admissão da API de pedidos ({@code app.admission}): um limite
+ * de concorrência adaptativo por orçamento ({@code writes}, {@code status},
+ * {@code listings}). Orçamentos ausentes não são limitados.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private Map<String, Budget> budgets = new LinkedHashMap<>();
+
+    @Data
+    public static class Budget {
+
+        private int initialLimit = 20;
+
+        private int minLimit = 2;
+
+        private int maxLimit = 1000;
+
+        /** Latência acima da qual a resposta conta como sobrecarga, qualquer que seja a referência. */
+        private Duration maxLatency = Duration.ofSeconds(1);
+
+        /** Múltiplo da latência de referência a partir do qual o limite é reduzido. */
+        private double tolerance = 2.0;
+
+        /** Fator aplicado ao limite em cada redução. */
+        private double backoffRatio = 0.9;
+
+        /** Valor do header {@code Retry-After} nas recusas. */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
@@ -1,5 +1,9 @@
 package com.orderservice.config;
 
+import com.orderservice.metrics.ExecutorMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -7,15 +11,36 @@ import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
+import java.time.Instant;
 import java.util.concurrent.Executor;
 
+/**
+ * Executores assíncronos. Todos são instrumentados por {@link ExecutorMetrics};
+ * os que seguram conexões do banco são redimensionados pelo
+ * {@link ExecutorSizingController} dentro da sua fração do pool do Hikari.
+ */
 @Configuration
 @EnableAsync
 @EnableScheduling
+@EnableConfigurationProperties(ExecutorSizingProperties.class)
 public class AsyncConfig {
 
+    @Bean
+    public ExecutorSizingController executorSizingController(
+            ExecutorSizingProperties properties,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int connectionPoolSize,
+            MeterRegistry meterRegistry,
+            ThreadPoolTaskScheduler taskScheduler) {
+        ExecutorSizingController controller = new ExecutorSizingController(properties, connectionPoolSize, meterRegistry);
+        if (properties.isEnabled()) {
+            taskScheduler.scheduleWithFixedDelay(controller::adjust,
+                    Instant.now().plus(properties.getInterval()), properties.getInterval());
+        }
+        return controller;
+    }
+
     @Bean(name = "orderProcessingExecutor")
-    public Executor orderProcessingExecutor() {
+    public Executor orderProcessingExecutor(MeterRegistry meterRegistry, ExecutorSizingController sizingController) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(20);
         executor.setMaxPoolSize(100);
@@ -23,21 +48,46 @@ public class AsyncConfig {
         executor.setAllowCoreThreadTimeOut(true);
         executor.setKeepAliveSeconds(60);
         executor.setThreadNamePrefix("OrderAsync-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        return executor;
+        return instrument("orderProcessingExecutor", executor, meterRegistry, sizingController);
     }
 
     @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
+    public Executor notificationExecutor(MeterRegistry meterRegistry, ExecutorSizingController sizingController) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10);
         executor.setMaxPoolSize(50);
         executor.setQueueCapacity(1000);
         executor.setThreadNamePrefix("NotifyAsync-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        return executor;
+        return instrument("notificationExecutor", executor, meterRegistry, sizingController);
+    }
+
+    /**
+     * Entrega das mudanças de status aos assinantes (SSE e long-poll), fora
+     * da thread que concluiu a transição.
+     */
+    @Bean(name = "statusStreamExecutor")
+    public Executor statusStreamExecutor(MeterRegistry meterRegistry, ExecutorSizingController sizingController) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(16);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("StatusStream-");
+        return instrument("statusStreamExecutor", executor, meterRegistry, sizingController);
+    }
+
+    /**
+     * Refresh em segundo plano dos caches ({@code refresh-after-write}). As
+     * cargas leem do banco, então o executor tem fila limitada e entra na
+     * divisão das conexões, em vez de bloquear o pool comum.
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor(MeterRegistry meterRegistry, ExecutorSizingController sizingController) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("CacheRefresh-");
+        return instrument("cacheRefreshExecutor", executor, meterRegistry, sizingController);
     }
 
     @Bean
@@ -49,4 +99,20 @@ public class AsyncConfig {
         scheduler.setErrorHandler(throwable -> System.err.println("Erro em tarefa agendada: " + throwable.getMessage()));
         return scheduler;
     }
+
+    /**
+     * Mede espera na fila e duração das tarefas e mantém o comportamento de
+     * executar na thread chamadora quando fila e pool estão cheios, agora
+     * contabilizado.
+     */
+    private static ThreadPoolTaskExecutor instrument(String name, ThreadPoolTaskExecutor executor,
+                                                     MeterRegistry meterRegistry,
+                                                     ExecutorSizingController sizingController) {
+        ExecutorMetrics metrics = new ExecutorMetrics(name, meterRegistry);
+        executor.setTaskDecorator(metrics);
+        executor.setRejectedExecutionHandler(metrics.callerRunsPolicy());
+        executor.initialize();
+        sizingController.manage(executor, metrics);
+        return executor;
+    }
 }
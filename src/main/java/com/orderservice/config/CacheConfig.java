@@ -1,6 +1,7 @@
 package com.orderservice.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -8,63 +9,65 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 
-import java.util.Arrays;
-import java.util.concurrent.TimeUnit;
+import java.util.Collections;
+import java.util.concurrent.Executor;
 
+/**
+ * Gerenciadores de cache montados a partir de {@link CacheProperties}: cada
+ * cache declarado em {@code app.cache.caches} é registrado no gerenciador
+ * indicado por {@code manager}.
+ */
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
 public class CacheConfig {
 
+    @Bean
+    public CacheLoaderRegistry cacheLoaderRegistry() {
+        return new CacheLoaderRegistry();
+    }
+
+    @Bean
+    public CacheNameValidator cacheNameValidator() {
+        return new CacheNameValidator();
+    }
+
     @Bean
     @Primary
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCacheNames(
-                Arrays.asList("orders", "products", "productPrices", "orderStatuses", "dailyStats"));
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .initialCapacity(200)
-                .maximumSize(10000)
-                .expireAfterWrite(30, TimeUnit.MINUTES)
-                .recordStats());
-        return cacheManager;
+    public CacheManager cacheManager(CacheProperties properties, CacheLoaderRegistry loaders,
+            @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+        return cacheManager("cacheManager", properties, loaders, refreshExecutor);
     }
 
     @Bean
-    public CacheManager shortLivedCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCacheNames(
-                Arrays.asList("externalServiceResponses", "validationResults"));
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .initialCapacity(100)
-                .maximumSize(1000)
-                .expireAfterWrite(1, TimeUnit.MINUTES)
-                .recordStats());
-        return cacheManager;
+    public CacheManager shortLivedCacheManager(CacheProperties properties, CacheLoaderRegistry loaders,
+            @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+        return cacheManager("shortLivedCacheManager", properties, loaders, refreshExecutor);
     }
 
     @Bean
-    public CacheManager longLivedCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCacheNames(
-                Arrays.asList("productCatalog", "systemConfigs"));
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .initialCapacity(50)
-                .maximumSize(500)
-                .expireAfterWrite(12, TimeUnit.HOURS)
-                .recordStats());
-        return cacheManager;
+    public CacheManager longLivedCacheManager(CacheProperties properties, CacheLoaderRegistry loaders,
+            @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+        return cacheManager("longLivedCacheManager", properties, loaders, refreshExecutor);
     }
 
     @Bean
-    public CacheManager duplicateCheckCacheManager() {
+    public CacheManager duplicateCheckCacheManager(CacheProperties properties, CacheLoaderRegistry loaders,
+            @Qualifier("cacheRefreshExecutor") Executor refreshExecutor) {
+        return cacheManager("duplicateCheckCacheManager", properties, loaders, refreshExecutor);
+    }
+
+    private static CaffeineCacheManager cacheManager(String managerName, CacheProperties properties,
+                                                     CacheLoaderRegistry loaders, Executor refreshExecutor) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCacheNames(
-                Arrays.asList("orderNumbers", "orderHashes"));
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .initialCapacity(10000)
-                .maximumSize(200000)
-                .expireAfterWrite(24, TimeUnit.HOURS)
-                .recordStats());
+        // lista vazia desativa a criação dinâmica: só existem os caches registrados abaixo
+        cacheManager.setCacheNames(Collections.emptyList());
+        properties.getCaches().forEach((name, spec) -> {
+            if (managerName.equals(spec.getManager())) {
+                CachePolicy policy = CachePolicy.from(name, spec, properties.getJitter());
+                cacheManager.registerCustomCache(name, policy.build(loaders, refreshExecutor));
+            }
+        });
         return cacheManager;
     }
 }
@@ -0,0 +1,24 @@
+package com.orderservice.config;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Funções de carga por nome de cache, usadas no refresh em segundo plano.
+ * Os caches são criados antes dos serviços que sabem recarregar suas
+ * entradas, então o registro é consultado no momento do refresh.
+ */
+public class CacheLoaderRegistry {
+
+    private final Map<String, Function<Object, Object>> loaders = new ConcurrentHashMap<>();
+
+    public void register(String cacheName, Function<Object, Object> loader) {
+        loaders.put(cacheName, loader);
+    }
+
+    public Optional<Function<Object, Object>> find(String cacheName) {
+        return Optional.ofNullable(loaders.get(cacheName));
+    }
+}
@@ -0,0 +1,102 @@
+package com.orderservice.config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperation;
+import org.springframework.cache.interceptor.CacheOperationSource;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Falha a inicialização se alguma anotação de cache ({@code @Cacheable},
+ * {@code @CachePut}, {@code @CacheEvict}) referencia um cache ou gerenciador
+ * que não existe, ou se {@code app.cache.caches} aponta para um gerenciador
+ * inexistente. Sem isso o erro só aparece na primeira chamada do método.
+ */
+public class CacheNameValidator implements SmartInitializingSingleton, BeanFactoryAware {
+
+    private ListableBeanFactory beanFactory;
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ListableBeanFactory) beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, CacheManager> managers = beanFactory.getBeansOfType(CacheManager.class);
+        Set<String> errors = new TreeSet<>();
+
+        CacheProperties properties = beanFactory.getBeanProvider(CacheProperties.class).getIfAvailable();
+        if (properties != null) {
+            properties.getCaches().forEach((name, spec) -> {
+                if (!managers.containsKey(spec.getManager())) {
+                    errors.add("cache '" + name + "' declarado no gerenciador inexistente '" + spec.getManager() + "'");
+                }
+            });
+        }
+
+        CacheOperationSource operationSource = beanFactory.getBeanProvider(CacheOperationSource.class).getIfAvailable();
+        CacheManager defaultManager = beanFactory.getBeanProvider(CacheManager.class).getIfUnique();
+        if (operationSource != null) {
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                Class<?> beanType = beanFactory.getType(beanName, false);
+                if (beanType == null) {
+                    continue;
+                }
+                Class<?> userClass = ClassUtils.getUserClass(beanType);
+                if (operationSource.isCandidateClass(userClass)) {
+                    validate(userClass, operationSource, managers, defaultManager, errors);
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Configuração de cache inválida: " + String.join("; ", errors));
+        }
+    }
+
+    private static void validate(Class<?> userClass, CacheOperationSource operationSource,
+                                 Map<String, CacheManager> managers, CacheManager defaultManager,
+                                 Set<String> errors) {
+        ReflectionUtils.doWithMethods(userClass, method -> {
+            Collection<CacheOperation> operations = operationSource.getCacheOperations(method, userClass);
+            if (operations == null) {
+                return;
+            }
+            for (CacheOperation operation : operations) {
+                if (!operation.getCacheResolver().isEmpty()) {
+                    continue;
+                }
+                String where = userClass.getSimpleName() + "." + method.getName();
+                CacheManager manager = operation.getCacheManager().isEmpty()
+                        ? defaultManager
+                        : managers.get(operation.getCacheManager());
+                if (manager == null) {
+                    errors.add(where + " usa gerenciador inexistente '" + operation.getCacheManager() + "'");
+                    continue;
+                }
+                List<String> unknown = new ArrayList<>();
+                for (String cacheName : operation.getCacheNames()) {
+                    if (manager.getCache(cacheName) == null) {
+                        unknown.add(cacheName);
+                    }
+                }
+                if (!unknown.isEmpty()) {
+                    errors.add(where + " usa cache(s) desconhecido(s) " + unknown);
+                }
+            }
+        }, ReflectionUtils.USER_DECLARED_METHODS);
+    }
+}
@@ -0,0 +1,114 @@
+package com.orderservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.orderservice.util.RetainedSizeEstimator;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Política de um cache nomeado: tamanho (entradas ou bytes estimados),
+ * expiração com jitter e, opcionalmente, refresh assíncrono após a escrita.
+ *
+ * O jitter espalha a expiração de entradas gravadas juntas (ex.: após um
+ * deploy), e o refresh recarrega uma chave quente uma única vez em segundo
+ * plano enquanto os chamadores continuam recebendo o valor anterior.
+ */
+public record CachePolicy(String name,
+                          int initialCapacity,
+                          long maximumSize,
+                          Long maximumWeight,
+                          Duration expireAfterWrite,
+                          Duration refreshAfterWrite,
+                          double jitter) {
+
+    public static final double DEFAULT_JITTER = 0.1;
+
+    public static CachePolicy from(String name, CacheProperties.Spec spec, double defaultJitter) {
+        return new CachePolicy(name,
+                spec.getInitialCapacity(),
+                spec.getMaximumSize(),
+                spec.getMaximumWeight() != null ? spec.getMaximumWeight().toBytes() : null,
+                spec.getExpireAfterWrite(),
+                spec.getRefreshAfterWrite(),
+                spec.getJitter() != null ? spec.getJitter() : defaultJitter);
+    }
+
+    /**
+     * Monta o cache. Refresh e manutenção rodam em {@code refreshExecutor},
+     * que não deve ser o pool comum: as cargas bloqueiam no banco.
+     */
+    public Cache<Object, Object> build(CacheLoaderRegistry loaders, Executor refreshExecutor) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .initialCapacity(initialCapacity)
+                .expireAfter(new JitteredExpiry(expireAfterWrite, jitter))
+                .executor(refreshExecutor)
+                .recordStats();
+
+        if (maximumWeight != null) {
+            builder.maximumWeight(maximumWeight).weigher(RetainedSizeEstimator::weigh);
+        } else {
+            builder.maximumSize(maximumSize);
+        }
+
+        if (refreshAfterWrite == null) {
+            return builder.build();
+        }
+        return builder.refreshAfterWrite(refreshAfterWrite).build(new RegistryLoader(name, loaders));
+    }
+
+    /**
+     * Expiração após a escrita com duração sorteada em
+     * {@code [ttl * (1 - jitter), ttl]}; leituras não alteram o prazo.
+     */
+    static final class JitteredExpiry implements Expiry<Object, Object> {
+
+        private final long ttlNanos;
+        private final long maxJitterNanos;
+
+        JitteredExpiry(Duration ttl, double jitter) {
+            this.ttlNanos = ttl.toNanos();
+            this.maxJitterNanos = (long) (ttlNanos * jitter);
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, Object value, long currentTime) {
+            if (maxJitterNanos <= 0) {
+                return ttlNanos;
+            }
+            return ttlNanos - ThreadLocalRandom.current().nextLong(maxJitterNanos + 1);
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Carrega pelo {@link CacheLoaderRegistry}. Sem função registrada o
+     * refresh mantém o valor atual e a carga direta devolve ausência.
+     */
+    private record RegistryLoader(String cacheName, CacheLoaderRegistry loaders)
+            implements CacheLoader<Object, Object> {
+
+        @Override
+        public Object load(Object key) {
+            return loaders.find(cacheName).map(loader -> loader.apply(key)).orElse(null);
+        }
+
+        @Override
+        public Object reload(Object key, Object oldValue) {
+            return loaders.find(cacheName).map(loader -> loader.apply(key)).orElse(oldValue);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Definição dos caches nomeados ({@code app.cache.caches.<nome>}): em qual
+ * {@code CacheManager} cada um vive, tamanho, expiração e refresh. Só existem
+ * os caches declarados aqui.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class CacheProperties {
+
+    /** Fração máxima sorteada para antecipar a expiração de cada entrada. */
+    private double jitter = CachePolicy.DEFAULT_JITTER;
+
+    private Map<String, Spec> caches = new LinkedHashMap<>();
+
+    @Data
+    public static class Spec {
+
+        /** Nome do bean {@code CacheManager} que expõe o cache. */
+        private String manager = "cacheManager";
+
+        private int initialCapacity = 100;
+
+        private long maximumSize = 1000;
+
+        /**
+         * Limite em bytes estimados de chave + valor; quando presente,
+         * substitui {@code maximumSize}.
+         */
+        private DataSize maximumWeight;
+
+        private Duration expireAfterWrite = Duration.ofMinutes(30);
+
+        /** Refresh assíncrono após a escrita; desativado quando ausente. */
+        private Duration refreshAfterWrite;
+
+        /** Sobrescreve o jitter global para este cache. */
+        private Double jitter;
+    }
+}
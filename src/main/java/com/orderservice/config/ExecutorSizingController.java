@@ -0,0 +1,171 @@
+package com.orderservice.config;
+
+import com.orderservice.metrics.ExecutorMetrics;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redimensiona os executores assíncronos a partir da carga medida.
+ *
+ * A cada intervalo estima a concorrência necessária pela lei de Little
+ * (L = λ·W: taxa de submissão × duração média da tarefa, que já inclui a
+ * latência dos serviços externos) e aplica uma folga. Se as tarefas ainda
+ * esperam na fila além do alvo, o pool cresce um passo a mais; quando a
+ * demanda cai, encolhe aos poucos.
+ *
+ * O teto de cada executor é a sua fração do pool de conexões do Hikari:
+ * as tarefas seguram uma conexão enquanto chamam os serviços externos, e
+ * threads além das conexões só trocariam espera na fila por espera no pool.
+ * As frações somam menos que o pool inteiro: o restante fica reservado para
+ * as requisições HTTP e os jobs agendados.
+ */
+@Slf4j
+public class ExecutorSizingController {
+
+    private final ExecutorSizingProperties properties;
+    private final int connectionPoolSize;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ManagedExecutor> executors = new ConcurrentHashMap<>();
+
+    public ExecutorSizingController(ExecutorSizingProperties properties, int connectionPoolSize,
+                                    MeterRegistry meterRegistry) {
+        validate(properties.getConnectionShare());
+        this.properties = properties;
+        this.connectionPoolSize = connectionPoolSize;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Passa a controlar o executor, se ele tiver fração de conexões
+     * configurada. O teto vale de imediato, inclusive com o ajuste desligado.
+     */
+    public void manage(ThreadPoolTaskExecutor executor, ExecutorMetrics metrics) {
+        String name = metrics.getName();
+        Double share = properties.getConnectionShare().get(name);
+        if (share == null) {
+            return;
+        }
+        int cap = Math.max(properties.getMinPoolSize(), (int) Math.floor(connectionPoolSize * share));
+        if (executor.getMaxPoolSize() > cap) {
+            log.info("Executor {}: máximo de {} threads limitado a {} ({}% de {} conexões)",
+                    name, executor.getMaxPoolSize(), cap, Math.round(share * 100), connectionPoolSize);
+        }
+        // o núcleo nunca pode passar do máximo: reduz primeiro o núcleo
+        executor.setCorePoolSize(Math.min(executor.getCorePoolSize(), cap));
+        executor.setMaxPoolSize(cap);
+
+        ManagedExecutor managed = new ManagedExecutor(name, executor, metrics, cap);
+        executors.put(name, managed);
+        Gauge.builder("executor.sizing.concurrency", managed, m -> m.concurrency)
+                .description("Concorrência necessária estimada pela lei de Little (λ·W)")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws IllegalStateException se alguma fração não está em (0, 1) ou se
+     *         elas somam o pool inteiro, sem sobra para as requisições
+     */
+    static void validate(Map<String, Double> connectionShare) {
+        // soma decimal: em double, 0.6 + 0.3 + 0.1 fica abaixo de 1
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, Double> share : connectionShare.entrySet()) {
+            Double value = share.getValue();
+            if (value == null || !(value > 0 && value < 1)) {
+                throw new IllegalStateException("Fração de conexões inválida para " + share.getKey() + ": " + value);
+            }
+            total = total.add(BigDecimal.valueOf(value));
+        }
+        if (total.compareTo(BigDecimal.ONE) >= 0) {
+            throw new IllegalStateException("As frações de conexões dos executores somam " + total
+                    + "; precisam somar menos que 1 para sobrar conexões para as requisições");
+        }
+    }
+
+    public void adjust() {
+        if (properties.isEnabled()) {
+            adjust(System.nanoTime());
+        }
+    }
+
+    void adjust(long nowNanos) {
+        executors.values().forEach(managed -> managed.adjust(nowNanos));
+    }
+
+    private final class ManagedExecutor {
+
+        private final String name;
+        private final ThreadPoolTaskExecutor executor;
+        private final ExecutorMetrics metrics;
+        private final int cap;
+
+        private ExecutorMetrics.Snapshot last;
+        private long lastNanos;
+        private double arrivalRate = Double.NaN;
+        private double serviceSeconds = Double.NaN;
+        private volatile double concurrency;
+
+        ManagedExecutor(String name, ThreadPoolTaskExecutor executor, ExecutorMetrics metrics, int cap) {
+            this.name = name;
+            this.executor = executor;
+            this.metrics = metrics;
+            this.cap = cap;
+            this.last = metrics.snapshot();
+            this.lastNanos = System.nanoTime();
+        }
+
+        void adjust(long nowNanos) {
+            ExecutorMetrics.Snapshot current = metrics.snapshot();
+            double seconds = (nowNanos - lastNanos) / 1e9;
+            if (seconds <= 0) {
+                return;
+            }
+            long submitted = current.submitted() - last.submitted();
+            long started = current.started() - last.started();
+            long completed = current.completed() - last.completed();
+            double queueWaitMillis = started > 0 ? (current.waitNanos() - last.waitNanos()) / 1e6 / started : 0;
+
+            arrivalRate = smooth(arrivalRate, submitted / seconds);
+            if (completed > 0) {
+                serviceSeconds = smooth(serviceSeconds, (current.busyNanos() - last.busyNanos()) / 1e9 / completed);
+            }
+            last = current;
+            lastNanos = nowNanos;
+            if (Double.isNaN(serviceSeconds)) {
+                return;
+            }
+            concurrency = arrivalRate * serviceSeconds;
+
+            int core = executor.getCorePoolSize();
+            int step = Math.max(1, core / 4);
+            int target = (int) Math.ceil(concurrency * properties.getHeadroom());
+            boolean backlog = queueWaitMillis > properties.getTargetQueueWait().toMillis()
+                    && executor.getQueueSize() > 0;
+            if (backlog) {
+                target = Math.max(target, core + step);
+            } else if (target < core) {
+                target = Math.max(target, core - step);
+            }
+            target = Math.max(properties.getMinPoolSize(), Math.min(cap, target));
+
+            if (target != core) {
+                executor.setCorePoolSize(target);
+                log.info("Executor {} redimensionado: {} -> {} threads (λ={}/s, W={}ms, espera na fila={}ms)",
+                        name, core, target, Math.round(arrivalRate), Math.round(serviceSeconds * 1000),
+                        Math.round(queueWaitMillis));
+            }
+        }
+
+        private double smooth(double previous, double sample) {
+            return Double.isNaN(previous)
+                    ? sample
+                    : previous + properties.getSmoothing() * (sample - previous);
+        }
+    }
+}
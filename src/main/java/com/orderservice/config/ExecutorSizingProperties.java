@@ -0,0 +1,40 @@
+package com.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Ajuste automático dos executores assíncronos ({@code app.executors.sizing}).
+ * Só os executores com fração do pool de conexões em {@code connection-share}
+ * são redimensionados.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.executors.sizing")
+public class ExecutorSizingProperties {
+
+    private boolean enabled = true;
+
+    private Duration interval = Duration.ofSeconds(10);
+
+    /** Espera média na fila acima da qual o pool cresce além da estimativa. */
+    private Duration targetQueueWait = Duration.ofMillis(100);
+
+    /** Multiplicador sobre a concorrência estimada pela lei de Little. */
+    private double headroom = 1.25;
+
+    /** Peso da medição mais recente nas médias móveis de chegada e duração. */
+    private double smoothing = 0.3;
+
+    private int minPoolSize = 2;
+
+    /**
+     * Fração do {@code maximum-pool-size} do Hikari que cada executor pode
+     * ocupar, por nome do bean. O restante fica para as requisições HTTP e
+     * os jobs agendados.
+     */
+    private Map<String, Double> connectionShare = new LinkedHashMap<>();
+}
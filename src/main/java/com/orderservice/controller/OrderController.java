@@ -1,20 +1,33 @@
 package com.orderservice.controller;
 
+import com.orderservice.config.WebConfig;
 import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderProcessBatchRequestDTO;
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchRequestDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
 import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.exception.DuplicateOrderException;
 import com.orderservice.model.OrderStatus;
+import com.orderservice.service.OrderResponseCache;
+import com.orderservice.service.OrderResponseCache.CachedResponse;
 import com.orderservice.service.OrderService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import com.orderservice.service.OrderStatusSubscriptions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -23,9 +36,10 @@ import java.util.UUID;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderResponseCache responseCache;
+    private final OrderStatusSubscriptions statusSubscriptions;
 
     @PostMapping
-    @RateLimiter(name = "default")
     public ResponseEntity<OrderDTO> createOrder(@RequestBody @Validated OrderDTO orderDTO) {
         try {
             OrderDTO createdOrder = orderService.createOrder(orderDTO);
@@ -37,9 +51,14 @@ public class OrderController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<OrderDTO> getOrderById(@PathVariable UUID id) {
-        OrderDTO order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<?> getOrderById(@PathVariable UUID id,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType binary = preferredBinary(accept);
+        if (binary != null) {
+            OrderDTO order = orderService.getOrderById(id);
+            return toBinaryResponse(responseCache.order(order), binary, order);
+        }
+        return toResponse(responseCache.order(id));
     }
 
     @GetMapping("/number/{orderNumber}")
@@ -49,9 +68,39 @@ public class OrderController {
     }
 
     @GetMapping("/{id}/status")
-    public ResponseEntity<OrderStatusDTO> getOrderStatus(@PathVariable UUID id) {
-        OrderStatusDTO status = orderService.getOrderStatus(id);
-        return ResponseEntity.ok(status);
+    public ResponseEntity<?> getOrderStatus(@PathVariable UUID id,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        MediaType binary = preferredBinary(accept);
+        if (binary != null) {
+            OrderStatusDTO status = orderService.getOrderStatus(id);
+            return toBinaryResponse(responseCache.status(status), binary, status);
+        }
+        return toResponse(responseCache.status(id));
+    }
+
+    /**
+     * Long-poll: responde quando o pedido chega a {@code waitFor} ou, ao fim
+     * de {@code timeout} (ex.: 30s, limitado por app.status-stream.max-wait),
+     * com o status atual.
+     */
+    @GetMapping(value = "/{id}/status", params = "waitFor")
+    public CompletableFuture<ResponseEntity<byte[]>> awaitOrderStatus(
+            @PathVariable UUID id,
+            @RequestParam OrderStatus waitFor,
+            @RequestParam(defaultValue = "30s") String timeout) {
+        return statusSubscriptions.awaitStatus(id, waitFor, DurationStyle.detectAndParse(timeout))
+                .thenApply(OrderController::toResponse);
+    }
+
+    @GetMapping(value = "/{id}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(@PathVariable UUID id) {
+        return statusSubscriptions.stream(id);
+    }
+
+    @PostMapping("/status:batchGet")
+    public ResponseEntity<OrderStatusBatchResponseDTO> getOrderStatuses(
+            @RequestBody @Validated OrderStatusBatchRequestDTO request) {
+        return ResponseEntity.ok(orderService.getOrderStatuses(request.getIds(), request.getOrderNumbers()));
     }
 
     @GetMapping
@@ -70,9 +119,69 @@ public class OrderController {
         return ResponseEntity.ok(processedOrder);
     }
 
+    @PostMapping("/process:batch")
+    public ResponseEntity<OrderProcessBatchResponseDTO> processOrders(
+            @RequestBody @Validated OrderProcessBatchRequestDTO request) {
+        return ResponseEntity.ok(orderService.processOrders(request.getIds()));
+    }
+
     @PostMapping("/{id}/notify")
     public ResponseEntity<OrderDTO> notifyExternalSystem(@PathVariable UUID id) {
         OrderDTO notifiedOrder = orderService.notifyExternalSystem(id);
         return ResponseEntity.ok(notifiedOrder);
     }
+
+    /**
+     * Formato binário preferido pelo {@code Accept}, ou {@code null} se o JSON
+     * vence. O cache de respostas guarda apenas JSON; clientes que preferem
+     * CBOR ou Smile recebem o DTO (também em cache) pela negociação de conteúdo.
+     */
+    static MediaType preferredBinary(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+
+        MediaType preferred = null;
+        for (MediaType mediaType : mediaTypes) {
+            boolean known = MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)
+                    || WebConfig.BINARY_MEDIA_TYPES.stream().anyMatch(mediaType::equalsTypeAndSubtype);
+            if (known && (preferred == null || mediaType.getQualityValue() > preferred.getQualityValue())) {
+                preferred = mediaType;
+            }
+        }
+        if (preferred == null || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(preferred)) {
+            return null;
+        }
+        return new MediaType(preferred.getType(), preferred.getSubtype());
+    }
+
+    /**
+     * Corpo já serializado com ETag; o Spring responde 304 sem corpo quando
+     * o {@code If-None-Match} da requisição coincide.
+     */
+    private static ResponseEntity<byte[]> toResponse(CachedResponse response) {
+        return ResponseEntity.ok()
+                .eTag(response.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(response.body());
+    }
+
+    /**
+     * DTO serializado no formato binário pelos conversores, com ETag derivada
+     * da ETag do JSON do mesmo DTO mais o formato: o mesmo conteúdo tem uma ETag
+     * forte por representação, e o {@code If-None-Match} continua rendendo 304.
+     */
+    private static ResponseEntity<Object> toBinaryResponse(CachedResponse json, MediaType binary, Object body) {
+        String etag = json.etag().substring(0, json.etag().length() - 1) + "-" + binary.getSubtype() + "\"";
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(binary)
+                .body(body);
+    }
 }
\ No newline at end of file
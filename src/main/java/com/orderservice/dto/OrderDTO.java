@@ -1,5 +1,6 @@
 package com.orderservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.orderservice.model.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,4 +32,8 @@ public class OrderDTO {
     private LocalDateTime processedAt;
     private LocalDateTime completedAt;
     private BigDecimal totalAmount;
+
+    /** Versão da entidade no momento do mapeamento; usada apenas pelo cache. */
+    @JsonIgnore
+    private Long version;
 }
\ No newline at end of file
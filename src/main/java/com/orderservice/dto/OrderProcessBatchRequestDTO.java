@@ -0,0 +1,24 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderProcessBatchRequestDTO {
+
+    public static final int MAX_ENTRIES = 5000;
+
+    @NotEmpty(message = "Informe ao menos um pedido")
+    @Size(max = MAX_ENTRIES, message = "No máximo " + MAX_ENTRIES + " pedidos por lote")
+    private List<UUID> ids;
+}
@@ -0,0 +1,27 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderProcessBatchResponseDTO {
+
+    /** Pedidos que passaram de RECEIVED para CALCULATED neste lote. */
+    private List<UUID> calculated;
+
+    /** Pedidos que não estavam RECEIVED ou que outra execução processou antes. */
+    private List<UUID> skipped;
+
+    /** Pedidos marcados como ERROR, com nova tentativa agendada. */
+    private List<UUID> failed;
+
+    private List<UUID> notFound;
+}
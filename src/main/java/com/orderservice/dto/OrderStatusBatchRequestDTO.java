@@ -0,0 +1,25 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchRequestDTO {
+
+    public static final int MAX_ENTRIES = 5000;
+
+    @Size(max = MAX_ENTRIES, message = "No máximo " + MAX_ENTRIES + " ids por consulta")
+    private List<UUID> ids;
+
+    @Size(max = MAX_ENTRIES, message = "No máximo " + MAX_ENTRIES + " números de pedido por consulta")
+    private List<String> orderNumbers;
+}
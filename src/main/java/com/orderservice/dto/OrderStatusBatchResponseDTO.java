@@ -0,0 +1,20 @@
+package com.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusBatchResponseDTO {
+
+    private List<OrderStatusDTO> statuses;
+
+    /** Ids e números de pedido solicitados que não existem. */
+    private List<String> notFound;
+}
@@ -0,0 +1,25 @@
+package com.orderservice.event;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Publicado após o commit de uma transição de estado de um pedido, com o
+ * status já mapeado. Transições repetidas (mesma versão) não geram evento.
+ */
+public record OrderStatusChangedEvent(OrderStatusDTO status) {
+
+    public UUID orderId() {
+        return status.getId();
+    }
+
+    public OrderStatus newStatus() {
+        return status.getStatus();
+    }
+
+    public Long version() {
+        return status.getVersion();
+    }
+}
@@ -0,0 +1,18 @@
+package com.orderservice.exception;
+
+import java.time.Duration;
+
+public class SubscriptionLimitExceededException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public SubscriptionLimitExceededException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /** Valor do header {@code Retry-After}, arredondado para cima e de no mínimo 1s. */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (long) Math.ceil(retryAfter.toMillis() / 1000.0));
+    }
+}
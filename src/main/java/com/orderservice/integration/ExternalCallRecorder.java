@@ -0,0 +1,38 @@
+package com.orderservice.integration;
+
+import com.orderservice.jfr.ExternalCallEvent;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emite um {@link ExternalCallEvent} por requisição HTTP dos clientes Feign,
+ * incluindo as tentativas repetidas pelo retry. Aplicado a todos os clientes
+ * pelo Spring Cloud OpenFeign, que registra os beans {@link Capability}.
+ */
+@Component
+public class ExternalCallRecorder implements Capability {
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> {
+            ExternalCallEvent event = ExternalCallEvent.start();
+            int status = -1;
+            try {
+                Response response = client.execute(request, options);
+                status = response.status();
+                return response;
+            } finally {
+                event.finish(operation(request), request.httpMethod().name(), request.url(), status);
+            }
+        };
+    }
+
+    private static String operation(Request request) {
+        return request.requestTemplate() != null && request.requestTemplate().methodMetadata() != null
+                ? request.requestTemplate().methodMetadata().configKey()
+                : null;
+    }
+}
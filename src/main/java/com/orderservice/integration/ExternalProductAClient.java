@@ -12,7 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.List;
 
-@FeignClient(name = "external-product-a", url = "${external-service.product-a.url}")
+@FeignClient(name = "external-product-a", url = "${external-service.product-a.url}", primary = false)
 public interface ExternalProductAClient {
 
     @GetMapping("/products/{productId}")
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "external-product-b", url = "${external-service.product-b.url}")
+@FeignClient(name = "external-product-b", url = "${external-service.product-b.url}", primary = false)
 public interface ExternalProductBClient {
 
     @GetMapping("/orders/{orderNumber}")
@@ -0,0 +1,111 @@
+package com.orderservice.integration.mock;
+
+import com.orderservice.jfr.ExternalCallEvent;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simula uma chamada HTTP a um serviço externo conforme
+ * {@link MockExternalProperties.Endpoint}: espera a latência sorteada e, nas
+ * frações configuradas, falha com as mesmas exceções que o cliente Feign
+ * lançaria (429, 503 e read timeout). Assim circuit breaker, retry e
+ * fallbacks reagem como em produção.
+ */
+class ExternalServiceSimulator {
+
+    private final String baseUrl;
+    private final MockExternalProperties.Endpoint spec;
+
+    ExternalServiceSimulator(String baseUrl, MockExternalProperties.Endpoint spec) {
+        this.baseUrl = baseUrl;
+        this.spec = spec;
+    }
+
+    /**
+     * @param methodKey identificação do método no formato do Feign, usada nas mensagens de erro e no evento JFR
+     */
+    void call(String methodKey, Request.HttpMethod method, String path) {
+        ExternalCallEvent event = ExternalCallEvent.start();
+        int status = -1;
+        try {
+            simulate(methodKey, method, path);
+            status = 200;
+        } catch (FeignException e) {
+            status = e.status();
+            throw e;
+        } finally {
+            event.finish(methodKey, method.name(), baseUrl + path, status);
+        }
+    }
+
+    private void simulate(String methodKey, Request.HttpMethod method, String path) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Request request = Request.create(method, baseUrl + path, Map.of(), null, StandardCharsets.UTF_8, null);
+
+        double outcome = random.nextDouble();
+        if (outcome < spec.getTimeoutRate()) {
+            sleep(spec.getTimeout());
+            throw new RetryableException(-1, "Read timed out executing " + method + " " + request.url(),
+                    method, new SocketTimeoutException("Read timed out"), (Long) null, request);
+        }
+        outcome -= spec.getTimeoutRate();
+
+        sleep(sampleLatency(spec.getLatency(), random));
+
+        if (outcome < spec.getThrottleRate()) {
+            throw FeignException.errorStatus(methodKey, response(request, 429, "Too Many Requests",
+                    Map.of("Retry-After", List.of(String.valueOf(spec.getRetryAfter().toSeconds())))));
+        }
+        outcome -= spec.getThrottleRate();
+
+        if (outcome < spec.getErrorRate()) {
+            throw FeignException.errorStatus(methodKey, response(request, 503, "Service Unavailable", Map.of()));
+        }
+    }
+
+    static Duration sampleLatency(MockExternalProperties.Latency latency, Random random) {
+        Duration sample = switch (latency.getDistribution()) {
+            case FIXED -> latency.getMedian();
+            case LOGNORMAL -> logNormal(latency.getMedian(), latency.getSigma(), random);
+            case BIMODAL -> logNormal(random.nextDouble() < latency.getSlowProbability()
+                    ? latency.getSlowMedian() : latency.getMedian(), latency.getSigma(), random);
+        };
+        return sample.compareTo(latency.getMax()) > 0 ? latency.getMax() : sample;
+    }
+
+    private static Duration logNormal(Duration median, double sigma, Random random) {
+        return Duration.ofNanos((long) (median.toNanos() * Math.exp(sigma * random.nextGaussian())));
+    }
+
+    private static Response response(Request request, int status, String reason,
+                                     Map<String, Collection<String>> headers) {
+        return Response.builder()
+                .request(request)
+                .status(status)
+                .reason(reason)
+                .headers(headers)
+                .build();
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
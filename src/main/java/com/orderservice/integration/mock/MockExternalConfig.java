@@ -0,0 +1,11 @@
+package com.orderservice.integration.mock;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("mock")
+@EnableConfigurationProperties(MockExternalProperties.class)
+public class MockExternalConfig {
+}
@@ -3,6 +3,9 @@ package com.orderservice.integration.mock;
 import com.orderservice.integration.ExternalProductAClient;
 import com.orderservice.integration.dto.ExternalOrderDTO;
 import com.orderservice.integration.dto.ExternalProductDTO;
+import feign.Request;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
@@ -12,20 +15,29 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Serviço A simulado. As falhas não têm fallback aqui: propagam como no
+ * cliente Feign, para o circuit breaker e o retry do serviço de pedidos.
+ */
 @Component
 @Profile("mock")
+@Primary
 public class MockExternalProductAClient implements ExternalProductAClient {
 
-    private final Map<String, ExternalProductDTO> productDatabase = new HashMap<>();
-    private final Map<String, ExternalOrderDTO> orderDatabase = new HashMap<>();
+    private final Map<String, ExternalProductDTO> productDatabase;
+    private final List<ExternalProductDTO> products;
+    private final Map<String, ExternalOrderDTO> orderDatabase = new ConcurrentHashMap<>();
+    private final ExternalServiceSimulator simulator;
 
-    public MockExternalProductAClient() {
-        initializeProducts();
-    }
+    public MockExternalProductAClient(MockExternalProperties properties,
+                                      @Value("${external-service.product-a.url}") String baseUrl) {
+        this.simulator = new ExternalServiceSimulator(baseUrl, properties.getProductA());
 
-    private void initializeProducts() {
-        for (int i = 1; i <= 10; i++) {
+        Map<String, ExternalProductDTO> catalog = new HashMap<>();
+        List<ExternalProductDTO> ordered = new ArrayList<>(properties.getCatalogSize());
+        for (int i = 1; i <= properties.getCatalogSize(); i++) {
             String productId = "PROD-" + i;
             ExternalProductDTO product = ExternalProductDTO.builder()
                 .id(productId)
@@ -33,37 +45,40 @@ public class MockExternalProductAClient implements ExternalProductAClient {
                 .price(BigDecimal.valueOf(10.0 * i))
                 .available(true)
                 .build();
-            productDatabase.put(productId, product);
+            catalog.put(productId, product);
+            ordered.add(product);
         }
+        this.productDatabase = Map.copyOf(catalog);
+        this.products = List.copyOf(ordered);
     }
 
     @Override
-    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA", fallbackMethod = "getProductFallback")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA")
     public ExternalProductDTO getProduct(String productId) {
-        simulateNetworkDelay();
-        
+        simulator.call("ExternalProductAClient#getProduct(String)", Request.HttpMethod.GET, "/products/" + productId);
+
         return productDatabase.getOrDefault(productId, createDefaultProduct(productId));
     }
 
     @Override
-    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA", fallbackMethod = "getProductsFallback")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA")
     public List<ExternalProductDTO> getProducts() {
-        simulateNetworkDelay();
-        
-        return new ArrayList<>(productDatabase.values());
+        simulator.call("ExternalProductAClient#getProducts()", Request.HttpMethod.GET, "/products");
+
+        return new ArrayList<>(products);
     }
 
     @Override
-    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA", fallbackMethod = "submitOrderFallback")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceA")
     public ExternalOrderDTO submitOrder(ExternalOrderDTO orderDTO) {
-        simulateNetworkDelay();
-        
+        simulator.call("ExternalProductAClient#submitOrder(ExternalOrderDTO)", Request.HttpMethod.POST, "/orders");
+
         String confirmationId = UUID.randomUUID().toString();
         orderDTO.setConfirmationId(confirmationId);
         orderDTO.setStatus("CONFIRMED");
-        
+
         orderDatabase.put(confirmationId, orderDTO);
-        
+
         return orderDTO;
     }
 
@@ -75,26 +90,4 @@ public class MockExternalProductAClient implements ExternalProductAClient {
             .available(false)
             .build();
     }
-
-    private void simulateNetworkDelay() {
-        try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    public ExternalProductDTO getProductFallback(String productId, Exception ex) {
-        return createDefaultProduct(productId);
-    }
-
-    public List<ExternalProductDTO> getProductsFallback(Exception ex) {
-        return new ArrayList<>();
-    }
-
-    public ExternalOrderDTO submitOrderFallback(ExternalOrderDTO orderDTO, Exception ex) {
-        ExternalOrderDTO fallbackOrder = new ExternalOrderDTO();
-        fallbackOrder.setStatus("ERROR");
-        return fallbackOrder;
-    }
 }
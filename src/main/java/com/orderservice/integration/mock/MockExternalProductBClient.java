@@ -2,47 +2,46 @@ package com.orderservice.integration.mock;
 
 import com.orderservice.integration.ExternalProductBClient;
 import com.orderservice.integration.dto.ExternalOrderDTO;
+import feign.Request;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Serviço B simulado. As falhas não têm fallback aqui: propagam como no
+ * cliente Feign, para o circuit breaker e o retry do serviço de pedidos.
+ */
 @Component
 @Profile("mock")
+@Primary
 public class MockExternalProductBClient implements ExternalProductBClient {
 
-    private final Map<String, String> orderStatusDatabase = new HashMap<>();
+    private final Map<String, String> orderStatusDatabase = new ConcurrentHashMap<>();
+    private final ExternalServiceSimulator simulator;
+
+    public MockExternalProductBClient(MockExternalProperties properties,
+                                      @Value("${external-service.product-b.url}") String baseUrl) {
+        this.simulator = new ExternalServiceSimulator(baseUrl, properties.getProductB());
+    }
 
     @Override
-    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceB", fallbackMethod = "getOrderStatusFallback")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceB")
     public String getOrderStatus(String orderNumber) {
-        simulateNetworkDelay();
-        
+        simulator.call("ExternalProductBClient#getOrderStatus(String)", Request.HttpMethod.GET, "/orders/" + orderNumber);
+
         return orderStatusDatabase.getOrDefault(orderNumber, "UNKNOWN");
     }
 
     @Override
-    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceB", fallbackMethod = "notifyOrderFallback")
+    @io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker(name = "externalServiceB")
     public void notifyOrder(ExternalOrderDTO orderDTO) {
-        simulateNetworkDelay();
-        
+        simulator.call("ExternalProductBClient#notifyOrder(ExternalOrderDTO)", Request.HttpMethod.POST, "/orders");
+
         String status = "NOTIFIED";
         orderStatusDatabase.put(orderDTO.getOrderNumber(), status);
     }
-
-    private void simulateNetworkDelay() {
-        try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
-    public String getOrderStatusFallback(String orderNumber, Exception ex) {
-        return "ERROR";
-    }
-
-    public void notifyOrderFallback(ExternalOrderDTO orderDTO, Exception ex) {
-    }
 }
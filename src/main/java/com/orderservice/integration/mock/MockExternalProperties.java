@@ -0,0 +1,73 @@
+package com.orderservice.integration.mock;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Comportamento dos serviços externos simulados no perfil mock
+ * ({@code mock.external}): tamanho do catálogo e, por serviço, distribuição
+ * de latência e frações de chamadas que falham, esgotam o timeout ou são
+ * recusadas por throttling.
+ */
+@Data
+@ConfigurationProperties(prefix = "mock.external")
+public class MockExternalProperties {
+
+    /** Produtos do catálogo do serviço A ({@code PROD-1} a {@code PROD-n}). */
+    private int catalogSize = 1000;
+
+    private Endpoint productA = new Endpoint();
+
+    private Endpoint productB = new Endpoint();
+
+    @Data
+    public static class Endpoint {
+
+        private Latency latency = new Latency();
+
+        /** Fração das chamadas que falham com HTTP 503. */
+        private double errorRate;
+
+        /** Fração das chamadas que ficam sem resposta até o read-timeout. */
+        private double timeoutRate;
+
+        /** Espera antes do timeout, normalmente o read-timeout do cliente real. */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        /** Fração das chamadas recusadas com HTTP 429. */
+        private double throttleRate;
+
+        /** Valor do Retry-After nas respostas 429. */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class Latency {
+
+        private Distribution distribution = Distribution.FIXED;
+
+        /** Latência fixa, ou mediana nas distribuições lognormal e bimodal. */
+        private Duration median = Duration.ofMillis(50);
+
+        /** Desvio padrão do logaritmo da latência (lognormal e os dois modos da bimodal). */
+        private double sigma = 0.5;
+
+        /** Probabilidade de cair no modo lento da bimodal. */
+        private double slowProbability = 0.01;
+
+        /** Mediana do modo lento da bimodal. */
+        private Duration slowMedian = Duration.ofSeconds(1);
+
+        /** Teto de qualquer amostra. */
+        private Duration max = Duration.ofSeconds(30);
+    }
+
+    public enum Distribution {
+        FIXED,
+        LOGNORMAL,
+        /** Lognormal com uma cauda longa: uma fração das chamadas segue uma segunda lognormal, mais lenta. */
+        BIMODAL
+    }
+}
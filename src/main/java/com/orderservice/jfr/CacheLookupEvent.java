@@ -0,0 +1,49 @@
+package com.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Consulta ao cache de pedidos; numa falta inclui a carga do banco.
+ */
+@Name(CacheLookupEvent.NAME)
+@Label("Consulta ao cache de pedidos")
+@Category({"Order Service", "Cache"})
+@Enabled(false)
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    public static final String NAME = "com.orderservice.CacheLookup";
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Chave")
+    String key;
+
+    @Label("Acerto")
+    boolean hit = true;
+
+    public static CacheLookupEvent start() {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Chamado pela função de carga: a consulta foi uma falta. */
+    public void miss() {
+        hit = false;
+    }
+
+    public void finish(String cache, Object key) {
+        if (shouldCommit()) {
+            this.cache = cache;
+            this.key = String.valueOf(key);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Verificação de duplicidade de um pedido, por número ou por conteúdo.
+ */
+@Name(DuplicateCheckEvent.NAME)
+@Label("Verificação de duplicidade")
+@Category({"Order Service", "Pedidos"})
+@Enabled(false)
+@StackTrace(false)
+public class DuplicateCheckEvent extends Event {
+
+    public static final String NAME = "com.orderservice.DuplicateCheck";
+
+    public static final String NUMBER = "number";
+    public static final String CONTENT = "content";
+
+    @Label("Verificação")
+    String check;
+
+    @Label("Origem")
+    @Description("buffer, cache ou none (não encontrado)")
+    String source;
+
+    @Label("Duplicado")
+    boolean duplicate;
+
+    public static DuplicateCheckEvent start(String check) {
+        DuplicateCheckEvent event = new DuplicateCheckEvent();
+        event.check = check;
+        event.begin();
+        return event;
+    }
+
+    /** Registra o resultado e o devolve, para uso direto no {@code return}. */
+    public boolean finish(String source, boolean duplicate) {
+        if (shouldCommit()) {
+            this.source = source;
+            this.duplicate = duplicate;
+            commit();
+        }
+        return duplicate;
+    }
+}
@@ -0,0 +1,58 @@
+package com.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Chamada HTTP a um serviço externo (A ou B), feita pelo cliente Feign ou
+ * pelo simulador do perfil mock.
+ */
+@Name(ExternalCallEvent.NAME)
+@Label("Chamada a serviço externo")
+@Category({"Order Service", "Serviços externos"})
+@Enabled(false)
+@StackTrace(false)
+public class ExternalCallEvent extends Event {
+
+    public static final String NAME = "com.orderservice.ExternalCall";
+
+    @Label("Operação")
+    @Description("Método do cliente no formato do Feign, ex. ExternalProductAClient#getProducts()")
+    String operation;
+
+    @Label("Método HTTP")
+    String method;
+
+    @Label("URL")
+    String url;
+
+    @Label("Status HTTP")
+    @Description("-1 quando não houve resposta (timeout, conexão recusada)")
+    int status;
+
+    @Label("Resultado")
+    @Description("success ou error")
+    String outcome;
+
+    public static ExternalCallEvent start() {
+        ExternalCallEvent event = new ExternalCallEvent();
+        event.begin();
+        return event;
+    }
+
+    public void finish(String operation, String method, String url, int status) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.method = method;
+            this.url = url;
+            this.status = status;
+            this.outcome = status >= 200 && status < 400 ? "success" : "error";
+            commit();
+        }
+    }
+}
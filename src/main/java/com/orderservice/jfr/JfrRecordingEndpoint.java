@@ -0,0 +1,163 @@
+package com.orderservice.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controle de uma gravação JFR pelo actuator ({@code /actuator/jfr}):
+ * <ul>
+ *   <li>{@code GET /actuator/jfr}: estado da gravação;</li>
+ *   <li>{@code POST /actuator/jfr/start[/{settings}[/{maxAge}]]}: inicia com as
+ *       configurações {@code default} ou {@code profile} do JDK mais os eventos do serviço;</li>
+ *   <li>{@code GET /actuator/jfr/dump}: baixa o conteúdo gravado até agora;</li>
+ *   <li>{@code DELETE /actuator/jfr}: para e descarta a gravação.</li>
+ * </ul>
+ * Os eventos do serviço ficam desligados fora de uma gravação, com custo
+ * desprezível nos pontos de emissão.
+ *
+ * <p>O endpoint não é exposto por padrão: a gravação tem dados do processo e
+ * deve ficar só numa porta de gerenciamento interna. Os eventos do JDK com
+ * variáveis de ambiente e propriedades de sistema (onde ficam as senhas)
+ * são desligados mesmo assim.
+ */
+@Component
+@WebEndpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+    static final List<Class<? extends Event>> EVENTS = List.of(
+            OrderCreationEvent.class,
+            OrderStageEvent.class,
+            DuplicateCheckEvent.class,
+            CacheLookupEvent.class,
+            ExternalCallEvent.class);
+
+    /** Eventos do JDK que copiariam credenciais do ambiente para a gravação. */
+    static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty",
+            "jdk.JVMInformation");
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(30);
+    private static final long MAX_SIZE_BYTES = 256L * 1024 * 1024;
+
+    private Recording recording;
+    private Path dumpFile;
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("startTime", recording.getStartTime());
+        status.put("maxAge", recording.getMaxAge());
+        status.put("size", recording.getSize());
+        return status;
+    }
+
+    /**
+     * Os parâmetros opcionais vêm no caminho, depois da ação: {@code start},
+     * {@code start/profile} ou {@code start/profile/10m}. Parâmetros sem
+     * {@code @Nullable} seriam obrigatórios no corpo da requisição.
+     *
+     * @param path ação {@code start}, seguida da configuração do JDK ({@code default},
+     *             ~1% de overhead, ou {@code profile}) e da janela mantida em disco
+     */
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Selector(match = Selector.Match.ALL_REMAINING) String[] path) {
+        String action = path.length > 0 ? path[0] : null;
+        if (!"start".equals(action) || path.length > 3) {
+            throw new InvalidEndpointRequestException("Ação desconhecida: " + String.join("/", path), "Ação desconhecida");
+        }
+        String settings = path.length > 1 ? path[1] : null;
+        String maxAge = path.length > 2 ? path[2] : null;
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        closeRecording();
+
+        String configurationName = settings != null ? settings : "default";
+        Recording started = new Recording(configuration(configurationName));
+        started.setName("order-service");
+        started.setToDisk(true);
+        started.setMaxAge(maxAge != null ? DurationStyle.detectAndParse(maxAge) : DEFAULT_MAX_AGE);
+        started.setMaxSize(MAX_SIZE_BYTES);
+        EVENTS.forEach(event -> started.enable(event).withoutThreshold());
+        SENSITIVE_EVENTS.forEach(started::disable);
+        started.start();
+        recording = started;
+        log.info("Gravação JFR iniciada (configuração {}, janela {})", configurationName, started.getMaxAge());
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump(@Selector String action) {
+        if (!"dump".equals(action)) {
+            throw new InvalidEndpointRequestException("Ação desconhecida: " + action, "Ação desconhecida");
+        }
+        if (recording == null || recording.getState() != RecordingState.RUNNING) {
+            return null;
+        }
+        try {
+            if (dumpFile == null) {
+                dumpFile = Files.createTempFile("order-service-", ".jfr");
+                dumpFile.toFile().deleteOnExit();
+            }
+            recording.dump(dumpFile);
+            log.info("Gravação JFR exportada ({} bytes)", Files.size(dumpFile));
+            return new FileSystemResource(dumpFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao exportar a gravação JFR", e);
+        }
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        closeRecording();
+        log.info("Gravação JFR encerrada");
+        return status();
+    }
+
+    @PreDestroy
+    void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static Configuration configuration(String name) {
+        try {
+            return Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Configuração JFR inválida: " + name, e.getMessage());
+        }
+    }
+}
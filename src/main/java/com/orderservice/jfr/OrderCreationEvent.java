@@ -0,0 +1,47 @@
+package com.orderservice.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Criação de um pedido, da validação ao {@code save}.
+ */
+@Name(OrderCreationEvent.NAME)
+@Label("Criação de pedido")
+@Category({"Order Service", "Pedidos"})
+@Enabled(false)
+@StackTrace(false)
+public class OrderCreationEvent extends Event {
+
+    public static final String NAME = "com.orderservice.OrderCreation";
+
+    @Label("Pedido")
+    String orderId;
+
+    @Label("Número do pedido")
+    String orderNumber;
+
+    @Label("Itens")
+    int itemCount;
+
+    @Label("Resultado")
+    @Description("success, duplicate ou error")
+    String outcome;
+
+    public void finish(String outcome, String orderNumber, UUID orderId, int itemCount) {
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.orderNumber = orderNumber;
+            this.orderId = orderId != null ? orderId.toString() : null;
+            this.itemCount = itemCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.orderservice.jfr;
+
+import com.orderservice.model.Order;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.UUID;
+
+/**
+ * Uma etapa do ciclo de vida do pedido ({@code process} ou {@code notify}).
+ * As chamadas externas e consultas ao banco feitas pela etapa aparecem na
+ * mesma thread, dentro do intervalo do evento.
+ */
+@Name(OrderStageEvent.NAME)
+@Label("Etapa do pedido")
+@Category({"Order Service", "Pedidos"})
+@Enabled(false)
+@StackTrace(false)
+public class OrderStageEvent extends Event {
+
+    public static final String NAME = "com.orderservice.OrderStage";
+
+    public static final String PROCESS = "process";
+    public static final String NOTIFY = "notify";
+
+    @Label("Pedido")
+    String orderId;
+
+    @Label("Etapa")
+    String stage;
+
+    @Label("Itens")
+    int itemCount;
+
+    @Label("Resultado")
+    @Description("success, skipped ou error")
+    String outcome;
+
+    @Label("Status final")
+    String status;
+
+    public static OrderStageEvent start(String stage, UUID orderId) {
+        OrderStageEvent event = new OrderStageEvent();
+        if (event.isEnabled()) {
+            event.stage = stage;
+            event.orderId = orderId.toString();
+        }
+        event.begin();
+        return event;
+    }
+
+    /** Os itens só são lidos com o evento ativo, para não carregar a coleção à toa. */
+    public void finish(String outcome, Order order) {
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            this.status = order.getStatus().name();
+            this.itemCount = order.getItems() != null ? order.getItems().size() : 0;
+            commit();
+        }
+    }
+}
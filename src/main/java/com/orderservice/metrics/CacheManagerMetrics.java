@@ -0,0 +1,52 @@
+package com.orderservice.metrics;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Exporta as estatísticas de todos os caches Caffeine de todos os
+ * {@link CacheManager}s: {@code cache.gets} (hit/miss), {@code cache.evictions},
+ * {@code cache.load.duration}, {@code cache.size} e {@code cache.hit.ratio},
+ * com as tags {@code cache} e {@code cache.manager}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CacheManagerMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CacheManager> cacheManagers;
+
+    @PostConstruct
+    public void bindAll() {
+        cacheManagers.forEach((managerName, cacheManager) -> {
+            for (String cacheName : cacheManager.getCacheNames()) {
+                if (cacheManager.getCache(cacheName) instanceof CaffeineCache caffeineCache) {
+                    bind(managerName, cacheName, caffeineCache.getNativeCache());
+                }
+            }
+        });
+    }
+
+    private void bind(String managerName, String cacheName, Cache<Object, Object> cache) {
+        Tags tags = Tags.of("cache.manager", managerName);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, cacheName, tags);
+        Gauge.builder("cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Fração de leituras atendidas pelo cache desde o início")
+                .tags(tags)
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        log.debug("Métricas registradas para o cache {} ({})", cacheName, managerName);
+    }
+}
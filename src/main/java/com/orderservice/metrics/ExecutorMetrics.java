@@ -0,0 +1,112 @@
+package com.orderservice.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskDecorator;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentação de um executor assíncrono, complementar às métricas
+ * {@code executor.*} que o Spring Boot já publica (threads ativas, fila,
+ * tamanho do pool): {@code executor.queue.wait} (tempo entre a submissão e o
+ * início da tarefa), {@code executor.task.time} e {@code executor.rejected},
+ * que conta as tarefas executadas na thread de quem submeteu por falta de
+ * espaço na fila. Todas com a tag {@code name}.
+ *
+ * Os totais acumulados ({@link #snapshot()}) alimentam o
+ * {@link com.orderservice.config.ExecutorSizingController}.
+ */
+@Slf4j
+public class ExecutorMetrics implements TaskDecorator {
+
+    private static final Duration[] QUEUE_WAIT_SLOS = {
+            Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5)
+    };
+
+    private final String name;
+    private final Timer queueWaitTimer;
+    private final Timer taskTimer;
+    private final Counter callerRunsCounter;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+
+    public ExecutorMetrics(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.queueWaitTimer = Timer.builder("executor.queue.wait")
+                .description("Tempo que a tarefa esperou na fila do executor")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(QUEUE_WAIT_SLOS)
+                .register(meterRegistry);
+        this.taskTimer = Timer.builder("executor.task.time")
+                .description("Tempo de execução da tarefa, incluindo chamadas externas")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.callerRunsCounter = Counter.builder("executor.rejected")
+                .description("Tarefas recusadas pelo executor com fila e pool cheios")
+                .tag("name", name)
+                .tag("policy", "caller-runs")
+                .register(meterRegistry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Runnable decorate(Runnable task) {
+        submitted.increment();
+        long enqueuedAt = System.nanoTime();
+        return () -> {
+            long startedAt = System.nanoTime();
+            long waited = startedAt - enqueuedAt;
+            started.increment();
+            waitNanos.add(waited);
+            queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+            try {
+                task.run();
+            } finally {
+                long elapsed = System.nanoTime() - startedAt;
+                busyNanos.add(elapsed);
+                completed.increment();
+                taskTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    /**
+     * Equivalente ao {@code CallerRunsPolicy}, mas contabilizado: sob
+     * sobrecarga a tarefa roda na thread que a submeteu (muitas vezes a da
+     * requisição HTTP), o que precisa aparecer nas métricas.
+     */
+    public RejectedExecutionHandler callerRunsPolicy() {
+        return (task, executor) -> {
+            if (executor.isShutdown()) {
+                return;
+            }
+            callerRunsCounter.increment();
+            log.debug("Executor {} saturado; tarefa executada na thread {}", name, Thread.currentThread().getName());
+            task.run();
+        };
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(submitted.sum(), started.sum(), completed.sum(), waitNanos.sum(), busyNanos.sum());
+    }
+
+    /** Totais acumulados desde a criação do executor. */
+    public record Snapshot(long submitted, long started, long completed, long waitNanos, long busyNanos) {
+    }
+}
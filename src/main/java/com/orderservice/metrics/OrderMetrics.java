@@ -1,38 +1,73 @@
 package com.orderservice.metrics;
 
+import com.orderservice.model.OrderStatus;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
-import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Componente para registro de métricas relacionadas a pedidos
  * Facilita o monitoramento e alertas em ambientes de alta volumetria
+ *
+ * Tempos medidos com {@link System#nanoTime()} e publicados como histogramas
+ * de percentis, com os limites de SLO como buckets explícitos. Os timers são
+ * marcados com {@code outcome} (e {@code status} ou {@code operation} quando
+ * se aplica). O tempo em cada estado vem dos timestamps do pedido, que
+ * sobrevivem a reprocessamentos e reinícios.
  */
 @Component
-@RequiredArgsConstructor
 public class OrderMetrics {
 
-    private final MeterRegistry meterRegistry;
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_ERROR = "error";
+    public static final String OUTCOME_DUPLICATE = "duplicate";
+    /** Etapa já executada antes (reprocessamento ou notificação repetida). */
+    public static final String OUTCOME_SKIPPED = "skipped";
+
+    static final Duration[] API_SLOS = slos(10, 50, 100, 250, 500, 1000);
+    static final Duration[] PROCESSING_SLOS = slos(100, 250, 500, 1000, 2500, 5000, 10000);
+    static final Duration[] EXTERNAL_SLOS = slos(25, 50, 100, 250, 500, 1000, 5000);
+    static final Duration[] STATE_SLOS = slos(100, 500, 1000, 5000, 30000, 60000, 300000);
 
-    Counter ordersReceivedCounter;
-    Counter ordersProcessedCounter;
-    Counter ordersNotifiedCounter;
-    Counter ordersErrorCounter;
-    Counter duplicateOrdersCounter;
+    private final MeterRegistry meterRegistry;
 
-    Timer orderCreationTimer;
-    Timer orderProcessingTimer;
-    Timer orderNotificationTimer;
-    Timer externalServiceATimer;
-    Timer externalServiceBTimer;
+    private final Counter ordersReceivedCounter;
+    private final Counter ordersProcessedCounter;
+    private final Counter ordersNotifiedCounter;
+    private final Counter ordersErrorCounter;
+    private final Counter duplicateOrdersCounter;
+    private final ConcurrentMap<String, Counter> scheduledDispatchCounters = new ConcurrentHashMap<>();
+
+    private final TaggedTimers creationTimers;
+    private final TaggedTimers processingTimers;
+    private final TaggedTimers notificationTimers;
+    private final TaggedTimers stateTimers;
+    private final TaggedTimers externalATimers;
+    private final TaggedTimers externalBTimers;
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        creationTimers = new TaggedTimers("orders.creation.time", "Tempo para criar um pedido",
+                API_SLOS, "outcome", null);
+        processingTimers = new TaggedTimers("orders.processing.time", "Tempo para processar um pedido",
+                PROCESSING_SLOS, "outcome", "status");
+        notificationTimers = new TaggedTimers("orders.notification.time",
+                "Tempo para notificar um pedido ao sistema externo", PROCESSING_SLOS, "outcome", "status");
+        stateTimers = new TaggedTimers("orders.state.transition.time", "Tempo entre estados do pedido",
+                STATE_SLOS, "from", "to");
+        externalATimers = new TaggedTimers("external.service.a.time", "Tempo de resposta do sistema externo A",
+                EXTERNAL_SLOS, "operation", "outcome");
+        externalBTimers = new TaggedTimers("external.service.b.time", "Tempo de resposta do sistema externo B",
+                EXTERNAL_SLOS, "operation", "outcome");
 
-    @PostConstruct
-    public void init() {
         ordersReceivedCounter = Counter.builder("orders.received")
                 .description("Número total de pedidos recebidos")
                 .register(meterRegistry);
@@ -52,26 +87,6 @@ public class OrderMetrics {
         duplicateOrdersCounter = Counter.builder("orders.duplicates")
                 .description("Número de tentativas de envio de pedidos duplicados")
                 .register(meterRegistry);
-
-        orderCreationTimer = Timer.builder("orders.creation.time")
-                .description("Tempo para criar um pedido")
-                .register(meterRegistry);
-
-        orderProcessingTimer = Timer.builder("orders.processing.time")
-                .description("Tempo para processar um pedido")
-                .register(meterRegistry);
-
-        orderNotificationTimer = Timer.builder("orders.notification.time")
-                .description("Tempo para notificar um pedido ao sistema externo")
-                .register(meterRegistry);
-
-        externalServiceATimer = Timer.builder("external.service.a.time")
-                .description("Tempo de resposta do sistema externo A")
-                .register(meterRegistry);
-
-        externalServiceBTimer = Timer.builder("external.service.b.time")
-                .description("Tempo de resposta do sistema externo B")
-                .register(meterRegistry);
     }
 
     public void incrementOrdersReceived() {
@@ -94,69 +109,122 @@ public class OrderMetrics {
         duplicateOrdersCounter.increment();
     }
 
-    public void recordOrderCreationTime(long timeInMs) {
-        orderCreationTimer.record(timeInMs, TimeUnit.MILLISECONDS);
+    /** Pedidos reenviados pelo agendador, por rotina. */
+    public void incrementScheduledDispatches(String job, int count) {
+        Counter counter = scheduledDispatchCounters.get(job);
+        if (counter == null) {
+            counter = scheduledDispatchCounters.computeIfAbsent(job, key -> Counter.builder("orders.scheduler.dispatched")
+                    .description("Pedidos reenviados ao processamento pelo agendador")
+                    .tag("job", key)
+                    .register(meterRegistry));
+        }
+        counter.increment(count);
     }
 
-    public void recordOrderProcessingTime(long timeInMs) {
-        orderProcessingTimer.record(timeInMs, TimeUnit.MILLISECONDS);
+    public void recordOrderCreationTime(long startNanos, String outcome) {
+        creationTimers.get(outcome, null)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 
-    public void recordOrderNotificationTime(long timeInMs) {
-        orderNotificationTimer.record(timeInMs, TimeUnit.MILLISECONDS);
+    public void recordOrderProcessingTime(long startNanos, String outcome, OrderStatus status) {
+        processingTimers.get(outcome, status.name())
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 
-    public void recordExternalServiceATime(long timeInMs) {
-        externalServiceATimer.record(timeInMs, TimeUnit.MILLISECONDS);
+    public void recordOrderNotificationTime(long startNanos, String outcome, OrderStatus status) {
+        notificationTimers.get(outcome, status.name())
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 
-    public void recordExternalServiceBTime(long timeInMs) {
-        externalServiceBTimer.record(timeInMs, TimeUnit.MILLISECONDS);
+    /**
+     * Tempo entre dois estados do pedido (ex. RECEIVED→CALCULATED), a partir
+     * dos timestamps gravados nele. Ignorado se algum estiver ausente.
+     */
+    public void recordTimeInState(OrderStatus from, OrderStatus to, LocalDateTime since, LocalDateTime until) {
+        if (since == null || until == null) {
+            return;
+        }
+        Duration elapsed = Duration.between(since, until);
+        stateTimers.get(from.name(), to.name())
+                .record(elapsed.isNegative() ? Duration.ZERO : elapsed);
     }
 
-    public <T> T measureOrderCreationTime(MeasuredOperation<T> operation) {
-        long startTime = System.currentTimeMillis();
-        try {
-            return operation.execute();
-        } finally {
-            recordOrderCreationTime(System.currentTimeMillis() - startTime);
-        }
+    public <T> T measureExternalServiceATime(String operation, MeasuredOperation<T> measured) {
+        return measure(externalATimers, operation, measured);
     }
 
-    public <T> T measureOrderProcessingTime(MeasuredOperation<T> operation) {
-        long startTime = System.currentTimeMillis();
-        try {
-            return operation.execute();
-        } finally {
-            recordOrderProcessingTime(System.currentTimeMillis() - startTime);
-        }
+    public <T> T measureExternalServiceBTime(String operation, MeasuredOperation<T> measured) {
+        return measure(externalBTimers, operation, measured);
     }
 
-    public <T> T measureOrderNotificationTime(MeasuredOperation<T> operation) {
-        long startTime = System.currentTimeMillis();
+    private <T> T measure(TaggedTimers timers, String operation, MeasuredOperation<T> measured) {
+        long start = System.nanoTime();
+        String outcome = OUTCOME_ERROR;
         try {
-            return operation.execute();
+            T result = measured.execute();
+            outcome = OUTCOME_SUCCESS;
+            return result;
         } finally {
-            recordOrderNotificationTime(System.currentTimeMillis() - startTime);
+            timers.get(operation, outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
-    public <T> T measureExternalServiceATime(MeasuredOperation<T> operation) {
-        long startTime = System.currentTimeMillis();
-        try {
-            return operation.execute();
-        } finally {
-            recordExternalServiceATime(System.currentTimeMillis() - startTime);
+    /**
+     * Timers de uma métrica com até duas tags, registrados na primeira
+     * medição de cada combinação e guardados por valor das tags: no caminho
+     * quente a medição custa duas leituras de mapa, sem builder nem busca no
+     * registry.
+     */
+    private final class TaggedTimers {
+
+        private final String name;
+        private final String description;
+        private final Duration[] slos;
+        private final String firstTag;
+        private final String secondTag;
+        private final ConcurrentMap<String, ConcurrentMap<String, Timer>> timers = new ConcurrentHashMap<>();
+
+        TaggedTimers(String name, String description, Duration[] slos, String firstTag, String secondTag) {
+            this.name = name;
+            this.description = description;
+            this.slos = slos;
+            this.firstTag = firstTag;
+            this.secondTag = secondTag;
+        }
+
+        Timer get(String first, String second) {
+            String secondKey = second != null ? second : "";
+            ConcurrentMap<String, Timer> bySecond = timers.get(first);
+            Timer timer = bySecond != null ? bySecond.get(secondKey) : null;
+            if (timer != null) {
+                return timer;
+            }
+            return timers.computeIfAbsent(first, key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(secondKey, key -> register(first, second));
+        }
+
+        private Timer register(String first, String second) {
+            Timer.Builder builder = Timer.builder(name)
+                    .description(description)
+                    .tag(firstTag, first);
+            if (secondTag != null) {
+                builder.tag(secondTag, second);
+            }
+            return builder.publishPercentileHistogram()
+                    .serviceLevelObjectives(slos)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(10))
+                    .register(meterRegistry);
         }
     }
 
-    public <T> T measureExternalServiceBTime(MeasuredOperation<T> operation) {
-        long startTime = System.currentTimeMillis();
-        try {
-            return operation.execute();
-        } finally {
-            recordExternalServiceBTime(System.currentTimeMillis() - startTime);
+    private static Duration[] slos(long... millis) {
+        Duration[] slos = new Duration[millis.length];
+        for (int i = 0; i < millis.length; i++) {
+            slos[i] = Duration.ofMillis(millis[i]);
         }
+        return slos;
     }
 
     /**
@@ -166,4 +234,4 @@ public class OrderMetrics {
     public interface MeasuredOperation<T> {
         T execute();
     }
-}
\ No newline at end of file
+}
@@ -66,12 +66,22 @@ public class Order {
     @Column(nullable = false)
     private int retryCount = 0;
 
+    /**
+     * A partir de quando o pedido, se estiver em ERROR, pode ser reprocessado.
+     * Nulo quando as tentativas se esgotaram.
+     */
+    @Column(name = "next_retry_at")
+    private LocalDateTime nextRetryAt;
+
     @Version
     private Long version;
 
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        if (this.nextRetryAt == null) {
+            this.nextRetryAt = this.createdAt;
+        }
         if (this.status == null) {
             this.status = OrderStatus.RECEIVED;
         }
@@ -0,0 +1,54 @@
+package com.orderservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progresso persistido de uma execução do expurgo de pedidos.
+ * Atualizado na mesma transação de cada lote removido, permitindo
+ * retomar a execução do ponto exato após um reinício.
+ */
+@Data
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "order_purge_progress")
+public class OrderPurgeProgress {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Column(name = "cutoff", nullable = false)
+    private LocalDateTime cutoff;
+
+    @Column(name = "last_order_id")
+    private UUID lastOrderId;
+
+    @Column(name = "orders_deleted", nullable = false)
+    private long ordersDeleted;
+
+    @Column(name = "items_deleted", nullable = false)
+    private long itemsDeleted;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+}
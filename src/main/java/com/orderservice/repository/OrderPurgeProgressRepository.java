@@ -0,0 +1,9 @@
+package com.orderservice.repository;
+
+import com.orderservice.model.OrderPurgeProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderPurgeProgressRepository extends JpaRepository<OrderPurgeProgress, String> {
+}
@@ -1,5 +1,6 @@
 package com.orderservice.repository;
 
+import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.model.Order;
 import com.orderservice.model.OrderStatus;
 import org.springframework.data.domain.Page;
@@ -9,19 +10,31 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderRepositoryCustom {
 
 
     Optional<Order> findByOrderNumber(String orderNumber);
 
 
+    /**
+     * Pedido com os itens em uma só consulta. Transação de escrita para ler
+     * do primário: no processamento assíncrono não há cliente HTTP e a réplica
+     * pode ainda não ter o pedido recém-criado.
+     */
+    @Transactional
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
+    Optional<Order> findWithItemsById(@Param("id") UUID id);
+
+
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
 
 
@@ -77,6 +90,48 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     int deleteCompletedOrdersOlderThan(@Param("date") LocalDateTime date);
 
 
+    @Query("SELECT o.id FROM Order o WHERE o.status = 'COMPLETED' AND o.completedAt < :date AND o.id > :afterId ORDER BY o.id ASC")
+    List<UUID> findCompletedOrderIdsOlderThan(
+            @Param("date") LocalDateTime date,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+
+    @Modifying
+    @Query("DELETE FROM OrderItem i WHERE i.order.id IN :orderIds")
+    int deleteItemsByOrderIds(@Param("orderIds") List<UUID> orderIds);
+
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds AND o.status = 'COMPLETED'")
+    int deleteCompletedOrdersByIds(@Param("orderIds") List<UUID> orderIds);
+
+
+    @Query("SELECT o.id FROM Order o WHERE o.status IN :statuses AND o.completedAt < :date AND o.id > :afterId ORDER BY o.id ASC")
+    List<UUID> findArchivableOrderIds(
+            @Param("statuses") List<OrderStatus> statuses,
+            @Param("date") LocalDateTime date,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+
+    /**
+     * Vários pedidos com os itens em uma só consulta, para o processamento em
+     * lote e o arquivamento. Também lê do primário, como
+     * {@link #findWithItemsById}.
+     */
+    @Transactional
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :orderIds")
+    List<Order> findAllWithItemsByIdIn(@Param("orderIds") List<UUID> orderIds);
+
+
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds AND o.status IN :statuses")
+    int deleteOrdersByIdInAndStatusIn(
+            @Param("orderIds") List<UUID> orderIds,
+            @Param("statuses") List<OrderStatus> statuses);
+
+
     @Query("SELECT COUNT(o) FROM Order o WHERE FUNCTION('YEAR', o.createdAt) = FUNCTION('YEAR', CURRENT_TIMESTAMP) AND FUNCTION('MONTH', o.createdAt) = FUNCTION('MONTH', CURRENT_TIMESTAMP) AND FUNCTION('DAY', o.createdAt) = FUNCTION('DAY', CURRENT_TIMESTAMP)")
     long countOrdersCreatedToday();
 
@@ -85,6 +140,16 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     List<Object[]> countOrdersByStatus();
 
 
+    @Query("SELECT new com.orderservice.dto.OrderStatusDTO(o.id, o.orderNumber, o.status, o.createdAt, " +
+            "o.processedAt, o.completedAt, o.totalAmount, o.version) FROM Order o WHERE o.id IN :orderIds")
+    List<OrderStatusDTO> findStatusesByIdIn(@Param("orderIds") Collection<UUID> orderIds);
+
+
+    @Query("SELECT new com.orderservice.dto.OrderStatusDTO(o.id, o.orderNumber, o.status, o.createdAt, " +
+            "o.processedAt, o.completedAt, o.totalAmount, o.version) FROM Order o WHERE o.orderNumber IN :orderNumbers")
+    List<OrderStatusDTO> findStatusesByOrderNumberIn(@Param("orderNumbers") Collection<String> orderNumbers);
+
+
     @Query("SELECT o FROM Order o WHERE o.status = 'PROCESSING' AND o.createdAt < :cutoffTime")
     List<Order> findStuckInProcessing(@Param("cutoffTime") LocalDateTime cutoffTime, Pageable pageable);
 }
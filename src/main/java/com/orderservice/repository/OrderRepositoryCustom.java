@@ -0,0 +1,98 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Gravações em SQL direto, condicionadas ao status atual, sem carregar a
+ * entidade nem depender do dirty checking: o resultado do processamento em
+ * passo único, as transições de status (inclusive a marcação de erro com a
+ * próxima tentativa) e a volta de pedidos com erro para a fila.
+ */
+public interface OrderRepositoryCustom {
+
+    /**
+     * RECEIVED → CALCULATED com total, data de processamento e preços dos
+     * itens. Os itens vão em um único lote JDBC.
+     *
+     * @return {@code false} se o pedido já não estava RECEIVED (outra execução
+     *         chegou antes); nesse caso nada é gravado
+     */
+    boolean applyCalculation(Order order);
+
+    /**
+     * {@link #applyCalculation} para vários pedidos: um lote JDBC com os
+     * UPDATEs condicionais dos pedidos e outro com os preços dos itens dos
+     * que foram gravados.
+     *
+     * @return os pedidos gravados; os que já não estavam RECEIVED ficam de fora
+     */
+    List<Order> applyCalculations(List<Order> orders);
+
+    /**
+     * CALCULATED → NOTIFIED, marcando a notificação ao sistema externo B.
+     *
+     * @return {@code false} se o pedido já não estava CALCULATED e pendente de notificação
+     */
+    boolean applyNotification(Order order);
+
+    /** Pedido que mudou para ERROR e o vencimento gravado da próxima tentativa (nulo: sem novas tentativas). */
+    record ErroredStatus(OrderStatusDTO status, LocalDateTime nextRetryAt) {
+    }
+
+    /**
+     * Compare-and-set de status: {@code to} para os pedidos informados que
+     * ainda estão em um dos status {@code from}, em um único UPDATE
+     * condicional. Use via {@code OrderStateMachine}.
+     *
+     * @return o status gravado de cada pedido que mudou
+     */
+    List<OrderStatusDTO> transitionStatus(Collection<UUID> ids, Collection<OrderStatus> from, OrderStatus to);
+
+    /**
+     * Para ERROR os pedidos informados que ainda estão em um dos status
+     * {@code from}, agendando a próxima tentativa de cada um em
+     * {@code nextRetryAt.apply(n)}, onde {@code n} é o número de tentativas
+     * que ele já teve (nulo: sem novas tentativas). A função é chamada uma
+     * vez por pedido, então a variação aleatória do vencimento também é por
+     * pedido.
+     *
+     * @return os pedidos que mudaram para ERROR, com o status e o vencimento gravados
+     */
+    List<ErroredStatus> markErrored(Collection<UUID> ids, Collection<OrderStatus> from,
+                                         IntFunction<LocalDateTime> nextRetryAt);
+
+    /**
+     * ERROR → RECEIVED para os pedidos informados cuja próxima tentativa já
+     * venceu ({@code nextRetryAt <= now}), incrementando {@code retryCount}.
+     *
+     * @return o status gravado de cada pedido que voltou para RECEIVED
+     */
+    List<OrderStatusDTO> requeueErrored(Collection<UUID> ids, LocalDateTime now);
+
+    /**
+     * Reivindica até {@code limit} pedidos em ERROR com tentativa vencida
+     * ({@code nextRetryAt <= now}) e menos de {@code maxRetries} tentativas,
+     * na ordem do vencimento, e os devolve para RECEIVED como
+     * {@link #requeueErrored}. As linhas travadas por outra instância são
+     * puladas, então instâncias concorrentes recebem lotes disjuntos.
+     *
+     * @return o status gravado de cada pedido reivindicado
+     */
+    List<OrderStatusDTO> requeueDueErrored(LocalDateTime now, int maxRetries, int limit);
+
+    /**
+     * Até {@code limit} pedidos em ERROR com nova tentativa agendada e menos
+     * de {@code maxRetries} tentativas, com o vencimento de cada um, na ordem
+     * do vencimento.
+     */
+    Map<UUID, LocalDateTime> findPendingRetries(int maxRetries, int limit);
+}
@@ -0,0 +1,260 @@
+package com.orderservice.repository;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+/**
+ * Implementação com {@link JdbcTemplate}: dentro da transação JPA ela usa a
+ * mesma conexão, e o lote de itens sai em uma só ida ao banco. Em caso de
+ * sucesso a versão em memória acompanha o incremento feito no banco, para
+ * que o DTO gravado no cache tenha a versão correta.
+ *
+ * As transições de status são um único UPDATE condicionado ao status de
+ * origem, que devolve as linhas alteradas ({@code RETURNING} no PostgreSQL,
+ * {@code FINAL TABLE} no H2 dos testes): o cache e os eventos saem dessas
+ * linhas, sem uma nova leitura. A marcação de erro trava as linhas ainda no
+ * status de origem para ler o número de tentativas de cada uma e grava o
+ * vencimento da próxima tentativa por pedido, em um lote JDBC.
+ */
+class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String UPDATE_CALCULATED =
+            "UPDATE orders SET status = ?, total_amount = ?, processed_at = ?, version = version + 1 " +
+            "WHERE id = ? AND status = ?";
+
+    private static final String UPDATE_ITEM_PRICE =
+            "UPDATE order_items SET product_name = ?, price = ? WHERE id = ?";
+
+    private static final String UPDATE_NOTIFIED =
+            "UPDATE orders SET status = ?, notified_to_external_b = TRUE, completed_at = ?, version = version + 1 " +
+            "WHERE id = ? AND status = ? AND notified_to_external_b = FALSE";
+
+    // 'ERROR' literal, não parâmetro: as consultas precisam casar com o predicado do índice parcial idx_orders_retry_due
+    private static final String SELECT_DUE_ERRORED =
+            "SELECT id FROM orders WHERE status = 'ERROR' AND next_retry_at <= ? AND retry_count < ? " +
+            "ORDER BY next_retry_at LIMIT ? FOR UPDATE SKIP LOCKED";
+
+    private static final String SELECT_PENDING_RETRIES =
+            "SELECT id, next_retry_at FROM orders WHERE status = 'ERROR' AND next_retry_at IS NOT NULL " +
+            "AND retry_count < ? ORDER BY next_retry_at LIMIT ?";
+
+    private static final String STATUS_COLUMNS =
+            "id, order_number, status, created_at, processed_at, completed_at, total_amount, version";
+
+    private static final String LOCK_RETRY_COUNTS =
+            "SELECT " + STATUS_COLUMNS + ", retry_count FROM orders WHERE id IN (:ids) AND status IN (:from) " +
+            "ORDER BY id FOR UPDATE";
+
+    private static final String UPDATE_ERRORED =
+            "UPDATE orders SET status = 'ERROR', version = version + 1, next_retry_at = ? WHERE id = ?";
+
+    private static final String UPDATE_STATUS =
+            "UPDATE orders SET status = :to, version = version + 1 WHERE id IN (:ids) AND status IN (:from)";
+
+    private static final String REQUEUE_DUE_ERRORED =
+            "UPDATE orders SET status = 'RECEIVED', retry_count = retry_count + 1, version = version + 1 " +
+            "WHERE id IN (:ids) AND status = 'ERROR' AND next_retry_at <= :now";
+
+    private static final String REQUEUE_CLAIMED =
+            "UPDATE orders SET status = 'RECEIVED', retry_count = retry_count + 1, version = version + 1 " +
+            "WHERE id IN (:ids)";
+
+    private static final RowMapper<OrderStatusDTO> STATUS_ROW = (rs, rowNum) -> new OrderStatusDTO(
+            rs.getObject("id", UUID.class),
+            rs.getString("order_number"),
+            OrderStatus.valueOf(rs.getString("status")),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("processed_at", LocalDateTime.class),
+            rs.getObject("completed_at", LocalDateTime.class),
+            rs.getBigDecimal("total_amount"),
+            rs.getLong("version"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private volatile Boolean updateReturning;
+
+    OrderRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional
+    public boolean applyCalculation(Order order) {
+        int updated = jdbcTemplate.update(UPDATE_CALCULATED,
+                OrderStatus.CALCULATED.name(), order.getTotalAmount(), order.getProcessedAt(),
+                order.getId(), OrderStatus.RECEIVED.name());
+        if (updated == 0) {
+            return false;
+        }
+
+        updateItemPrices(order.getItems());
+        incrementVersion(order);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<Order> applyCalculations(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_CALCULATED, orders, orders.size(), (ps, order) -> {
+            ps.setString(1, OrderStatus.CALCULATED.name());
+            ps.setBigDecimal(2, order.getTotalAmount());
+            ps.setObject(3, order.getProcessedAt());
+            ps.setObject(4, order.getId());
+            ps.setString(5, OrderStatus.RECEIVED.name());
+        })[0];
+
+        List<Order> applied = new ArrayList<>(orders.size());
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] > 0) {
+                Order order = orders.get(i);
+                applied.add(order);
+                items.addAll(order.getItems());
+            }
+        }
+        updateItemPrices(items);
+        for (Order order : applied) {
+            incrementVersion(order);
+        }
+        return applied;
+    }
+
+    @Override
+    @Transactional
+    public boolean applyNotification(Order order) {
+        int updated = jdbcTemplate.update(UPDATE_NOTIFIED,
+                OrderStatus.NOTIFIED.name(), order.getCompletedAt(),
+                order.getId(), OrderStatus.CALCULATED.name());
+        if (updated == 0) {
+            return false;
+        }
+        incrementVersion(order);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public List<OrderStatusDTO> transitionStatus(Collection<UUID> ids, Collection<OrderStatus> from, OrderStatus to) {
+        if (ids.isEmpty() || from.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(returningStatuses(UPDATE_STATUS),
+                statusParams(ids, from).addValue("to", to.name()), STATUS_ROW);
+    }
+
+    @Override
+    @Transactional
+    public List<ErroredStatus> markErrored(Collection<UUID> ids, Collection<OrderStatus> from,
+                                           IntFunction<LocalDateTime> nextRetryAt) {
+        if (ids.isEmpty() || from.isEmpty()) {
+            return List.of();
+        }
+        List<ErroredStatus> errored = namedJdbcTemplate.query(LOCK_RETRY_COUNTS, statusParams(ids, from), (rs, rowNum) -> {
+            OrderStatusDTO status = STATUS_ROW.mapRow(rs, rowNum);
+            status.setStatus(OrderStatus.ERROR);
+            status.setVersion(status.getVersion() + 1);
+            return new ErroredStatus(status, nextRetryAt.apply(rs.getInt("retry_count")));
+        });
+        if (errored.isEmpty()) {
+            return errored;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ERRORED, errored, errored.size(), (ps, row) -> {
+            ps.setObject(1, row.nextRetryAt());
+            ps.setObject(2, row.status().getId());
+        });
+        return errored;
+    }
+
+    @Override
+    @Transactional
+    public List<OrderStatusDTO> requeueErrored(Collection<UUID> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(returningStatuses(REQUEUE_DUE_ERRORED),
+                new MapSqlParameterSource("ids", ids).addValue("now", now), STATUS_ROW);
+    }
+
+    @Override
+    @Transactional
+    public List<OrderStatusDTO> requeueDueErrored(LocalDateTime now, int maxRetries, int limit) {
+        List<UUID> claimed = jdbcTemplate.queryForList(SELECT_DUE_ERRORED, UUID.class, now, maxRetries, limit);
+        if (claimed.isEmpty()) {
+            return List.of();
+        }
+        return namedJdbcTemplate.query(returningStatuses(REQUEUE_CLAIMED),
+                new MapSqlParameterSource("ids", claimed), STATUS_ROW);
+    }
+
+    @Override
+    @Transactional
+    public Map<UUID, LocalDateTime> findPendingRetries(int maxRetries, int limit) {
+        Map<UUID, LocalDateTime> pending = new LinkedHashMap<>();
+        jdbcTemplate.query(SELECT_PENDING_RETRIES, rs -> {
+            pending.put(rs.getObject(1, UUID.class), rs.getObject(2, LocalDateTime.class));
+        }, maxRetries, limit);
+        return pending;
+    }
+
+    /**
+     * O UPDATE devolvendo as colunas de {@link OrderStatusDTO} já com os
+     * valores gravados: {@code UPDATE ... RETURNING} no PostgreSQL e
+     * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} no H2, que não tem
+     * {@code RETURNING}.
+     */
+    private String returningStatuses(String update) {
+        Boolean returning = updateReturning;
+        if (returning == null) {
+            returning = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    !"H2".equals(connection.getMetaData().getDatabaseProductName()));
+            updateReturning = returning;
+        }
+        return Boolean.TRUE.equals(returning)
+                ? update + " RETURNING " + STATUS_COLUMNS
+                : "SELECT " + STATUS_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+    }
+
+    private static MapSqlParameterSource statusParams(Collection<UUID> ids, Collection<OrderStatus> from) {
+        List<String> fromNames = new ArrayList<>(from.size());
+        for (OrderStatus status : from) {
+            fromNames.add(status.name());
+        }
+        return new MapSqlParameterSource("ids", ids).addValue("from", fromNames);
+    }
+
+    private void updateItemPrices(List<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_ITEM_PRICE, items, items.size(), (ps, item) -> {
+            ps.setString(1, item.getProductName());
+            ps.setBigDecimal(2, item.getPrice());
+            ps.setObject(3, item.getId());
+        });
+    }
+
+    private static void incrementVersion(Order order) {
+        order.setVersion(order.getVersion() != null ? order.getVersion() + 1 : 1L);
+    }
+}
@@ -1,9 +1,15 @@
 package com.orderservice.scheduler;
 
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.metrics.OrderMetrics;
 import com.orderservice.model.Order;
+import com.orderservice.model.OrderPurgeProgress;
 import com.orderservice.model.OrderStatus;
 import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderArchiveService;
+import com.orderservice.service.OrderPurgeService;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStateMachine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,10 +19,11 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -33,25 +40,35 @@ public class OrderScheduler {
 
     private final OrderRepository orderRepository;
     private final OrderService orderService;
+    private final OrderPurgeService orderPurgeService;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderMetrics orderMetrics;
 
     @Qualifier("orderProcessingExecutor")
     private final Executor orderProcessingExecutor;
 
-    @Value("${app.scheduler.retry-limit:3}")
-    private int retryLimit;
-
     @Value("${app.scheduler.batch-size:50}")
     private int batchSize;
     
     @Value("${app.scheduler.cleanup-enabled:false}")
     private boolean cleanupEnabled;
 
+    @Value("${app.retention.days:180}")
+    private int retentionDays;
+
+    @Value("${app.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.archive.age-days:30}")
+    private int archiveAgeDays;
+
     /**
      * Processa pedidos pendentes (RECEIVED) que não foram processados
-     * Executa a cada 1 minuto (ajustável para produção)
+     * Executa a cada 1 minuto (ajustável para produção). O lote inteiro passa
+     * por {@link OrderService#processOrders}, sem transação própria.
      */
     @Scheduled(fixedRate = 60000)
-    @Transactional
     public void processReceivedOrders() {
         log.info("Iniciando processamento de pedidos pendentes (RECEIVED)");
 
@@ -66,18 +83,13 @@ public class OrderScheduler {
 
         log.info("Encontrados {} pedidos pendentes para processamento", pendingOrders.size());
 
-        AtomicInteger processed = new AtomicInteger(0);
-
-        pendingOrders.forEach(order -> CompletableFuture.runAsync(() -> {
-            try {
-                orderService.processOrder(order.getId());
-                processed.incrementAndGet();
-            } catch (Exception e) {
-                log.error("Erro ao reprocessar pedido {}: {}", order.getId(), e.getMessage());
-            }
-        }, orderProcessingExecutor));
+        List<UUID> ids = new ArrayList<>(pendingOrders.size());
+        for (Order order : pendingOrders) {
+            ids.add(order.getId());
+        }
 
-        log.info("Agendado reprocessamento de {} pedidos pendentes", pendingOrders.size());
+        orderMetrics.incrementScheduledDispatches("received", ids.size());
+        processBatch(ids);
     }
 
     /**
@@ -110,48 +122,52 @@ public class OrderScheduler {
             }
         }, orderProcessingExecutor));
 
+        orderMetrics.incrementScheduledDispatches("calculated", calculatedOrders.size());
         log.info("Agendada notificação de {} pedidos calculados", calculatedOrders.size());
     }
 
     /**
-     * Tenta recuperar pedidos em estado de erro
-     * Executa a cada 15 minutos
+     * Tenta recuperar pedidos em estado de erro cuja próxima tentativa já
+     * venceu ({@code next_retry_at}) e que não foram retomados pela roda de
+     * novas tentativas ({@code OrderRetryScheduler}) de nenhuma instância,
+     * como os que passaram do limite de recarga. Cada lote é reivindicado e
+     * devolvido para RECEIVED em um único UPDATE e processado de uma vez por
+     * {@link OrderService#processOrders}; o próximo lote só é reivindicado
+     * depois que o anterior termina. Sem transação própria: a volta para
+     * RECEIVED precisa estar commitada antes de o processamento ler o pedido.
      */
-    @Scheduled(fixedRate = 900000)
-    @Transactional
+    @Scheduled(fixedDelayString = "${app.scheduler.recovery-delay-ms:300000}")
     public void recoverErroredOrders() {
         log.info("Iniciando recuperação de pedidos com erro");
-        List<Order> erroredOrders = orderRepository.findByStatusAndRetryCountLessThan(
-                OrderStatus.ERROR, retryLimit, batchSize);
 
-        if (erroredOrders.isEmpty()) {
+        int total = 0;
+        List<UUID> claimed;
+        do {
+            claimed = orderStateMachine.requeueDue(batchSize);
+            if (claimed.isEmpty()) {
+                break;
+            }
+            total += claimed.size();
+            orderMetrics.incrementScheduledDispatches("error", claimed.size());
+            processBatch(claimed);
+        } while (claimed.size() == batchSize);
+
+        if (total == 0) {
             log.info("Nenhum pedido com erro para recuperação");
-            return;
+        } else {
+            log.info("Recuperação de {} pedidos com erro concluída", total);
         }
+    }
 
-        log.info("Encontrados {} pedidos com erro para recuperação", erroredOrders.size());
-
-        AtomicInteger recovered = new AtomicInteger(0);
-
-        erroredOrders.forEach(order -> {
-            order.setRetryCount(order.getRetryCount() + 1);
-            order.setStatus(OrderStatus.RECEIVED);
-            orderRepository.save(order);
-            CompletableFuture.runAsync(() -> {
-                        try {
-                            orderService.processOrder(order.getId());
-                            recovered.incrementAndGet();
-                        } catch (Exception e) {
-                            log.error("Erro ao recuperar pedido {}: {}", order.getId(), e.getMessage());
-                        }
-                    }, orderProcessingExecutor).orTimeout(30, TimeUnit.SECONDS)
-                    .exceptionally(ex -> {
-                        log.error("Timeout ao recuperar pedido {}", order.getId());
-                        return null;
-                    });
-        });
-
-        log.info("Agendada recuperação de {} pedidos com erro", erroredOrders.size());
+    private void processBatch(List<UUID> ids) {
+        try {
+            OrderProcessBatchResponseDTO result = orderService.processOrders(ids);
+            log.info("Lote de {} pedidos processado: {} calculados, {} com erro",
+                    ids.size(), result.getCalculated().size(), result.getFailed().size());
+        } catch (Exception e) {
+            // os pedidos ficam RECEIVED e voltam pelo job de pendentes
+            log.error("Erro ao processar lote de {} pedidos: {}", ids.size(), e.getMessage());
+        }
     }
 
     /**
@@ -182,21 +198,36 @@ public class OrderScheduler {
 
     /**
      * Limpa pedidos muito antigos (opcional, para sistemas com retenção limitada)
-     * Executa todos os dias às 03:00
+     * Executa todos os dias às 03:00 (ajustável). O expurgo roda em lotes com
+     * commit próprio e pausas adaptativas, podendo rodar em horário comercial.
      */
-    @Scheduled(cron = "0 0 3 * * *")
-    @Transactional
+    @Scheduled(cron = "${app.retention.cron:0 0 3 * * *}")
     public void cleanupOldOrders() {
         if (!cleanupEnabled) {
             return;
         }
 
-        LocalDateTime retentionLimit = LocalDateTime.now().minusDays(180);
+        LocalDateTime retentionLimit = LocalDateTime.now().minusDays(retentionDays);
+
+        OrderPurgeProgress progress = orderPurgeService.purgeCompletedOrdersOlderThan(retentionLimit);
 
-        int deleted = orderRepository.deleteCompletedOrdersOlderThan(retentionLimit);
+        if (progress.getOrdersDeleted() > 0) {
+            log.info("Limpeza de pedidos antigos: {} pedidos removidos", progress.getOrdersDeleted());
+        }
+    }
 
-        if (deleted > 0) {
-            log.info("Limpeza de pedidos antigos: {} pedidos removidos", deleted);
+    /**
+     * Move pedidos frios (NOTIFIED/COMPLETED antigos) para o arquivo em disco,
+     * reduzindo tabelas e índices que o banco precisa manter em cache
+     * Executa todos os dias às 02:00 (ajustável)
+     */
+    @Scheduled(cron = "${app.archive.cron:0 0 2 * * *}")
+    public void archiveColdOrders() {
+        if (!archiveEnabled) {
+            return;
         }
+
+        LocalDateTime archiveLimit = LocalDateTime.now().minusDays(archiveAgeDays);
+        orderArchiveService.archiveOrdersCompletedBefore(archiveLimit);
     }
 }
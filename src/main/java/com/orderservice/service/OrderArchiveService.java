@@ -0,0 +1,226 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.util.OrderArchiveCodec;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivamento de pedidos frios (NOTIFIED/COMPLETED antigos) em arquivos
+ * locais comprimidos e particionados por data de conclusão
+ * ({@code yyyy/MM/dd/segment-*.oca.gz}), no formato de {@link OrderArchiveCodec}.
+ *
+ * Um índice append-only ({@code index.log}) associa id e número do pedido
+ * ao segmento e é carregado em memória na inicialização, de modo que uma
+ * consulta arquivada lê apenas um segmento.
+ */
+@Service
+@Slf4j
+public class OrderArchiveService {
+
+    static final List<OrderStatus> ARCHIVABLE_STATUSES = List.of(OrderStatus.NOTIFIED, OrderStatus.COMPLETED);
+
+    private static final UUID FIRST_KEY = new UUID(0L, 0L);
+    private static final String INDEX_FILE = "index.log";
+    private static final String SEGMENT_SUFFIX = ".oca.gz";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<UUID, String> segmentByOrderId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, UUID> orderIdByNumber = new ConcurrentHashMap<>();
+
+    @Value("${app.archive.dir:./data/archive}")
+    private Path archiveDir;
+
+    @Value("${app.archive.batch-size:1000}")
+    private int batchSize;
+
+    public OrderArchiveService(OrderRepository orderRepository, PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Carrega o índice sempre que ele existe em disco, mesmo com o
+     * arquivamento desligado: pedidos já arquivados continuam consultáveis.
+     */
+    @PostConstruct
+    public void loadIndex() {
+        Path indexFile = archiveDir.resolve(INDEX_FILE);
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            while (true) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                String orderNumber = in.readUTF();
+                String segment = in.readUTF().intern();
+                segmentByOrderId.put(id, segment);
+                orderIdByNumber.put(orderNumber, id);
+            }
+        } catch (EOFException e) {
+            // fim do índice (ou último registro incompleto após uma queda)
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao carregar índice do arquivo de pedidos", e);
+        }
+        log.info("Índice do arquivo de pedidos carregado: {} pedidos", segmentByOrderId.size());
+    }
+
+    /**
+     * Move para o arquivo os pedidos NOTIFIED/COMPLETED concluídos antes de
+     * {@code cutoff}, em lotes. O segmento e o índice são gravados antes da
+     * remoção no banco; se a remoção falhar o pedido continua no banco, que
+     * sempre é consultado primeiro.
+     */
+    public int archiveOrdersCompletedBefore(LocalDateTime cutoff) {
+        UUID afterId = FIRST_KEY;
+        int archived = 0;
+        while (true) {
+            List<UUID> ids = orderRepository.findArchivableOrderIds(
+                    ARCHIVABLE_STATUSES, cutoff, afterId, Pageable.ofSize(batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+
+            Integer batch = transactionTemplate.execute(status -> archiveBatch(ids));
+            archived += batch != null ? batch : 0;
+            afterId = ids.get(ids.size() - 1);
+
+            if (ids.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Arquivamento de pedidos frios: {} pedidos movidos para {}", archived, archiveDir);
+        }
+        return archived;
+    }
+
+    public Optional<OrderDTO> findById(UUID id) {
+        String segment = segmentByOrderId.get(id);
+        if (segment == null) {
+            return Optional.empty();
+        }
+        return readSegment(segment).stream()
+                .filter(order -> id.equals(order.getId()))
+                .findFirst();
+    }
+
+    public Optional<OrderDTO> findByOrderNumber(String orderNumber) {
+        UUID id = orderIdByNumber.get(orderNumber);
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    private int archiveBatch(List<UUID> ids) {
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(ids);
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        Map<LocalDate, List<Order>> partitions = new TreeMap<>();
+        for (Order order : orders) {
+            partitions.computeIfAbsent(order.getCompletedAt().toLocalDate(), d -> new ArrayList<>()).add(order);
+        }
+
+        try {
+            for (Map.Entry<LocalDate, List<Order>> partition : partitions.entrySet()) {
+                String segment = writeSegment(partition.getKey(), partition.getValue());
+                appendToIndex(partition.getValue(), segment);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao gravar segmento do arquivo de pedidos", e);
+        }
+
+        List<UUID> archivedIds = orders.stream().map(Order::getId).toList();
+        orderRepository.deleteItemsByOrderIds(archivedIds);
+        return orderRepository.deleteOrdersByIdInAndStatusIn(archivedIds, ARCHIVABLE_STATUSES);
+    }
+
+    private String writeSegment(LocalDate date, List<Order> orders) throws IOException {
+        String segment = date.format(PARTITION_FORMAT) + "/segment-" + System.currentTimeMillis()
+                + "-" + UUID.randomUUID().toString().substring(0, 8) + SEGMENT_SUFFIX;
+        Path target = archiveDir.resolve(segment);
+        Files.createDirectories(target.getParent());
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            OrderArchiveCodec.write(orders, out);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return segment;
+    }
+
+    private void appendToIndex(List<Order> orders, String segment) throws IOException {
+        Files.createDirectories(archiveDir);
+        try (FileOutputStream file = new FileOutputStream(archiveDir.resolve(INDEX_FILE).toFile(), true);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            for (Order order : orders) {
+                out.writeLong(order.getId().getMostSignificantBits());
+                out.writeLong(order.getId().getLeastSignificantBits());
+                out.writeUTF(order.getOrderNumber());
+                out.writeUTF(segment);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+
+        String sharedSegment = segment.intern();
+        for (Order order : orders) {
+            segmentByOrderId.put(order.getId(), sharedSegment);
+            orderIdByNumber.put(order.getOrderNumber(), order.getId());
+        }
+    }
+
+    private List<OrderDTO> readSegment(String segment) {
+        try (InputStream file = Files.newInputStream(archiveDir.resolve(segment));
+             DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file)))) {
+            return OrderArchiveCodec.read(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler segmento do arquivo de pedidos: " + segment, e);
+        }
+    }
+}
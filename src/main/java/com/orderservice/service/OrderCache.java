@@ -0,0 +1,268 @@
+package com.orderservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.orderservice.config.CacheLoaderRegistry;
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.jfr.CacheLookupEvent;
+import com.orderservice.model.Order;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Cache de pedidos em dois níveis: um índice número → id (imutável, nunca
+ * fica obsoleto) e uma única entrada por id para o {@link OrderDTO} e para o
+ * {@link OrderStatusDTO}. Assim a busca por número e por id compartilham o
+ * mesmo dado.
+ *
+ * O cache é write-through: cada transição de estado grava o pedido recém
+ * mapeado após o commit, de modo que as consultas de acompanhamento de um
+ * pedido ativo não chegam ao banco. Gravações fora de ordem são descartadas
+ * pela versão ({@code @Version}) da entidade.
+ *
+ * Numa falta, só um chamador por chave carrega do banco; os demais aguardam
+ * o mesmo resultado. Como a escrita de uma transição é atômica por chave e
+ * espera a carga em andamento, um valor lido antes do commit nunca
+ * sobrescreve o estado novo.
+ */
+@Component
+public class OrderCache {
+
+    static final String ORDERS = "orders";
+    static final String ORDER_STATUSES = "orderStatuses";
+    static final String ORDER_IDS_BY_NUMBER = "orderIdsByNumber";
+
+    private final Cache<Object, Object> orders;
+    private final Cache<Object, Object> orderStatuses;
+    private final Cache<Object, Object> orderIdsByNumber;
+    private final CacheLoaderRegistry loaders;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderCache(CacheManager cacheManager, CacheLoaderRegistry loaders,
+                      ApplicationEventPublisher eventPublisher) {
+        this.orders = requireCache(cacheManager, ORDERS);
+        this.orderStatuses = requireCache(cacheManager, ORDER_STATUSES);
+        this.orderIdsByNumber = requireCache(cacheManager, ORDER_IDS_BY_NUMBER);
+        this.loaders = loaders;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Registra as cargas usadas pelo refresh em segundo plano das entradas
+     * por id.
+     */
+    public void registerLoaders(Function<UUID, OrderDTO> orderLoader,
+                                Function<UUID, OrderStatusDTO> statusLoader) {
+        loaders.register(ORDERS, key -> orderLoader.apply((UUID) key));
+        loaders.register(ORDER_STATUSES, key -> statusLoader.apply((UUID) key));
+    }
+
+    public OrderDTO getById(UUID id, Function<UUID, OrderDTO> loader) {
+        CacheLookupEvent event = CacheLookupEvent.start();
+        OrderDTO order = (OrderDTO) orders.get(id, key -> {
+            event.miss();
+            return loader.apply(id);
+        });
+        event.finish(ORDERS, id);
+        return order;
+    }
+
+    public OrderStatusDTO getStatus(UUID id, Function<UUID, OrderStatusDTO> loader) {
+        CacheLookupEvent event = CacheLookupEvent.start();
+        OrderStatusDTO status = (OrderStatusDTO) orderStatuses.get(id, key -> {
+            event.miss();
+            return loader.apply(id);
+        });
+        event.finish(ORDER_STATUSES, id);
+        return status;
+    }
+
+    /** Pedido em cache, sem carregar do banco. */
+    public OrderDTO peek(UUID id) {
+        return (OrderDTO) orders.getIfPresent(id);
+    }
+
+    /** Status em cache, sem carregar do banco. */
+    public OrderStatusDTO peekStatus(UUID id) {
+        return (OrderStatusDTO) orderStatuses.getIfPresent(id);
+    }
+
+    /** Id do pedido pelo índice de números, sem carregar do banco. */
+    public UUID peekId(String orderNumber) {
+        return (UUID) orderIdsByNumber.getIfPresent(orderNumber);
+    }
+
+    /**
+     * Guarda status lidos em lote do banco. Não é uma transição: nenhum
+     * evento é publicado, e um status mais novo já em cache é mantido.
+     */
+    public void putStatuses(Collection<OrderStatusDTO> statuses) {
+        for (OrderStatusDTO status : statuses) {
+            orderStatuses.asMap().merge(status.getId(), status, OrderCache::newer);
+            orderIdsByNumber.asMap().putIfAbsent(status.getOrderNumber(), status.getId());
+        }
+    }
+
+    /**
+     * Busca por número via índice. Na primeira consulta o pedido carregado
+     * pelo número é devolvido sem ir para o cache por id (não há como saber o
+     * id antes da carga para coordenar com as escritas); apenas o índice é
+     * populado e as consultas seguintes usam o cache por id.
+     */
+    public OrderDTO getByNumber(String orderNumber,
+                                Function<UUID, OrderDTO> loaderById,
+                                Function<String, OrderDTO> loaderByNumber) {
+        UUID id = (UUID) orderIdsByNumber.getIfPresent(orderNumber);
+        if (id != null) {
+            return getById(id, loaderById);
+        }
+
+        OrderDTO loaded = loaderByNumber.apply(orderNumber);
+        if (loaded != null && loaded.getId() != null) {
+            orderIdsByNumber.put(orderNumber, loaded.getId());
+        }
+        return loaded;
+    }
+
+    /**
+     * Grava o estado do pedido após o commit da transação corrente (ou
+     * imediatamente se não houver transação) e publica
+     * {@link OrderStatusChangedEvent} se a versão é nova. O mapeamento é feito
+     * só no commit, quando a entidade já tem o estado final e a versão
+     * incrementada.
+     */
+    public void put(Order order, Function<Order, OrderDTO> mapper) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    write(mapper.apply(order));
+                }
+            });
+        } else {
+            write(mapper.apply(order));
+        }
+    }
+
+    /**
+     * Para pedidos que mudaram de status por um UPDATE direto, sem a entidade
+     * em memória: após o commit da transação corrente (ou imediatamente se não
+     * houver transação) descarta o DTO, grava os status devolvidos pelo
+     * UPDATE e publica {@link OrderStatusChangedEvent} para cada versão nova,
+     * como em {@link #put}.
+     */
+    public void putStatusChanges(Collection<OrderStatusDTO> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    writeStatuses(statuses);
+                }
+            });
+        } else {
+            writeStatuses(statuses);
+        }
+    }
+
+    /**
+     * Remove o pedido (DTO e status) após o término da transação corrente,
+     * ou imediatamente se não houver transação. Usado quando não há um
+     * estado novo para gravar, como no expurgo.
+     */
+    public void invalidate(UUID id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id);
+                }
+            });
+        } else {
+            evict(id);
+        }
+    }
+
+    private void write(OrderDTO dto) {
+        orders.asMap().merge(dto.getId(), dto, OrderCache::newer);
+        orderIdsByNumber.asMap().putIfAbsent(dto.getOrderNumber(), dto.getId());
+        writeStatus(toStatus(dto));
+    }
+
+    private void writeStatuses(Collection<OrderStatusDTO> statuses) {
+        for (OrderStatusDTO status : statuses) {
+            orders.invalidate(status.getId());
+            orderIdsByNumber.asMap().putIfAbsent(status.getOrderNumber(), status.getId());
+            writeStatus(status);
+        }
+    }
+
+    private void writeStatus(OrderStatusDTO status) {
+        boolean[] changed = new boolean[1];
+        orderStatuses.asMap().compute(status.getId(), (key, current) -> {
+            Object result = current == null ? status : newer(current, status);
+            changed[0] = result == status && (current == null || !Objects.equals(version(current), status.getVersion()));
+            return result;
+        });
+
+        if (changed[0]) {
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(status));
+        }
+    }
+
+    private void evict(UUID id) {
+        orders.invalidate(id);
+        orderStatuses.invalidate(id);
+    }
+
+    private static Object newer(Object current, Object candidate) {
+        Long currentVersion = version(current);
+        Long candidateVersion = version(candidate);
+        if (currentVersion == null || (candidateVersion != null && candidateVersion >= currentVersion)) {
+            return candidate;
+        }
+        return current;
+    }
+
+    private static Long version(Object value) {
+        if (value instanceof OrderDTO dto) {
+            return dto.getVersion();
+        }
+        if (value instanceof OrderStatusDTO status) {
+            return status.getVersion();
+        }
+        return null;
+    }
+
+    private static OrderStatusDTO toStatus(OrderDTO dto) {
+        OrderStatusDTO status = new OrderStatusDTO();
+        status.setId(dto.getId());
+        status.setOrderNumber(dto.getOrderNumber());
+        status.setStatus(dto.getStatus());
+        status.setCreatedAt(dto.getCreatedAt());
+        status.setProcessedAt(dto.getProcessedAt());
+        status.setCompletedAt(dto.getCompletedAt());
+        status.setTotalAmount(dto.getTotalAmount());
+        status.setVersion(dto.getVersion());
+        return status;
+    }
+
+    static Cache<Object, Object> requireCache(CacheManager cacheManager, String name) {
+        if (!(cacheManager.getCache(name) instanceof CaffeineCache cache)) {
+            throw new IllegalStateException("Cache Caffeine não configurado: " + name);
+        }
+        return cache.getNativeCache();
+    }
+}
@@ -0,0 +1,206 @@
+package com.orderservice.service;
+
+import com.orderservice.model.OrderPurgeProgress;
+import com.orderservice.repository.OrderPurgeProgressRepository;
+import com.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Expurgo de pedidos concluídos em lotes pequenos e controlados.
+ *
+ * Cada lote seleciona N ids por chave (id > último id processado), remove
+ * primeiro os itens e depois os pedidos e grava o progresso, tudo numa
+ * transação própria. Entre lotes a execução pausa proporcionalmente à
+ * latência observada, limitando a fração de tempo em que o banco fica
+ * ocupado com o expurgo e evitando picos de latência no caminho de escrita.
+ */
+@Service
+@Slf4j
+public class OrderPurgeService {
+
+    static final String JOB_NAME = "completed-orders-retention";
+
+    private static final UUID FIRST_KEY = new UUID(0L, 0L);
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    private final OrderRepository orderRepository;
+    private final OrderPurgeProgressRepository progressRepository;
+    private final OrderCache orderCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter ordersDeletedCounter;
+    private final Counter itemsDeletedCounter;
+    private final Timer chunkTimer;
+    private final AtomicLong lastRunRowsPerSecond = new AtomicLong();
+
+    @Value("${app.retention.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.retention.duty-cycle:0.5}")
+    private double dutyCycle;
+
+    @Value("${app.retention.min-pause:10ms}")
+    private Duration minPause;
+
+    @Value("${app.retention.max-pause:5s}")
+    private Duration maxPause;
+
+    public OrderPurgeService(OrderRepository orderRepository,
+                             OrderPurgeProgressRepository progressRepository,
+                             OrderCache orderCache,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.progressRepository = progressRepository;
+        this.orderCache = orderCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.ordersDeletedCounter = Counter.builder("orders.purge.rows")
+                .description("Linhas removidas pelo expurgo de pedidos")
+                .tag("table", "orders")
+                .register(meterRegistry);
+        this.itemsDeletedCounter = Counter.builder("orders.purge.rows")
+                .description("Linhas removidas pelo expurgo de pedidos")
+                .tag("table", "order_items")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("orders.purge.chunk.time")
+                .description("Tempo de cada lote do expurgo (seleção, remoção e commit)")
+                .register(meterRegistry);
+        Gauge.builder("orders.purge.rows.per.second", lastRunRowsPerSecond, AtomicLong::get)
+                .description("Vazão (linhas/s) da execução de expurgo mais recente")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Remove pedidos COMPLETED concluídos antes de {@code cutoff}.
+     * Se houver uma execução anterior não finalizada, ela é retomada com o
+     * corte e a posição originais.
+     */
+    public OrderPurgeProgress purgeCompletedOrdersOlderThan(LocalDateTime cutoff) {
+        OrderPurgeProgress progress = progressRepository.findById(JOB_NAME)
+                .filter(p -> !p.isFinished())
+                .orElseGet(() -> startRun(cutoff));
+
+        if (progress.getLastOrderId() != null) {
+            log.info("Retomando expurgo iniciado em {} a partir do pedido {} ({} pedidos já removidos)",
+                    progress.getStartedAt(), progress.getLastOrderId(), progress.getOrdersDeleted());
+        }
+
+        long runStart = System.nanoTime();
+        long rowsThisRun = 0;
+        double smoothedLatencyNanos = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            long chunkStart = System.nanoTime();
+            ChunkResult chunk = transactionTemplate.execute(status -> deleteNextChunk(progress));
+            long latencyNanos = System.nanoTime() - chunkStart;
+            chunkTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+
+            if (chunk == null) {
+                break;
+            }
+
+            rowsThisRun += chunk.orders() + chunk.items();
+            ordersDeletedCounter.increment(chunk.orders());
+            itemsDeletedCounter.increment(chunk.items());
+            lastRunRowsPerSecond.set(rowsPerSecond(rowsThisRun, System.nanoTime() - runStart));
+
+            if (chunk.exhausted()) {
+                break;
+            }
+
+            smoothedLatencyNanos = smoothedLatencyNanos == 0
+                    ? latencyNanos
+                    : LATENCY_SMOOTHING * latencyNanos + (1 - LATENCY_SMOOTHING) * smoothedLatencyNanos;
+            pause(pauseFor(smoothedLatencyNanos));
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+            log.warn("Expurgo interrompido no pedido {}; será retomado na próxima execução",
+                    progress.getLastOrderId());
+            return progress;
+        }
+
+        progress.setFinishedAt(LocalDateTime.now());
+        progressRepository.save(progress);
+
+        log.info("Expurgo concluído: {} pedidos e {} itens removidos ({} linhas/s)",
+                progress.getOrdersDeleted(), progress.getItemsDeleted(), lastRunRowsPerSecond.get());
+        return progress;
+    }
+
+    private OrderPurgeProgress startRun(LocalDateTime cutoff) {
+        OrderPurgeProgress progress = new OrderPurgeProgress();
+        progress.setJobName(JOB_NAME);
+        progress.setCutoff(cutoff);
+        progress.setStartedAt(LocalDateTime.now());
+        return progressRepository.save(progress);
+    }
+
+    private ChunkResult deleteNextChunk(OrderPurgeProgress progress) {
+        UUID afterId = progress.getLastOrderId() != null ? progress.getLastOrderId() : FIRST_KEY;
+        List<UUID> orderIds = orderRepository.findCompletedOrderIdsOlderThan(
+                progress.getCutoff(), afterId, Pageable.ofSize(chunkSize));
+
+        if (orderIds.isEmpty()) {
+            return new ChunkResult(0, 0, true);
+        }
+
+        int items = orderRepository.deleteItemsByOrderIds(orderIds);
+        int orders = orderRepository.deleteCompletedOrdersByIds(orderIds);
+        orderIds.forEach(orderCache::invalidate);
+
+        progress.setLastOrderId(orderIds.get(orderIds.size() - 1));
+        progress.setOrdersDeleted(progress.getOrdersDeleted() + orders);
+        progress.setItemsDeleted(progress.getItemsDeleted() + items);
+        progress.setUpdatedAt(LocalDateTime.now());
+        progressRepository.save(progress);
+
+        return new ChunkResult(orders, items, orderIds.size() < chunkSize);
+    }
+
+    /**
+     * Pausa para que o expurgo ocupe no máximo {@code dutyCycle} do tempo:
+     * com 0.5, um lote que levou 200ms é seguido de 200ms de pausa.
+     */
+    Duration pauseFor(double latencyNanos) {
+        double ratio = (1 - dutyCycle) / dutyCycle;
+        long pauseNanos = (long) (latencyNanos * ratio);
+        pauseNanos = Math.max(minPause.toNanos(), Math.min(maxPause.toNanos(), pauseNanos));
+        return Duration.ofNanos(pauseNanos);
+    }
+
+    private void pause(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : 0;
+    }
+
+    private record ChunkResult(int orders, int items, boolean exhausted) {
+    }
+}
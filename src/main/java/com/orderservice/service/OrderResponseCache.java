@@ -0,0 +1,138 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.util.RetainedSizeEstimator;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Respostas JSON já serializadas de {@code GET /api/orders/{id}} e
+ * {@code GET /api/orders/{id}/status}, com ETag forte (hash do conteúdo).
+ *
+ * Cada entrada guarda a versão do pedido que a originou e só é servida se
+ * coincidir com a versão atual em {@link OrderCache}; uma consulta repetida
+ * custa duas leituras de cache, sem serialização nem banco. Entradas de
+ * versões antigas são removidas quando o status muda.
+ */
+@Component
+public class OrderResponseCache {
+
+    static final String ORDER_RESPONSES = "orderResponses";
+    static final String ORDER_STATUS_RESPONSES = "orderStatusResponses";
+
+    private final OrderService orderService;
+    private final OrderCache orderCache;
+    private final ObjectMapper objectMapper;
+    private final Cache<Object, Object> orderResponses;
+    private final Cache<Object, Object> statusResponses;
+
+    public OrderResponseCache(OrderService orderService, OrderCache orderCache,
+                              ObjectMapper objectMapper, CacheManager cacheManager) {
+        this.orderService = orderService;
+        this.orderCache = orderCache;
+        this.objectMapper = objectMapper;
+        this.orderResponses = OrderCache.requireCache(cacheManager, ORDER_RESPONSES);
+        this.statusResponses = OrderCache.requireCache(cacheManager, ORDER_STATUS_RESPONSES);
+    }
+
+    public CachedResponse order(UUID id) {
+        OrderDTO order = orderCache.peek(id);
+        if (order == null) {
+            order = orderService.getOrderById(id);
+        }
+        return order(order);
+    }
+
+    /**
+     * Resposta JSON deste DTO. Quem também serve outra representação do
+     * pedido passa o mesmo DTO, para que corpo e ETag venham do mesmo estado.
+     */
+    public CachedResponse order(OrderDTO order) {
+        return resolve(orderResponses, order.getId(), order, order.getVersion());
+    }
+
+    public CachedResponse status(UUID id) {
+        OrderStatusDTO status = orderCache.peekStatus(id);
+        if (status == null) {
+            status = orderService.getOrderStatus(id);
+        }
+        return status(status);
+    }
+
+    /** Como {@link #order(OrderDTO)}, para o status. */
+    public CachedResponse status(OrderStatusDTO status) {
+        return resolve(statusResponses, status.getId(), status, status.getVersion());
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        evictOlderThan(orderResponses, event);
+        evictOlderThan(statusResponses, event);
+    }
+
+    private CachedResponse resolve(Cache<Object, Object> cache, UUID id, Object body, Long version) {
+        CachedResponse cached = (CachedResponse) cache.getIfPresent(id);
+        if (cached != null && Objects.equals(cached.version(), version)) {
+            return cached;
+        }
+
+        CachedResponse fresh = serialize(body, version);
+        cache.asMap().merge(id, fresh, (current, candidate) ->
+                isOlder(((CachedResponse) candidate).version(), ((CachedResponse) current).version())
+                        ? current : candidate);
+        return fresh;
+    }
+
+    private static void evictOlderThan(Cache<Object, Object> cache, OrderStatusChangedEvent event) {
+        cache.asMap().computeIfPresent(event.orderId(), (key, current) ->
+                isOlder(((CachedResponse) current).version(), event.version()) ? null : current);
+    }
+
+    private static boolean isOlder(Long version, Long reference) {
+        return version != null && reference != null && version < reference;
+    }
+
+    private CachedResponse serialize(Object body, Long version) {
+        try {
+            byte[] bytes = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(bytes, etag(bytes), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar resposta do pedido", e);
+        }
+    }
+
+    private static String etag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Corpo JSON serializado, ETag forte e versão do pedido de origem.
+     */
+    public record CachedResponse(byte[] body, String etag, Long version) implements RetainedSizeEstimator.Sized {
+
+        @Override
+        public long retainedSize() {
+            return RetainedSizeEstimator.align(RetainedSizeEstimator.OBJECT_HEADER + 3 * RetainedSizeEstimator.REFERENCE)
+                    + RetainedSizeEstimator.estimate(body)
+                    + RetainedSizeEstimator.estimate(etag)
+                    + RetainedSizeEstimator.estimate(version);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.metrics.OrderMetrics;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.util.HashedTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Novas tentativas de pedidos que falharam, em uma {@link HashedTimingWheel}
+ * avançada a cada {@code retry-tick-ms}. Nenhuma thread fica parada durante
+ * o backoff: a cada tick as tentativas vencidas vão para os executores de
+ * processamento e de notificação. As voltas ao processamento vencidas no
+ * mesmo tick seguem juntas, em um só {@code requeue} e um só
+ * {@link OrderService#processOrders}.
+ * <ul>
+ *   <li>Processamento: o pedido em ERROR volta para RECEIVED no vencimento
+ *       gravado em {@code next_retry_at}, que sobrevive a reinícios; na
+ *       subida os vencimentos pendentes são recarregados na roda. Uma nova
+ *       falha grava o próximo vencimento e reagenda.</li>
+ *   <li>Notificação: o pedido continua CALCULATED e é notificado de novo com
+ *       o mesmo backoff. O status no banco já basta para a durabilidade: a
+ *       rotina de notificação pendente cobre reinícios e tentativas
+ *       esgotadas.</li>
+ * </ul>
+ * A roda é local à instância. Entre instâncias só uma vence a volta para
+ * RECEIVED, e a rotina de recuperação cobre o que não estiver em nenhuma roda.
+ */
+@Component
+@Slf4j
+public class OrderRetryScheduler {
+
+    private final OrderRepository orderRepository;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderService orderService;
+    private final OrderMetrics orderMetrics;
+    private final Executor orderProcessingExecutor;
+    private final Executor notificationExecutor;
+    private final HashedTimingWheel<UUID> wheel;
+    private final int reloadLimit;
+
+    /** Voltas ao processamento vencidas no tick corrente; só a thread do tick acessa. */
+    private final List<UUID> dueRecoveries = new ArrayList<>();
+
+    @Autowired
+    public OrderRetryScheduler(OrderRepository orderRepository,
+                               OrderStateMachine orderStateMachine,
+                               @Lazy OrderService orderService,
+                               OrderMetrics orderMetrics,
+                               @Qualifier("orderProcessingExecutor") Executor orderProcessingExecutor,
+                               @Qualifier("notificationExecutor") Executor notificationExecutor,
+                               @Value("${app.scheduler.retry-tick-ms:1000}") long tickMillis,
+                               @Value("${app.scheduler.retry-wheel-size:512}") int wheelSize,
+                               @Value("${app.scheduler.retry-reload-limit:10000}") int reloadLimit) {
+        this(orderRepository, orderStateMachine, orderService, orderMetrics, orderProcessingExecutor,
+                notificationExecutor, new HashedTimingWheel<>(Duration.ofMillis(tickMillis), wheelSize), reloadLimit);
+    }
+
+    OrderRetryScheduler(OrderRepository orderRepository,
+                        OrderStateMachine orderStateMachine,
+                        OrderService orderService,
+                        OrderMetrics orderMetrics,
+                        Executor orderProcessingExecutor,
+                        Executor notificationExecutor,
+                        HashedTimingWheel<UUID> wheel,
+                        int reloadLimit) {
+        this.orderRepository = orderRepository;
+        this.orderStateMachine = orderStateMachine;
+        this.orderService = orderService;
+        this.orderMetrics = orderMetrics;
+        this.orderProcessingExecutor = orderProcessingExecutor;
+        this.notificationExecutor = notificationExecutor;
+        this.wheel = wheel;
+        this.reloadLimit = reloadLimit;
+    }
+
+    /**
+     * Agenda a volta do pedido em ERROR para o processamento no vencimento
+     * {@code nextRetryAt}. Sem vencimento (tentativas esgotadas) não agenda.
+     */
+    public void scheduleRecovery(UUID id, LocalDateTime nextRetryAt) {
+        if (nextRetryAt == null) {
+            log.warn("Pedido {} esgotou as tentativas de processamento", id);
+            return;
+        }
+        wheel.schedule(id, Duration.between(LocalDateTime.now(), nextRetryAt), () -> dueRecoveries.add(id));
+        log.debug("Nova tentativa de processamento do pedido {} agendada para {}", id, nextRetryAt);
+    }
+
+    /** Agenda uma nova notificação ao sistema externo B depois de {@code failures} falhas. */
+    public void scheduleNotification(UUID id, int failures) {
+        if (failures >= orderStateMachine.getMaxRetries()) {
+            log.warn("Pedido {} esgotou as tentativas de notificação; segue para a rotina de notificação pendente", id);
+            return;
+        }
+        Duration delay = orderStateMachine.retryDelay(failures);
+        wheel.schedule(id, delay, () -> dispatchNotification(id, failures + 1));
+        log.debug("Nova notificação do pedido {} agendada em {}", id, delay);
+    }
+
+    @Scheduled(fixedRateString = "${app.scheduler.retry-tick-ms:1000}")
+    public void tick() {
+        for (Runnable task : wheel.expire()) {
+            task.run();
+        }
+        if (!dueRecoveries.isEmpty()) {
+            List<UUID> due = List.copyOf(dueRecoveries);
+            dueRecoveries.clear();
+            dispatchRecovery(due);
+        }
+    }
+
+    /** Recoloca na roda as tentativas de processamento que estavam pendentes quando a instância parou. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadPendingRetries() {
+        Map<UUID, LocalDateTime> pending =
+                orderRepository.findPendingRetries(orderStateMachine.getMaxRetries(), reloadLimit);
+        pending.forEach(this::scheduleRecovery);
+        if (!pending.isEmpty()) {
+            log.info("{} tentativas de processamento pendentes recarregadas", pending.size());
+        }
+    }
+
+    private void dispatchRecovery(List<UUID> ids) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                // só voltam para RECEIVED os que ainda estão em ERROR com a tentativa vencida
+                List<UUID> requeued = orderStateMachine.requeue(ids);
+                if (requeued.size() < ids.size()) {
+                    log.debug("{} de {} pedidos já não aguardavam nova tentativa", ids.size() - requeued.size(), ids.size());
+                }
+                if (requeued.isEmpty()) {
+                    return;
+                }
+                orderMetrics.incrementScheduledDispatches("retry", requeued.size());
+                orderService.processOrders(requeued);
+            } catch (Exception e) {
+                log.error("Erro na nova tentativa de {} pedidos: {}", ids.size(), e.getMessage());
+            }
+        }, orderProcessingExecutor);
+    }
+
+    private void dispatchNotification(UUID id, int failures) {
+        CompletableFuture.runAsync(() -> {
+            OrderDTO order = null;
+            try {
+                orderMetrics.incrementScheduledDispatches("retry-notification", 1);
+                order = orderService.notifyExternalSystem(id);
+            } catch (Exception e) {
+                log.error("Erro na nova notificação do pedido {}: {}", id, e.getMessage());
+            }
+            if (order == null || order.getStatus() == OrderStatus.CALCULATED) {
+                scheduleNotification(id, failures);
+            }
+        }, notificationExecutor);
+    }
+}
@@ -1,10 +1,13 @@
 package com.orderservice.service;
 
 import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
 import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.exception.DuplicateOrderException;
 import com.orderservice.model.OrderStatus;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +17,8 @@ public interface OrderService {
 
     OrderDTO processOrder(UUID id);
 
+    OrderProcessBatchResponseDTO processOrders(Collection<UUID> ids);
+
     OrderDTO notifyExternalSystem(UUID id);
 
     OrderDTO getOrderById(UUID id);
@@ -23,4 +28,6 @@ public interface OrderService {
     List<OrderDTO> listOrders(int page, int size, OrderStatus status);
 
     OrderStatusDTO getOrderStatus(UUID id);
+
+    OrderStatusBatchResponseDTO getOrderStatuses(Collection<UUID> ids, Collection<String> orderNumbers);
 }
@@ -1,38 +1,54 @@
 package com.orderservice.service;
 
 import com.orderservice.dto.OrderDTO;
-import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
 import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.exception.DuplicateOrderException;
 import com.orderservice.integration.ExternalProductAClient;
 import com.orderservice.integration.ExternalProductBClient;
 import com.orderservice.integration.dto.ExternalOrderDTO;
 import com.orderservice.integration.dto.ExternalProductDTO;
+import com.orderservice.jfr.OrderCreationEvent;
+import com.orderservice.jfr.OrderStageEvent;
+import com.orderservice.metrics.OrderMetrics;
 import com.orderservice.model.Order;
 import com.orderservice.model.OrderItem;
 import com.orderservice.model.OrderStatus;
 import com.orderservice.repository.OrderRepository;
 import com.orderservice.util.OrderDuplicateChecker;
+import com.orderservice.util.OrderMapper;
 import com.orderservice.util.OrderValidator;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -43,38 +59,112 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderServiceImpl implements OrderService {
 
+    /** Parâmetros por consulta IN da busca de status em lote. */
+    static final int STATUS_QUERY_CHUNK_SIZE = 1000;
+
+    /** Pedidos lidos e gravados juntos no processamento em lote. */
+    static final int PROCESS_BATCH_CHUNK_SIZE = 1000;
+
     private final OrderRepository orderRepository;
     private final ExternalProductAClient externalProductAClient;
     private final ExternalProductBClient externalProductBClient;
     private final OrderValidator orderValidator;
     private final OrderDuplicateChecker duplicateChecker;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderCache orderCache;
+    private final OrderMetrics orderMetrics;
+    private final OrderMapper orderMapper;
+    private final OrderStateMachine orderStateMachine;
+    private final OrderRetryScheduler orderRetryScheduler;
     private final Executor orderProcessingExecutor;
     private final Executor notificationExecutor;
+    private final TransactionTemplate transactionTemplate;
     
     private OrderService self;
 
+    @Value("${app.processing.single-pass:true}")
+    private boolean singlePassProcessing;
+
     public OrderServiceImpl(
             OrderRepository orderRepository,
             ExternalProductAClient externalProductAClient,
             ExternalProductBClient externalProductBClient,
             OrderValidator orderValidator,
             OrderDuplicateChecker duplicateChecker,
+            OrderArchiveService orderArchiveService,
+            OrderCache orderCache,
+            OrderMetrics orderMetrics,
+            OrderMapper orderMapper,
+            OrderStateMachine orderStateMachine,
+            OrderRetryScheduler orderRetryScheduler,
             @Qualifier("orderProcessingExecutor") Executor orderProcessingExecutor,
-            @Qualifier("notificationExecutor") Executor notificationExecutor) {
+            @Qualifier("notificationExecutor") Executor notificationExecutor,
+            PlatformTransactionManager transactionManager) {
         this.orderRepository = orderRepository;
         this.externalProductAClient = externalProductAClient;
         this.externalProductBClient = externalProductBClient;
         this.orderValidator = orderValidator;
         this.duplicateChecker = duplicateChecker;
+        this.orderArchiveService = orderArchiveService;
+        this.orderCache = orderCache;
+        this.orderMetrics = orderMetrics;
+        this.orderMapper = orderMapper;
+        this.orderStateMachine = orderStateMachine;
+        this.orderRetryScheduler = orderRetryScheduler;
         this.orderProcessingExecutor = orderProcessingExecutor;
         this.notificationExecutor = notificationExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.self = this;
     }
 
+    /**
+     * Proxy do próprio serviço, para que as etapas disparadas no processamento
+     * assíncrono passem por transação e circuit breaker.
+     */
+    @Autowired
+    void setSelf(@Lazy OrderService self) {
+        this.self = self;
+    }
+
+    /**
+     * O refresh dos caches roda no executor de refresh, fora de qualquer
+     * transação: cada carga abre a sua, no primário (para não regravar no
+     * cache um valor atrasado da réplica), e traz os itens na mesma consulta.
+     */
+    @PostConstruct
+    void registerCacheLoaders() {
+        orderCache.registerLoaders(
+                id -> transactionTemplate.execute(status -> reloadOrderById(id)),
+                id -> transactionTemplate.execute(status -> loadOrderStatus(id)));
+    }
+
     @Override
     @Transactional
-    @RateLimiter(name = "default")
     public OrderDTO createOrder(OrderDTO orderDTO) throws DuplicateOrderException {
+        long start = System.nanoTime();
+        OrderCreationEvent event = new OrderCreationEvent();
+        event.begin();
+        String outcome = OrderMetrics.OUTCOME_ERROR;
+        OrderDTO created = null;
+        try {
+            created = doCreateOrder(orderDTO);
+            outcome = OrderMetrics.OUTCOME_SUCCESS;
+            orderMetrics.incrementOrdersReceived();
+            return created;
+        } catch (DuplicateOrderException e) {
+            outcome = OrderMetrics.OUTCOME_DUPLICATE;
+            orderMetrics.incrementDuplicateOrders();
+            throw e;
+        } finally {
+            orderMetrics.recordOrderCreationTime(start, outcome);
+            event.finish(outcome,
+                    created != null ? created.getOrderNumber() : orderDTO.getOrderNumber(),
+                    created != null ? created.getId() : null,
+                    orderDTO.getItems() != null ? orderDTO.getItems().size() : 0);
+        }
+    }
+
+    private OrderDTO doCreateOrder(OrderDTO orderDTO) throws DuplicateOrderException {
         if (orderDTO.getOrderNumber() != null &&
                 duplicateChecker.isOrderNumberDuplicate(orderDTO.getOrderNumber())) {
             throw new DuplicateOrderException("Pedido com número " + orderDTO.getOrderNumber() + " já existe");
@@ -84,22 +174,24 @@ public class OrderServiceImpl implements OrderService {
         }
         orderValidator.validate(orderDTO);
 
-        Order order = mapToEntity(orderDTO);
+        Order order = orderMapper.toEntity(orderDTO);
         order.setStatus(OrderStatus.RECEIVED);
 
         Order savedOrder = orderRepository.save(order);
+        orderCache.put(savedOrder, orderMapper::toDto);
         log.info("Pedido criado com sucesso: {}", savedOrder.getOrderNumber());
 
-        CompletableFuture.runAsync(() -> {
+        // só após o commit: antes disso o pedido não é visível para a thread de processamento
+        afterCommit(() -> CompletableFuture.runAsync(() -> {
             try {
                 processOrderAsync(savedOrder.getId());
             } catch (Exception e) {
                 log.error("Erro no processamento assíncrono inicial do pedido {}: {}",
                         savedOrder.getId(), e.getMessage(), e);
             }
-        }, orderProcessingExecutor);
+        }, orderProcessingExecutor));
 
-        return mapToDto(savedOrder);
+        return orderMapper.toDto(savedOrder);
     }
 
     @Async("orderProcessingExecutor")
@@ -107,7 +199,11 @@ public class OrderServiceImpl implements OrderService {
     protected void processOrderAsync(UUID orderId) {
         try {
             log.debug("Iniciando processamento assíncrono para pedido: {}", orderId);
-            OrderDTO processedOrder = processOrder(orderId);
+            if (singlePassProcessing) {
+                processInSinglePass(orderId);
+                return;
+            }
+            OrderDTO processedOrder = self.processOrder(orderId);
 
             if (processedOrder != null &&
                     (processedOrder.getStatus() == OrderStatus.CALCULATED ||
@@ -115,7 +211,7 @@ public class OrderServiceImpl implements OrderService {
 
                 CompletableFuture.runAsync(() -> {
                     try {
-                        notifyExternalSystem(orderId);
+                        self.notifyExternalSystem(orderId);
                     } catch (Exception e) {
                         log.error("Erro na notificação assíncrona do pedido {}: {}",
                                 orderId, e.getMessage(), e);
@@ -130,62 +226,215 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Processamento em passo único ({@code app.processing.single-pass}): lê o
+     * pedido com os itens em uma consulta, calcula os preços fora de
+     * transação (sem segurar conexão durante a chamada ao serviço A) e grava
+     * RECEIVED → CALCULATED com um UPDATE condicional mais o lote de itens.
+     * O pedido em memória segue direto para a notificação, sem nova leitura.
+     * Não passa por PROCESSING: se a instância cair no meio, o pedido continua
+     * RECEIVED e volta pelo job de pendentes. Um pedido fora de RECEIVED só
+     * é ignorado: a notificação pendente fica com a roda de novas tentativas
+     * e com o job de notificações pendentes.
+     */
+    void processInSinglePass(UUID orderId) {
+        long start = System.nanoTime();
+        OrderStageEvent event = OrderStageEvent.start(OrderStageEvent.PROCESS, orderId);
+        Order order = orderRepository.findWithItemsById(orderId)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + orderId));
+
+        if (order.getStatus() != OrderStatus.RECEIVED) {
+            log.info("Pedido {} já foi processado. Status atual: {}", orderId, order.getStatus());
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+            return;
+        }
+
+        try {
+            log.info("Iniciando processamento do pedido: {}", order.getOrderNumber());
+            applyProductPrices(order);
+            OrderStateMachine.apply(order, OrderStatus.CALCULATED);
+            order.setProcessedAt(LocalDateTime.now());
+
+            if (!orderRepository.applyCalculation(order)) {
+                log.info("Pedido {} já foi processado por outra execução", orderId);
+                orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, OrderStatus.RECEIVED);
+                event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+                return;
+            }
+        } catch (Exception e) {
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_ERROR, OrderStatus.ERROR);
+            event.finish(OrderMetrics.OUTCOME_ERROR, order);
+            throw new RuntimeException("Erro ao processar pedido: " + e.getMessage(), e);
+        }
+
+        orderCache.put(order, orderMapper::toDto);
+        log.info("Pedido processado com sucesso: {}", order.getOrderNumber());
+        orderMetrics.incrementOrdersProcessed();
+        orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+        event.finish(OrderMetrics.OUTCOME_SUCCESS, order);
+        orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.CALCULATED,
+                order.getCreatedAt(), order.getProcessedAt());
+
+        notifyAsync(order);
+    }
+
+    private void notifyAsync(Order order) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                notifyCalculatedOrder(order);
+            } catch (Exception e) {
+                // continua CALCULATED: nova notificação com backoff
+                log.error("Erro na notificação assíncrona do pedido {}: {}",
+                        order.getId(), e.getMessage(), e);
+                orderRetryScheduler.scheduleNotification(order.getId(), 0);
+            }
+        }, notificationExecutor);
+    }
+
+    /**
+     * Notifica o sistema externo B a partir do pedido já calculado em memória
+     * e grava CALCULATED → NOTIFIED com um UPDATE condicional.
+     */
+    void notifyCalculatedOrder(Order order) {
+        long start = System.nanoTime();
+        OrderStageEvent event = OrderStageEvent.start(OrderStageEvent.NOTIFY, order.getId());
+        try {
+            log.info("Notificando sistema externo B sobre o pedido: {}", order.getOrderNumber());
+            ExternalOrderDTO externalOrderDTO = orderMapper.toExternalOrder(order);
+            orderMetrics.measureExternalServiceBTime("notifyOrder", () -> {
+                externalProductBClient.notifyOrder(externalOrderDTO);
+                return null;
+            });
+        } catch (Exception e) {
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_ERROR, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_ERROR, order);
+            throw new RuntimeException("Erro ao notificar sistema externo: " + e.getMessage(), e);
+        }
+
+        order.setNotifiedToExternalB(true);
+        OrderStateMachine.apply(order, OrderStatus.NOTIFIED);
+        order.setCompletedAt(LocalDateTime.now());
+        if (!orderRepository.applyNotification(order)) {
+            log.info("Pedido {} já foi notificado por outra execução", order.getId());
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_SKIPPED, OrderStatus.NOTIFIED);
+            event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+            return;
+        }
+
+        orderCache.put(order, orderMapper::toDto);
+        log.info("Pedido notificado com sucesso: {}", order.getOrderNumber());
+        orderMetrics.incrementOrdersNotified();
+        orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_SUCCESS, OrderStatus.NOTIFIED);
+        event.finish(OrderMetrics.OUTCOME_SUCCESS, order);
+        orderMetrics.recordTimeInState(OrderStatus.CALCULATED, OrderStatus.NOTIFIED,
+                order.getProcessedAt(), order.getCompletedAt());
+        orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.NOTIFIED,
+                order.getCreatedAt(), order.getCompletedAt());
+    }
+
     @Override
     @Transactional(isolation = Isolation.READ_COMMITTED)
-    @CacheEvict(value = "orders", key = "#id")
     @CircuitBreaker(name = "externalServiceA", fallbackMethod = "processOrderFallback")
-    @Retry(name = "default")
     public OrderDTO processOrder(UUID id) {
+        long start = System.nanoTime();
+        OrderStageEvent event = OrderStageEvent.start(OrderStageEvent.PROCESS, id);
         Order order = findOrderEntityById(id);
 
         if (order.getStatus() != OrderStatus.RECEIVED) {
             log.info("Pedido {} já foi processado. Status atual: {}", id, order.getStatus());
-            return mapToDto(order);
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+            return orderMapper.toDto(order);
         }
 
         try {
             log.info("Iniciando processamento do pedido: {}", order.getOrderNumber());
-            order.setStatus(OrderStatus.PROCESSING);
+            OrderStateMachine.apply(order, OrderStatus.PROCESSING);
             order = orderRepository.save(order);
+            orderCache.put(order, orderMapper::toDto);
 
-            List<String> productIds = order.getItems().stream()
-                    .map(OrderItem::getProductId)
-                    .collect(Collectors.toList());
-
-            Map<String, ExternalProductDTO> productMap = fetchProductsInBatch(productIds);
-
-            for (OrderItem item : order.getItems()) {
-                ExternalProductDTO product = productMap.get(item.getProductId());
-                if (product != null) {
-                    item.setProductName(product.getName());
-                    item.setPrice(product.getPrice());
-                } else {
-                    log.warn("Produto não encontrado: {}", item.getProductId());
-                    if (item.getPrice() == null || item.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
-                        item.setPrice(BigDecimal.ZERO);
-                    }
-                }
-            }
-
-            order.calculateTotal();
-            order.setStatus(OrderStatus.CALCULATED);
+            applyProductPrices(order);
+            OrderStateMachine.apply(order, OrderStatus.CALCULATED);
             order.setProcessedAt(LocalDateTime.now());
 
             Order updatedOrder = orderRepository.save(order);
+            orderCache.put(updatedOrder, orderMapper::toDto);
             log.info("Pedido processado com sucesso: {}", updatedOrder.getOrderNumber());
+            orderMetrics.incrementOrdersProcessed();
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+            event.finish(OrderMetrics.OUTCOME_SUCCESS, updatedOrder);
+            orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.CALCULATED,
+                    updatedOrder.getCreatedAt(), updatedOrder.getProcessedAt());
 
-            return mapToDto(updatedOrder);
+            return orderMapper.toDto(updatedOrder);
         } catch (Exception e) {
             log.error("Erro ao processar pedido {}: {}", id, e.getMessage(), e);
-            order.setStatus(OrderStatus.ERROR);
-            orderRepository.save(order);
+            saveAsErrored(order);
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_ERROR, OrderStatus.ERROR);
+            event.finish(OrderMetrics.OUTCOME_ERROR, order);
             throw new RuntimeException("Erro ao processar pedido: " + e.getMessage(), e);
         }
     }
 
-    private Map<String, ExternalProductDTO> fetchProductsInBatch(List<String> productIds) {
+    /**
+     * ERROR na entidade carregada, com o vencimento da próxima tentativa. A
+     * tentativa só entra na roda depois do commit.
+     */
+    private void saveAsErrored(Order order) {
+        OrderStateMachine.apply(order, OrderStatus.ERROR);
+        order.setNextRetryAt(orderStateMachine.nextRetryAt(order.getRetryCount(), LocalDateTime.now()));
+        orderCache.put(orderRepository.save(order), orderMapper::toDto);
+        orderMetrics.incrementOrdersError();
+        UUID id = order.getId();
+        LocalDateTime nextRetryAt = order.getNextRetryAt();
+        afterCommit(() -> orderRetryScheduler.scheduleRecovery(id, nextRetryAt));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /** Preenche nome e preço dos itens pelo catálogo do serviço A e recalcula o total. */
+    private void applyProductPrices(Order order) {
+        Set<String> productIds = new HashSet<>();
+        for (OrderItem item : order.getItems()) {
+            productIds.add(item.getProductId());
+        }
+
+        applyProductPrices(order, fetchProductsInBatch(productIds));
+    }
+
+    private void applyProductPrices(Order order, Map<String, ExternalProductDTO> productMap) {
+        for (OrderItem item : order.getItems()) {
+            ExternalProductDTO product = productMap.get(item.getProductId());
+            if (product != null) {
+                item.setProductName(product.getName());
+                item.setPrice(product.getPrice());
+            } else {
+                log.warn("Produto não encontrado: {}", item.getProductId());
+                if (item.getPrice() == null || item.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
+                    item.setPrice(BigDecimal.ZERO);
+                }
+            }
+        }
+
+        order.calculateTotal();
+    }
+
+    private Map<String, ExternalProductDTO> fetchProductsInBatch(Set<String> productIds) {
         try {
-            List<ExternalProductDTO> products = externalProductAClient.getProducts();
+            List<ExternalProductDTO> products =
+                    orderMetrics.measureExternalServiceATime("getProducts", externalProductAClient::getProducts);
             if (products != null && !products.isEmpty()) {
                 return products.stream()
                         .filter(p -> productIds.contains(p.getId()))
@@ -198,7 +447,8 @@ public class OrderServiceImpl implements OrderService {
         Map<String, ExternalProductDTO> resultMap = new HashMap<>();
         for (String productId : productIds) {
             try {
-                ExternalProductDTO product = externalProductAClient.getProduct(productId);
+                ExternalProductDTO product = orderMetrics.measureExternalServiceATime("getProduct",
+                        () -> externalProductAClient.getProduct(productId));
                 if (product != null) {
                     resultMap.put(productId, product);
                 }
@@ -209,76 +459,198 @@ public class OrderServiceImpl implements OrderService {
         return resultMap;
     }
 
+    /**
+     * Processa vários pedidos como o passo único, em lotes de até
+     * {@value #PROCESS_BATCH_CHUNK_SIZE}: os pedidos vêm com os itens em uma
+     * consulta, o catálogo do serviço A é buscado uma vez para a união dos
+     * produtos, os totais são calculados fora de transação e todas as
+     * transições RECEIVED → CALCULATED são gravadas em um lote JDBC. Os
+     * pedidos calculados seguem para a notificação.
+     */
+    @Override
+    public OrderProcessBatchResponseDTO processOrders(Collection<UUID> ids) {
+        OrderProcessBatchResponseDTO result = new OrderProcessBatchResponseDTO(
+                new ArrayList<>(), new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        List<UUID> requested = new ArrayList<>(new LinkedHashSet<>(ids));
+        for (int from = 0; from < requested.size(); from += PROCESS_BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + PROCESS_BATCH_CHUNK_SIZE, requested.size());
+            processChunk(requested.subList(from, to), result);
+        }
+        log.info("Processamento em lote de {} pedidos: {} calculados, {} ignorados, {} com erro, {} não encontrados",
+                requested.size(), result.getCalculated().size(), result.getSkipped().size(),
+                result.getFailed().size(), result.getNotFound().size());
+        return result;
+    }
+
+    private void processChunk(List<UUID> ids, OrderProcessBatchResponseDTO result) {
+        long start = System.nanoTime();
+        List<Order> orders = orderRepository.findAllWithItemsByIdIn(ids);
+
+        Set<UUID> found = new HashSet<>(orders.size() * 2);
+        List<Order> received = new ArrayList<>(orders.size());
+        Set<String> productIds = new HashSet<>();
+        for (Order order : orders) {
+            found.add(order.getId());
+            if (order.getStatus() != OrderStatus.RECEIVED) {
+                result.getSkipped().add(order.getId());
+                orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, order.getStatus());
+                continue;
+            }
+            received.add(order);
+            for (OrderItem item : order.getItems()) {
+                productIds.add(item.getProductId());
+            }
+        }
+        for (UUID id : ids) {
+            if (!found.contains(id)) {
+                result.getNotFound().add(id);
+            }
+        }
+        if (received.isEmpty()) {
+            return;
+        }
+
+        Map<String, ExternalProductDTO> productMap = fetchProductsInBatch(productIds);
+        LocalDateTime processedAt = LocalDateTime.now();
+        List<Order> priced = new ArrayList<>(received.size());
+        List<UUID> failed = new ArrayList<>();
+        for (Order order : received) {
+            try {
+                applyProductPrices(order, productMap);
+                OrderStateMachine.apply(order, OrderStatus.CALCULATED);
+                order.setProcessedAt(processedAt);
+                priced.add(order);
+            } catch (Exception e) {
+                log.error("Erro ao calcular pedido {}: {}", order.getId(), e.getMessage(), e);
+                failed.add(order.getId());
+            }
+        }
+
+        List<Order> calculated;
+        try {
+            calculated = orderRepository.applyCalculations(priced);
+        } catch (Exception e) {
+            log.error("Erro ao gravar lote de {} pedidos calculados: {}", priced.size(), e.getMessage(), e);
+            calculated = List.of();
+            for (Order order : priced) {
+                failed.add(order.getId());
+            }
+            priced = List.of();
+        }
+
+        Set<UUID> calculatedIds = new HashSet<>(calculated.size() * 2);
+        for (Order order : calculated) {
+            calculatedIds.add(order.getId());
+            result.getCalculated().add(order.getId());
+            orderCache.put(order, orderMapper::toDto);
+            orderMetrics.incrementOrdersProcessed();
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+            orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.CALCULATED,
+                    order.getCreatedAt(), order.getProcessedAt());
+            notifyAsync(order);
+        }
+        for (Order order : priced) {
+            if (!calculatedIds.contains(order.getId())) {
+                result.getSkipped().add(order.getId());
+                orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, OrderStatus.RECEIVED);
+            }
+        }
+        markFailed(failed, start, result);
+    }
+
+    /**
+     * Marca ERROR os pedidos do lote que falharam e agenda a próxima tentativa
+     * de cada um com o vencimento gravado. Os que já não estavam RECEIVED
+     * (outra execução chegou antes) ficam como ignorados.
+     */
+    private void markFailed(List<UUID> failed, long start, OrderProcessBatchResponseDTO result) {
+        if (failed.isEmpty()) {
+            return;
+        }
+        Map<UUID, LocalDateTime> errored = orderStateMachine.markErrored(failed, OrderStatus.RECEIVED);
+        for (UUID id : failed) {
+            if (!errored.containsKey(id)) {
+                result.getSkipped().add(id);
+                orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_SKIPPED, OrderStatus.RECEIVED);
+                continue;
+            }
+            result.getFailed().add(id);
+            orderMetrics.incrementOrdersError();
+            orderMetrics.recordOrderProcessingTime(start, OrderMetrics.OUTCOME_ERROR, OrderStatus.ERROR);
+            orderRetryScheduler.scheduleRecovery(id, errored.get(id));
+        }
+    }
+
     public OrderDTO processOrderFallback(UUID id, Exception ex) {
         log.warn("Executando fallback para processamento do pedido {}: {}", id, ex.getMessage());
         Order order = findOrderEntityById(id);
 
-        if (order.getStatus() == OrderStatus.ERROR) {
-            return mapToDto(order);
+        if (!OrderStateMachine.canTransition(order.getStatus(), OrderStatus.ERROR)) {
+            return orderMapper.toDto(order);
         }
 
-        order.setStatus(OrderStatus.ERROR);
-        orderRepository.save(order);
-        return mapToDto(order);
+        saveAsErrored(order);
+        return orderMapper.toDto(order);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "orders", key = "#id")
     @CircuitBreaker(name = "externalServiceB", fallbackMethod = "notifyExternalSystemFallback")
     @Bulkhead(name = "default")
-    @Retry(name = "default")
     public OrderDTO notifyExternalSystem(UUID id) {
+        long start = System.nanoTime();
+        OrderStageEvent event = OrderStageEvent.start(OrderStageEvent.NOTIFY, id);
         Order order = findOrderEntityById(id);
 
         if (order.isNotifiedToExternalB()) {
             log.info("Pedido {} já foi notificado ao sistema externo B", id);
-            return mapToDto(order);
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_SKIPPED, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+            return orderMapper.toDto(order);
         }
 
         if (order.getStatus() != OrderStatus.CALCULATED && order.getStatus() != OrderStatus.NOTIFIED) {
             log.warn("Pedido {} não está calculado. Status atual: {}", id, order.getStatus());
-            return mapToDto(order);
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_SKIPPED, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_SKIPPED, order);
+            return orderMapper.toDto(order);
         }
 
         try {
             log.info("Notificando sistema externo B sobre o pedido: {}", order.getOrderNumber());
 
-            ExternalOrderDTO externalOrderDTO = new ExternalOrderDTO();
-            externalOrderDTO.setOrderNumber(order.getOrderNumber());
-            externalOrderDTO.setStatus("CALCULATED");
-            externalOrderDTO.setTotalAmount(order.getTotalAmount());
-
-            List<ExternalOrderDTO.ExternalOrderItemDTO> externalItems = order.getItems().stream()
-                    .map(item -> {
-                        ExternalOrderDTO.ExternalOrderItemDTO externalItem = new ExternalOrderDTO.ExternalOrderItemDTO();
-                        externalItem.setProductId(item.getProductId());
-                        externalItem.setProductName(item.getProductName());
-                        externalItem.setQuantity(item.getQuantity());
-                        externalItem.setPrice(item.getPrice());
-                        return externalItem;
-                    })
-                    .collect(Collectors.toList());
+            ExternalOrderDTO externalOrderDTO = orderMapper.toExternalOrder(order);
 
-            externalOrderDTO.setItems(externalItems);
-
-            externalProductBClient.notifyOrder(externalOrderDTO);
+            orderMetrics.measureExternalServiceBTime("notifyOrder", () -> {
+                externalProductBClient.notifyOrder(externalOrderDTO);
+                return null;
+            });
 
             order.setNotifiedToExternalB(true);
-            order.setStatus(OrderStatus.NOTIFIED);
+            OrderStateMachine.apply(order, OrderStatus.NOTIFIED);
             order.setCompletedAt(LocalDateTime.now());
 
             Order updatedOrder = orderRepository.save(order);
+            orderCache.put(updatedOrder, orderMapper::toDto);
             log.info("Pedido notificado com sucesso: {}", updatedOrder.getOrderNumber());
-
-            return mapToDto(updatedOrder);
+            orderMetrics.incrementOrdersNotified();
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_SUCCESS, OrderStatus.NOTIFIED);
+            event.finish(OrderMetrics.OUTCOME_SUCCESS, updatedOrder);
+            orderMetrics.recordTimeInState(OrderStatus.CALCULATED, OrderStatus.NOTIFIED,
+                    updatedOrder.getProcessedAt(), updatedOrder.getCompletedAt());
+            orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.NOTIFIED,
+                    updatedOrder.getCreatedAt(), updatedOrder.getCompletedAt());
+
+            return orderMapper.toDto(updatedOrder);
         } catch (Exception e) {
             log.error("Erro ao notificar sistema externo sobre pedido {}: {}", id, e.getMessage(), e);
 
-            if (order.getStatus() != OrderStatus.CALCULATED) {
-                order.setStatus(OrderStatus.ERROR);
-                orderRepository.save(order);
+            if (order.getStatus() != OrderStatus.CALCULATED
+                    && OrderStateMachine.canTransition(order.getStatus(), OrderStatus.ERROR)) {
+                saveAsErrored(order);
             }
+            orderMetrics.recordOrderNotificationTime(start, OrderMetrics.OUTCOME_ERROR, order.getStatus());
+            event.finish(OrderMetrics.OUTCOME_ERROR, order);
 
             throw new RuntimeException("Erro ao notificar sistema externo: " + e.getMessage(), e);
         }
@@ -291,18 +663,35 @@ public class OrderServiceImpl implements OrderService {
     }
 
     @Override
-    @Transactional
-    @Cacheable(value = "orders", key = "#id")
+    @Transactional(readOnly = true)
     public OrderDTO getOrderById(UUID id) {
-        return mapToDto(findOrderEntityById(id));
+        return orderCache.getById(id, this::loadOrderById);
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "orders", key = "#orderNumber")
     public OrderDTO getOrderByNumber(String orderNumber) {
+        return orderCache.getByNumber(orderNumber, this::loadOrderById, this::loadOrderByNumber);
+    }
+
+    private OrderDTO loadOrderById(UUID id) {
+        return orderRepository.findById(id)
+                .map(orderMapper::toDto)
+                .or(() -> orderArchiveService.findById(id))
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
+    }
+
+    private OrderDTO reloadOrderById(UUID id) {
+        return orderRepository.findWithItemsById(id)
+                .map(orderMapper::toDto)
+                .or(() -> orderArchiveService.findById(id))
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
+    }
+
+    private OrderDTO loadOrderByNumber(String orderNumber) {
         return orderRepository.findByOrderNumber(orderNumber)
-                .map(this::mapToDto)
+                .map(orderMapper::toDto)
+                .or(() -> orderArchiveService.findByOrderNumber(orderNumber))
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + orderNumber));
     }
 
@@ -311,94 +700,110 @@ public class OrderServiceImpl implements OrderService {
     public List<OrderDTO> listOrders(int page, int size, OrderStatus status) {
         int limitedSize = Math.min(size, 100);
 
-        if (status != null) {
-            return orderRepository.findByStatus(status, PageRequest.of(page, limitedSize))
-                    .stream()
-                    .map(this::mapToDto)
-                    .collect(Collectors.toList());
-        } else {
-            return orderRepository.findAll(PageRequest.of(page, limitedSize))
-                    .stream()
-                    .map(this::mapToDto)
-                    .collect(Collectors.toList());
-        }
+        Page<Order> orders = status != null
+                ? orderRepository.findByStatus(status, PageRequest.of(page, limitedSize))
+                : orderRepository.findAll(PageRequest.of(page, limitedSize));
+        return orderMapper.toDtos(orders.getContent());
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "orderStatuses", key = "#id")
     public OrderStatusDTO getOrderStatus(UUID id) {
-        Order order = findOrderEntityById(id);
-
-        OrderStatusDTO statusDTO = new OrderStatusDTO();
-        statusDTO.setId(order.getId());
-        statusDTO.setOrderNumber(order.getOrderNumber());
-        statusDTO.setStatus(order.getStatus());
-        statusDTO.setCreatedAt(order.getCreatedAt());
-        statusDTO.setProcessedAt(order.getProcessedAt());
-        statusDTO.setCompletedAt(order.getCompletedAt());
-        statusDTO.setTotalAmount(order.getTotalAmount());
-
-        return statusDTO;
+        return orderCache.getStatus(id, this::loadOrderStatus);
     }
 
-    private Order findOrderEntityById(UUID id) {
-        return orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
+    private OrderStatusDTO loadOrderStatus(UUID id) {
+        return orderMapper.toStatusDto(findOrderEntityById(id));
     }
 
-    @Transactional
-    protected void updateOrderStatus(UUID id) {
-        orderRepository.findById(id).ifPresent(order -> {
-            order.setStatus(OrderStatus.ERROR);
-            orderRepository.save(order);
-        });
-    }
-
-    private Order mapToEntity(OrderDTO dto) {
-        Order order = new Order();
-        order.setOrderNumber(dto.getOrderNumber());
-
-        if (dto.getItems() != null) {
-            for (OrderItemDTO itemDto : dto.getItems()) {
-                OrderItem item = new OrderItem();
-                item.setProductId(itemDto.getProductId());
-                item.setProductName(itemDto.getProductName());
-                item.setQuantity(itemDto.getQuantity());
-                item.setPrice(itemDto.getPrice() != null ? itemDto.getPrice() : BigDecimal.ZERO);
-                order.addItem(item);
+    /**
+     * Status de vários pedidos, por id e/ou número. O que está no cache de
+     * status é servido direto; as faltas são lidas com consultas IN de até
+     * {@link #STATUS_QUERY_CHUNK_SIZE} parâmetros e guardadas no cache. A
+     * resposta segue a ordem da requisição, sem repetições.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderStatusBatchResponseDTO getOrderStatuses(Collection<UUID> ids, Collection<String> orderNumbers) {
+        Map<UUID, OrderStatusDTO> byId = new HashMap<>();
+        Map<String, OrderStatusDTO> byNumber = new HashMap<>();
+        List<UUID> missingIds = new ArrayList<>();
+        List<String> missingNumbers = new ArrayList<>();
+
+        Collection<UUID> requestedIds = ids != null ? new LinkedHashSet<>(ids) : List.of();
+        Collection<String> requestedNumbers = orderNumbers != null ? new LinkedHashSet<>(orderNumbers) : List.of();
+
+        for (UUID id : requestedIds) {
+            OrderStatusDTO cached = orderCache.peekStatus(id);
+            if (cached != null) {
+                byId.put(id, cached);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        for (String orderNumber : requestedNumbers) {
+            UUID id = orderCache.peekId(orderNumber);
+            OrderStatusDTO cached = id != null ? orderCache.peekStatus(id) : null;
+            if (cached != null) {
+                byNumber.put(orderNumber, cached);
+            } else {
+                missingNumbers.add(orderNumber);
             }
         }
 
-        return order;
-    }
-
-    public OrderDTO mapToDto(Order entity) {
-        OrderDTO dto = new OrderDTO();
-        dto.setId(entity.getId());
-        dto.setOrderNumber(entity.getOrderNumber());
-        dto.setStatus(entity.getStatus());
-        dto.setCreatedAt(entity.getCreatedAt());
-        dto.setProcessedAt(entity.getProcessedAt());
-        dto.setCompletedAt(entity.getCompletedAt());
-        dto.setTotalAmount(entity.getTotalAmount());
+        List<OrderStatusDTO> loaded = new ArrayList<>(missingIds.size() + missingNumbers.size());
+        for (int from = 0; from < missingIds.size(); from += STATUS_QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + STATUS_QUERY_CHUNK_SIZE, missingIds.size());
+            loaded.addAll(orderRepository.findStatusesByIdIn(missingIds.subList(from, to)));
+        }
+        for (int from = 0; from < missingNumbers.size(); from += STATUS_QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + STATUS_QUERY_CHUNK_SIZE, missingNumbers.size());
+            loaded.addAll(orderRepository.findStatusesByOrderNumberIn(missingNumbers.subList(from, to)));
+        }
+        orderCache.putStatuses(loaded);
+        for (OrderStatusDTO status : loaded) {
+            byId.put(status.getId(), status);
+            byNumber.put(status.getOrderNumber(), status);
+        }
 
-        if (entity.getItems() != null) {
-            dto.setItems(entity.getItems().stream()
-                    .map(this::mapToItemDto)
-                    .collect(Collectors.toList()));
+        Map<UUID, OrderStatusDTO> statuses = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+        for (UUID id : requestedIds) {
+            OrderStatusDTO status = byId.get(id);
+            if (status != null) {
+                statuses.putIfAbsent(id, status);
+            } else {
+                notFound.add(id.toString());
+            }
+        }
+        for (String orderNumber : requestedNumbers) {
+            OrderStatusDTO status = byNumber.get(orderNumber);
+            if (status != null) {
+                statuses.putIfAbsent(status.getId(), status);
+            } else {
+                notFound.add(orderNumber);
+            }
         }
 
-        return dto;
+        log.debug("Status em lote: {} solicitados, {} do banco, {} não encontrados",
+                requestedIds.size() + requestedNumbers.size(), loaded.size(), notFound.size());
+        return new OrderStatusBatchResponseDTO(new ArrayList<>(statuses.values()), notFound);
     }
 
-    private OrderItemDTO mapToItemDto(OrderItem entity) {
-        OrderItemDTO dto = new OrderItemDTO();
-        dto.setId(entity.getId());
-        dto.setProductId(entity.getProductId());
-        dto.setProductName(entity.getProductName());
-        dto.setQuantity(entity.getQuantity());
-        dto.setPrice(entity.getPrice());
-        return dto;
+    private Order findOrderEntityById(UUID id) {
+        return orderRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Pedido não encontrado: " + id));
+    }
+
+    /**
+     * Marca ERROR sem carregar o pedido, se ainda estiver em um status que o
+     * permite, e agenda a próxima tentativa.
+     */
+    protected void updateOrderStatus(UUID id) {
+        Map<UUID, LocalDateTime> errored = orderStateMachine.markErrored(id);
+        if (errored.containsKey(id)) {
+            orderMetrics.incrementOrdersError();
+            orderRetryScheduler.scheduleRecovery(id, errored.get(id));
+        }
     }
 }
@@ -0,0 +1,282 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderRepositoryCustom.ErroredStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transições válidas de {@link OrderStatus}:
+ * <pre>
+ * RECEIVED   → PROCESSING, CALCULATED, ERROR
+ * PROCESSING → CALCULATED, ERROR
+ * CALCULATED → NOTIFIED, ERROR
+ * NOTIFIED   → COMPLETED
+ * ERROR      → RECEIVED (reprocessamento)
+ * </pre>
+ *
+ * Mudanças só de status são gravadas sem carregar a entidade, por um UPDATE
+ * condicionado ao status de origem
+ * ({@code UPDATE ... SET status = :to WHERE id IN (:ids) AND status IN (:from)}):
+ * entre execuções concorrentes só uma vence, e a outra recebe {@code false}.
+ * O UPDATE devolve o status gravado de cada pedido que mudou, que após o
+ * commit vai para o {@link OrderCache} e avisa os assinantes
+ * ({@code OrderStatusChangedEvent}) sem reler o banco. Os fluxos que regravam o
+ * pedido inteiro (preços, datas) usam {@link #apply(Order, OrderStatus)} na
+ * entidade já carregada e continuam protegidos pela versão.
+ *
+ * Toda entrada em ERROR grava o vencimento da próxima tentativa
+ * ({@link #nextRetryAt}): {@code retryBackoff · 2^n} com variação aleatória
+ * de ±{@code retryJitter}, sorteada por pedido, para que pedidos que
+ * falharam juntos não voltem todos no mesmo instante. Depois de
+ * {@code maxRetries} tentativas o vencimento fica nulo.
+ */
+@Component
+@Slf4j
+public class OrderStateMachine {
+
+    /** Parâmetros por UPDATE ... IN das transições em lote. */
+    static final int BULK_CHUNK_SIZE = 1000;
+
+    private static final Map<OrderStatus, Set<OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        allow(OrderStatus.RECEIVED, OrderStatus.PROCESSING, OrderStatus.CALCULATED, OrderStatus.ERROR);
+        allow(OrderStatus.PROCESSING, OrderStatus.CALCULATED, OrderStatus.ERROR);
+        allow(OrderStatus.CALCULATED, OrderStatus.NOTIFIED, OrderStatus.ERROR);
+        allow(OrderStatus.NOTIFIED, OrderStatus.COMPLETED);
+        allow(OrderStatus.ERROR, OrderStatus.RECEIVED);
+    }
+
+    private final OrderRepository orderRepository;
+    private final OrderCache orderCache;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final double retryJitter;
+
+    public OrderStateMachine(OrderRepository orderRepository, OrderCache orderCache,
+                             @Value("${app.scheduler.retry-limit:3}") int maxRetries,
+                             @Value("${app.scheduler.retry-backoff:1m}") Duration retryBackoff,
+                             @Value("${app.scheduler.retry-backoff-max:1h}") Duration maxRetryBackoff,
+                             @Value("${app.scheduler.retry-jitter:0.2}") double retryJitter) {
+        this.orderRepository = orderRepository;
+        this.orderCache = orderCache;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.retryJitter = retryJitter;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public static boolean canTransition(OrderStatus from, OrderStatus to) {
+        return TRANSITIONS.getOrDefault(from, Collections.emptySet()).contains(to);
+    }
+
+    /** Status a partir dos quais {@code to} é alcançável. */
+    public static Set<OrderStatus> sourcesOf(OrderStatus to) {
+        return SOURCES.getOrDefault(to, Collections.emptySet());
+    }
+
+    /**
+     * Valida e aplica a transição na entidade carregada, sem gravar. Manter o
+     * status atual é permitido.
+     *
+     * @throws IllegalStateException se a transição não é válida
+     */
+    public static void apply(Order order, OrderStatus to) {
+        OrderStatus from = order.getStatus();
+        if (from != to && !canTransition(from, to)) {
+            throw new IllegalStateException("Transição inválida do pedido " + order.getId() + ": " + from + " -> " + to);
+        }
+        order.setStatus(to);
+    }
+
+    /** {@code from → to} se o pedido ainda está em {@code from}. */
+    public boolean transition(UUID id, OrderStatus from, OrderStatus to) {
+        return execute(List.of(id), checked(EnumSet.of(from), to), to) > 0;
+    }
+
+    /** Para {@code to} a partir de qualquer status que o permita. */
+    public boolean transition(UUID id, OrderStatus to) {
+        return execute(List.of(id), sourcesOf(to), to) > 0;
+    }
+
+    /**
+     * {@code from → to} para os pedidos que ainda estão em {@code from}, em
+     * UPDATEs de até {@value #BULK_CHUNK_SIZE} ids.
+     *
+     * @return quantos pedidos mudaram de status
+     */
+    public int transitionAll(Collection<UUID> ids, OrderStatus from, OrderStatus to) {
+        return execute(ids, checked(EnumSet.of(from), to), to);
+    }
+
+    /**
+     * Para ERROR a partir de qualquer status que o permita, agendando a
+     * próxima tentativa.
+     *
+     * @return o vencimento gravado, se o pedido mudou para ERROR (nulo se as
+     *         tentativas se esgotaram); vazio se ele já não estava num status
+     *         que permite a transição
+     */
+    public Map<UUID, LocalDateTime> markErrored(UUID id) {
+        return markErrored(List.of(id), sourcesOf(OrderStatus.ERROR));
+    }
+
+    /**
+     * {@code from → ERROR} para os pedidos que ainda estão em {@code from},
+     * agendando a próxima tentativa de cada um.
+     *
+     * @return os pedidos que mudaram para ERROR, com o vencimento gravado
+     *         (nulo se as tentativas se esgotaram)
+     */
+    public Map<UUID, LocalDateTime> markErrored(Collection<UUID> ids, OrderStatus from) {
+        return markErrored(ids, checked(EnumSet.of(from), OrderStatus.ERROR));
+    }
+
+    /**
+     * ERROR → RECEIVED incrementando {@code retryCount}, para os pedidos cuja
+     * próxima tentativa já venceu e que serão reprocessados.
+     *
+     * @return os pedidos que voltaram para RECEIVED
+     */
+    public List<UUID> requeue(Collection<UUID> ids) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UUID> requeued = new ArrayList<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            requeued.addAll(publish(orderRepository.requeueErrored(chunk, now)));
+        }
+        log.debug("Transição ERROR -> RECEIVED: {} de {} pedidos", requeued.size(), ids.size());
+        return requeued;
+    }
+
+    /**
+     * Reivindica um lote de até {@code limit} pedidos em ERROR cuja próxima
+     * tentativa já venceu e os devolve para RECEIVED, em uma transação.
+     * Instâncias concorrentes recebem lotes disjuntos.
+     *
+     * @return os pedidos reivindicados, a serem reprocessados por quem chamou
+     */
+    public List<UUID> requeueDue(int limit) {
+        List<UUID> claimed = publish(orderRepository.requeueDueErrored(LocalDateTime.now(), maxRetries, limit));
+        log.debug("Transição ERROR -> RECEIVED: {} pedidos com tentativa vencida", claimed.size());
+        return claimed;
+    }
+
+    /**
+     * Vencimento da próxima tentativa de um pedido que falhou depois de
+     * {@code retries} tentativas, ou {@code null} se elas se esgotaram.
+     */
+    public LocalDateTime nextRetryAt(int retries, LocalDateTime now) {
+        return retries < maxRetries ? now.plus(retryDelay(retries)) : null;
+    }
+
+    /**
+     * Espera antes da tentativa seguinte a {@code retries} tentativas:
+     * {@code retryBackoff · 2^retries}, limitada a {@code maxRetryBackoff},
+     * com variação aleatória de ±{@code retryJitter}.
+     */
+    public Duration retryDelay(int retries) {
+        Duration backoff = retryBackoff;
+        for (int i = 0; i < retries && backoff.compareTo(maxRetryBackoff) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        if (retryJitter <= 0) {
+            return backoff;
+        }
+        double factor = 1 + retryJitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis(Math.round(backoff.toMillis() * factor));
+    }
+
+    private int execute(Collection<UUID> ids, Set<OrderStatus> from, OrderStatus to) {
+        if (to == OrderStatus.ERROR) {
+            return markErrored(ids, from).size();
+        }
+        if (ids.isEmpty() || from.isEmpty()) {
+            return 0;
+        }
+        int updated = 0;
+        for (List<UUID> chunk : chunks(ids)) {
+            updated += publish(orderRepository.transitionStatus(chunk, from, to)).size();
+        }
+        log.debug("Transição {} -> {}: {} de {} pedidos", from, to, updated, ids.size());
+        return updated;
+    }
+
+    private Map<UUID, LocalDateTime> markErrored(Collection<UUID> ids, Set<OrderStatus> from) {
+        if (ids.isEmpty() || from.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<UUID, LocalDateTime> errored = new LinkedHashMap<>();
+        for (List<UUID> chunk : chunks(ids)) {
+            List<ErroredStatus> changed = orderRepository.markErrored(chunk, from, retries -> nextRetryAt(retries, now));
+            List<OrderStatusDTO> statuses = new ArrayList<>(changed.size());
+            for (ErroredStatus row : changed) {
+                statuses.add(row.status());
+                errored.put(row.status().getId(), row.nextRetryAt());
+            }
+            publish(statuses);
+        }
+        log.debug("Transição {} -> ERROR: {} de {} pedidos", from, errored.size(), ids.size());
+        return errored;
+    }
+
+    private List<UUID> publish(List<OrderStatusDTO> changed) {
+        orderCache.putStatusChanges(changed);
+        return changed.stream().map(OrderStatusDTO::getId).toList();
+    }
+
+    private static Set<OrderStatus> checked(Set<OrderStatus> from, OrderStatus to) {
+        for (OrderStatus status : from) {
+            if (!canTransition(status, to)) {
+                throw new IllegalArgumentException("Transição inválida: " + status + " -> " + to);
+            }
+        }
+        return from;
+    }
+
+    private static List<List<UUID>> chunks(Collection<UUID> ids) {
+        List<UUID> all = ids instanceof List<UUID> list ? list : new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>((all.size() + BULK_CHUNK_SIZE - 1) / BULK_CHUNK_SIZE);
+        for (int from = 0; from < all.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + BULK_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static void allow(OrderStatus from, OrderStatus... to) {
+        Set<OrderStatus> targets = EnumSet.noneOf(OrderStatus.class);
+        Collections.addAll(targets, to);
+        TRANSITIONS.put(from, Collections.unmodifiableSet(targets));
+        for (OrderStatus target : to) {
+            SOURCES.computeIfAbsent(target, key -> EnumSet.noneOf(OrderStatus.class)).add(from);
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.exception.SubscriptionLimitExceededException;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.service.OrderResponseCache.CachedResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Assinaturas de mudança de status de pedidos, via SSE ou long-poll, para
+ * que o cliente mantenha uma conexão por pedido em vez de consultar o status
+ * em laço.
+ *
+ * Alimentadas por {@link OrderStatusChangedEvent}, publicado após o commit
+ * de cada transição; a entrega é feita no executor {@code statusStreamExecutor}
+ * para que um cliente lento não segure a thread da transição. O total de
+ * conexões e as conexões por pedido são limitados. Streams recebem heartbeat
+ * periódico, que também descarta clientes desconectados, e são encerrados
+ * quando o pedido chega a um estado final.
+ */
+@Component
+@Slf4j
+public class OrderStatusSubscriptions {
+
+    /** Estados após os quais o pedido não muda mais no fluxo normal. */
+    static final Set<OrderStatus> FINAL_STATUSES = EnumSet.of(OrderStatus.NOTIFIED, OrderStatus.COMPLETED);
+
+    private final OrderService orderService;
+    private final OrderResponseCache responseCache;
+    private final Executor executor;
+    private final TaskScheduler taskScheduler;
+
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger activeSubscribers = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    @Value("${app.status-stream.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${app.status-stream.max-per-order:20}")
+    private int maxPerOrder;
+
+    @Value("${app.status-stream.timeout:5m}")
+    private Duration streamTimeout;
+
+    @Value("${app.status-stream.max-wait:60s}")
+    private Duration maxWait;
+
+    @Value("${app.status-stream.heartbeat:15s}")
+    private Duration heartbeat;
+
+    @Value("${app.status-stream.retry-after:5s}")
+    private Duration retryAfter;
+
+    public OrderStatusSubscriptions(OrderService orderService,
+                                    OrderResponseCache responseCache,
+                                    @Qualifier("statusStreamExecutor") Executor executor,
+                                    TaskScheduler taskScheduler,
+                                    MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.responseCache = responseCache;
+        this.executor = executor;
+        this.taskScheduler = taskScheduler;
+
+        Gauge.builder("orders.status.subscriptions", activeSubscribers, AtomicInteger::get)
+                .description("Conexões abertas de acompanhamento de status (SSE e long-poll)")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("orders.status.subscriptions.rejected")
+                .description("Assinaturas de status recusadas por limite de conexões")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void scheduleHeartbeat() {
+        taskScheduler.scheduleAtFixedRate(this::sendHeartbeats, heartbeat);
+    }
+
+    /**
+     * Abre um stream SSE com o status atual e cada mudança seguinte (evento
+     * {@code status}, id = versão do pedido). O stream é encerrado pelo
+     * servidor quando o pedido chega a NOTIFIED ou COMPLETED.
+     */
+    public SseEmitter stream(UUID orderId) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        StreamSubscriber subscriber = new StreamSubscriber(orderId, emitter);
+        register(subscriber);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        // lido depois do registro: uma transição concorrente não é perdida
+        try {
+            subscriber.onStatus(orderService.getOrderStatus(orderId));
+        } catch (RuntimeException e) {
+            unregister(subscriber);
+            throw e;
+        }
+        return emitter;
+    }
+
+    /**
+     * Long-poll: completa assim que o pedido chega a {@code waitFor} (ou a um
+     * estado posterior do fluxo) ou, ao fim de {@code timeout}, com o status
+     * atual. ERROR só libera quem espera por ERROR, já que o pedido ainda é
+     * reprocessado pelo agendador.
+     */
+    public CompletableFuture<CachedResponse> awaitStatus(UUID orderId, OrderStatus waitFor, Duration timeout) {
+        StatusWaiter waiter = new StatusWaiter(orderId, waitFor);
+        register(waiter);
+        waiter.result.whenComplete((response, error) -> unregister(waiter));
+
+        try {
+            waiter.onStatus(orderService.getOrderStatus(orderId));
+        } catch (RuntimeException e) {
+            unregister(waiter);
+            throw e;
+        }
+
+        if (!waiter.result.isDone()) {
+            Duration wait = timeout.isNegative() ? Duration.ZERO : timeout.compareTo(maxWait) > 0 ? maxWait : timeout;
+            ScheduledFuture<?> timer = taskScheduler.schedule(waiter::complete, Instant.now().plus(wait));
+            waiter.result.whenComplete((response, error) -> timer.cancel(false));
+        }
+        return waiter.result;
+    }
+
+    @EventListener
+    public void onStatusChanged(OrderStatusChangedEvent event) {
+        Set<Subscriber> current = subscribers.get(event.orderId());
+        if (current == null) {
+            return;
+        }
+        for (Subscriber subscriber : current) {
+            executor.execute(() -> subscriber.onStatus(event.status()));
+        }
+    }
+
+    int activeSubscribers() {
+        return activeSubscribers.get();
+    }
+
+    void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber instanceof StreamSubscriber stream) {
+                executor.execute(stream::heartbeat);
+            }
+        }));
+    }
+
+    static boolean reached(OrderStatus current, OrderStatus target) {
+        if (current == target) {
+            return true;
+        }
+        return current != OrderStatus.ERROR && target != OrderStatus.ERROR
+                && current.ordinal() > target.ordinal();
+    }
+
+    private void register(Subscriber subscriber) {
+        if (activeSubscribers.incrementAndGet() > maxConnections) {
+            activeSubscribers.decrementAndGet();
+            reject("Limite de conexões de status atingido: " + maxConnections);
+        }
+
+        boolean[] accepted = new boolean[1];
+        subscribers.compute(subscriber.orderId(), (key, set) -> {
+            Set<Subscriber> current = set != null ? set : ConcurrentHashMap.newKeySet();
+            if (current.size() < maxPerOrder) {
+                accepted[0] = current.add(subscriber);
+            }
+            return current.isEmpty() ? null : current;
+        });
+
+        if (!accepted[0]) {
+            activeSubscribers.decrementAndGet();
+            reject("Limite de conexões de status por pedido atingido: " + subscriber.orderId());
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.orderId(), (key, set) -> {
+            if (set.remove(subscriber)) {
+                activeSubscribers.decrementAndGet();
+            }
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void reject(String message) {
+        rejectedCounter.increment();
+        throw new SubscriptionLimitExceededException(message, retryAfter);
+    }
+
+    private interface Subscriber {
+        UUID orderId();
+
+        void onStatus(OrderStatusDTO status);
+    }
+
+    private final class StreamSubscriber implements Subscriber {
+
+        private final UUID orderId;
+        private final SseEmitter emitter;
+        private Long lastVersion;
+        private boolean closed;
+
+        StreamSubscriber(UUID orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public UUID orderId() {
+            return orderId;
+        }
+
+        /** Envia o status se for mais novo que o último enviado. */
+        @Override
+        public synchronized void onStatus(OrderStatusDTO status) {
+            Long version = status.getVersion();
+            if (closed || (lastVersion != null && version != null && version <= lastVersion)) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(version))
+                        .name("status")
+                        .data(status, MediaType.APPLICATION_JSON));
+                lastVersion = version;
+                if (FINAL_STATUSES.contains(status.getStatus())) {
+                    close();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Cliente de status do pedido {} desconectado: {}", orderId, e.getMessage());
+                close();
+            }
+        }
+
+        synchronized void heartbeat() {
+            if (closed) {
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Cliente de status do pedido {} desconectado: {}", orderId, e.getMessage());
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            unregister(this);
+        }
+    }
+
+    private final class StatusWaiter implements Subscriber {
+
+        private final UUID orderId;
+        private final OrderStatus waitFor;
+        private final CompletableFuture<CachedResponse> result = new CompletableFuture<>();
+
+        StatusWaiter(UUID orderId, OrderStatus waitFor) {
+            this.orderId = orderId;
+            this.waitFor = waitFor;
+        }
+
+        @Override
+        public UUID orderId() {
+            return orderId;
+        }
+
+        @Override
+        public void onStatus(OrderStatusDTO status) {
+            if (reached(status.getStatus(), waitFor)) {
+                complete();
+            }
+        }
+
+        /** Responde com o status atual, no mesmo formato e ETag do GET. */
+        void complete() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(responseCache.status(orderId));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
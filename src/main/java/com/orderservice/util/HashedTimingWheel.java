@@ -0,0 +1,138 @@
+package com.orderservice.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Roda de temporização com hash (Varghese e Lauck): um vetor circular de
+ * {@code ticksPerWheel} posições, cada uma com as tarefas que vencem naquele
+ * tick em alguma volta da roda. Agendar e cancelar custam O(1); a cada tick
+ * só a posição corrente é percorrida, e as tarefas que ainda têm voltas pela
+ * frente ficam onde estão.
+ *
+ * Nenhuma thread espera pelas tarefas: quem chama {@link #expire()} a cada
+ * tick recebe as vencidas e decide onde executá-las. A precisão é de um
+ * tick, sempre para mais. Há no máximo uma tarefa por chave; agendar de novo
+ * substitui a anterior.
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<ArrayDeque<Timeout<K>>> buckets;
+    private final Map<K, Timeout<K>> pending = new HashMap<>();
+    private final LongSupplier nanoClock;
+    private final long startNanos;
+
+    /** Último tick já percorrido. */
+    private long currentTick;
+
+    public HashedTimingWheel(Duration tickDuration, int ticksPerWheel) {
+        this(tickDuration, ticksPerWheel, System::nanoTime);
+    }
+
+    HashedTimingWheel(Duration tickDuration, int ticksPerWheel, LongSupplier nanoClock) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("Duração do tick deve ser positiva: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Número de posições deve ser positivo: " + ticksPerWheel);
+        }
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+        this.nanoClock = nanoClock;
+        this.startNanos = nanoClock.getAsLong();
+    }
+
+    /** Agenda {@code task} para daqui a {@code delay}, substituindo a tarefa já agendada para {@code key}. */
+    public synchronized void schedule(K key, Duration delay, Runnable task) {
+        long delayNanos = Math.max(0, delay.toNanos());
+        long ticks = Math.max(1, (delayNanos + tickNanos - 1) / tickNanos);
+        long deadline = Math.max(elapsedTicks(), currentTick) + ticks;
+
+        Timeout<K> timeout = new Timeout<>(key, deadline, task);
+        Timeout<K> previous = pending.put(key, timeout);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        buckets.get((int) (deadline & mask)).add(timeout);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = pending.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.cancelled = true;
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return pending.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Avança a roda até o tick atual e devolve as tarefas vencidas, na ordem
+     * dos ticks. Ticks perdidos (chamador atrasado) são percorridos juntos,
+     * no máximo uma volta.
+     */
+    public synchronized List<Runnable> expire() {
+        long targetTick = elapsedTicks();
+        if (targetTick <= currentTick) {
+            return List.of();
+        }
+        long ticks = Math.min(targetTick - currentTick, buckets.size());
+        List<Runnable> expired = new ArrayList<>();
+        for (long tick = currentTick + 1; tick <= currentTick + ticks; tick++) {
+            Iterator<Timeout<K>> iterator = buckets.get((int) (tick & mask)).iterator();
+            while (iterator.hasNext()) {
+                Timeout<K> timeout = iterator.next();
+                if (timeout.cancelled) {
+                    iterator.remove();
+                } else if (timeout.deadline <= targetTick) {
+                    iterator.remove();
+                    pending.remove(timeout.key, timeout);
+                    expired.add(timeout.task);
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    private long elapsedTicks() {
+        return (nanoClock.getAsLong() - startNanos) / tickNanos;
+    }
+
+    private static final class Timeout<K> {
+
+        private final K key;
+        private final long deadline;
+        private final Runnable task;
+        private boolean cancelled;
+
+        Timeout(K key, long deadline, Runnable task) {
+            this.key = key;
+            this.deadline = deadline;
+            this.task = task;
+        }
+    }
+}
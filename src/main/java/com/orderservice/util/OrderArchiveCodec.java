@@ -0,0 +1,237 @@
+package com.orderservice.util;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Formato binário colunar dos segmentos de arquivo de pedidos.
+ *
+ * Um segmento guarda cada atributo em uma coluna contígua (todos os ids,
+ * depois todos os números, todos os status...) e os itens em colunas
+ * próprias, com dicionário para productId/productName. Colunas homogêneas
+ * comprimem muito melhor com GZIP do que registros intercalados.
+ * O chamador é responsável pela compressão do stream.
+ */
+public final class OrderArchiveCodec {
+
+    private static final int MAGIC = 0x4F415243; // "OARC"
+    private static final int VERSION = 1;
+    private static final long NULL_TIMESTAMP = Long.MIN_VALUE;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private OrderArchiveCodec() {
+    }
+
+    public static void write(List<Order> orders, DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(orders.size());
+
+        for (Order order : orders) {
+            writeUuid(order.getId(), out);
+        }
+        for (Order order : orders) {
+            out.writeUTF(order.getOrderNumber());
+        }
+        for (Order order : orders) {
+            out.writeByte(order.getStatus().ordinal());
+        }
+        for (Order order : orders) {
+            writeTimestamp(order.getCreatedAt(), out);
+        }
+        for (Order order : orders) {
+            writeTimestamp(order.getProcessedAt(), out);
+        }
+        for (Order order : orders) {
+            writeTimestamp(order.getCompletedAt(), out);
+        }
+        for (Order order : orders) {
+            writeDecimal(order.getTotalAmount(), out);
+        }
+
+        List<OrderItem> items = new ArrayList<>();
+        for (Order order : orders) {
+            out.writeInt(order.getItems().size());
+            items.addAll(order.getItems());
+        }
+
+        for (OrderItem item : items) {
+            writeUuid(item.getId(), out);
+        }
+        writeDictionaryColumn(items.stream().map(OrderItem::getProductId).toList(), out);
+        writeDictionaryColumn(items.stream().map(OrderItem::getProductName).toList(), out);
+        for (OrderItem item : items) {
+            out.writeInt(item.getQuantity());
+        }
+        for (OrderItem item : items) {
+            writeDecimal(item.getPrice(), out);
+        }
+    }
+
+    public static List<OrderDTO> read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Segmento de arquivo inválido");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Versão de segmento não suportada: " + version);
+        }
+
+        int count = in.readInt();
+        List<OrderDTO> orders = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            OrderDTO dto = new OrderDTO();
+            dto.setId(readUuid(in));
+            orders.add(dto);
+        }
+        for (OrderDTO dto : orders) {
+            dto.setOrderNumber(in.readUTF());
+        }
+        for (OrderDTO dto : orders) {
+            dto.setStatus(STATUSES[in.readByte()]);
+        }
+        for (OrderDTO dto : orders) {
+            dto.setCreatedAt(readTimestamp(in));
+        }
+        for (OrderDTO dto : orders) {
+            dto.setProcessedAt(readTimestamp(in));
+        }
+        for (OrderDTO dto : orders) {
+            dto.setCompletedAt(readTimestamp(in));
+        }
+        for (OrderDTO dto : orders) {
+            dto.setTotalAmount(readDecimal(in));
+        }
+
+        int[] itemCounts = new int[count];
+        int totalItems = 0;
+        for (int i = 0; i < count; i++) {
+            itemCounts[i] = in.readInt();
+            totalItems += itemCounts[i];
+        }
+
+        List<OrderItemDTO> items = new ArrayList<>(totalItems);
+        for (int i = 0; i < totalItems; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setId(readUuid(in));
+            items.add(item);
+        }
+        List<String> productIds = readDictionaryColumn(totalItems, in);
+        List<String> productNames = readDictionaryColumn(totalItems, in);
+        for (int i = 0; i < totalItems; i++) {
+            OrderItemDTO item = items.get(i);
+            item.setProductId(productIds.get(i));
+            item.setProductName(productNames.get(i));
+            item.setQuantity(in.readInt());
+        }
+        for (OrderItemDTO item : items) {
+            item.setPrice(readDecimal(in));
+        }
+
+        int offset = 0;
+        for (int i = 0; i < count; i++) {
+            orders.get(i).setItems(new ArrayList<>(items.subList(offset, offset + itemCounts[i])));
+            offset += itemCounts[i];
+        }
+        return orders;
+    }
+
+    private static void writeDictionaryColumn(List<String> values, DataOutputStream out) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] codes = new int[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            if (value == null) {
+                codes[i] = -1;
+                continue;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                code = entries.size();
+                dictionary.put(value, code);
+                entries.add(value);
+            }
+            codes[i] = code;
+        }
+
+        out.writeInt(entries.size());
+        for (String entry : entries) {
+            out.writeUTF(entry);
+        }
+        for (int code : codes) {
+            out.writeInt(code);
+        }
+    }
+
+    private static List<String> readDictionaryColumn(int size, DataInputStream in) throws IOException {
+        int dictionarySize = in.readInt();
+        String[] entries = new String[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            entries[i] = in.readUTF();
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int code = in.readInt();
+            values.add(code < 0 ? null : entries[code]);
+        }
+        return values;
+    }
+
+    private static void writeUuid(UUID uuid, DataOutputStream out) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeTimestamp(LocalDateTime timestamp, DataOutputStream out) throws IOException {
+        if (timestamp == null) {
+            out.writeLong(NULL_TIMESTAMP);
+            return;
+        }
+        out.writeLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(timestamp.getNano());
+    }
+
+    private static LocalDateTime readTimestamp(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        if (seconds == NULL_TIMESTAMP) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static void writeDecimal(BigDecimal value, DataOutputStream out) throws IOException {
+        BigDecimal decimal = value != null ? value : BigDecimal.ZERO;
+        byte[] unscaled = decimal.unscaledValue().toByteArray();
+        out.writeByte(decimal.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        byte[] unscaled = new byte[in.readUnsignedByte()];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
@@ -2,6 +2,7 @@ package com.orderservice.util;
 
 import com.orderservice.dto.OrderDTO;
 import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.jfr.DuplicateCheckEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CachePut;
@@ -21,6 +22,10 @@ import java.util.concurrent.ConcurrentMap;
 @Slf4j
 public class OrderDuplicateChecker {
 
+    private static final String SOURCE_BUFFER = "buffer";
+    private static final String SOURCE_CACHE = "cache";
+    private static final String SOURCE_NONE = "none";
+
     private final ConcurrentMap<String, Boolean> recentOrderNumbers = new ConcurrentHashMap<>(10000);
     private final ConcurrentMap<String, Boolean> recentOrderHashes = new ConcurrentHashMap<>(10000);
 
@@ -32,21 +37,22 @@ public class OrderDuplicateChecker {
     }
 
     public boolean isOrderNumberDuplicate(String orderNumber) {
+        DuplicateCheckEvent event = DuplicateCheckEvent.start(DuplicateCheckEvent.NUMBER);
         if (recentOrderNumbers.containsKey(orderNumber)) {
             log.info("Pedido duplicado detectado (buffer em memória): {}", orderNumber);
-            return true;
+            return event.finish(SOURCE_BUFFER, true);
         }
 
         Boolean exists = self.checkOrderNumberCache(orderNumber);
         if (exists != null && exists) {
             addToRecentOrderNumbers(orderNumber);
             log.info("Pedido duplicado detectado (cache): {}", orderNumber);
-            return true;
+            return event.finish(SOURCE_CACHE, true);
         }
 
         addToRecentOrderNumbers(orderNumber);
         self.markOrderNumberAsProcessed(orderNumber);
-        return false;
+        return event.finish(SOURCE_NONE, false);
     }
 
     public boolean isOrderContentDuplicate(OrderDTO orderDTO) {
@@ -54,25 +60,26 @@ public class OrderDuplicateChecker {
             return false;
         }
 
+        DuplicateCheckEvent event = DuplicateCheckEvent.start(DuplicateCheckEvent.CONTENT);
         String hash = calculateOrderHash(orderDTO);
         if (recentOrderHashes.containsKey(hash)) {
             log.info("Conteúdo de pedido duplicado detectado (buffer em memória)");
-            return true;
+            return event.finish(SOURCE_BUFFER, true);
         }
 
         Boolean exists = self.checkOrderHashCache(hash);
         if (exists != null && exists) {
             addToRecentOrderHashes(hash);
             log.info("Conteúdo de pedido duplicado detectado (cache)");
-            return true;
+            return event.finish(SOURCE_CACHE, true);
         }
 
         addToRecentOrderHashes(hash);
         self.markOrderHashAsProcessed(hash);
-        return false;
+        return event.finish(SOURCE_NONE, false);
     }
 
-    @Cacheable(value = "orderNumbers", cacheManager = "duplicateCheckCacheManager", unless = "#result == null")
+    @Cacheable(value = "orderNumbers", cacheManager = "duplicateCheckCacheManager", sync = true)
     public Boolean checkOrderNumberCache(String orderNumber) {
         return false;
     }
@@ -82,7 +89,7 @@ public class OrderDuplicateChecker {
         return true;
     }
 
-    @Cacheable(value = "orderHashes", cacheManager = "duplicateCheckCacheManager", unless = "#result == null")
+    @Cacheable(value = "orderHashes", cacheManager = "duplicateCheckCacheManager", sync = true)
     public Boolean checkOrderHashCache(String hash) {
         return false;
     }
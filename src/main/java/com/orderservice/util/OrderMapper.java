@@ -0,0 +1,115 @@
+package com.orderservice.util;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.integration.dto.ExternalOrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conversões entre a entidade {@link Order} e os DTOs da API e do sistema
+ * externo B. Um pedido é mapeado de duas a quatro vezes por requisição
+ * (retorno, cache após o commit, notificação), então as listas são criadas
+ * já com o tamanho final e percorridas com laços simples, sem streams.
+ */
+@Component
+public class OrderMapper {
+
+    public Order toEntity(OrderDTO dto) {
+        Order order = new Order();
+        order.setOrderNumber(dto.getOrderNumber());
+
+        List<OrderItemDTO> items = dto.getItems();
+        if (items != null) {
+            for (int i = 0, size = items.size(); i < size; i++) {
+                OrderItemDTO itemDto = items.get(i);
+                OrderItem item = new OrderItem();
+                item.setProductId(itemDto.getProductId());
+                item.setProductName(itemDto.getProductName());
+                item.setQuantity(itemDto.getQuantity());
+                item.setPrice(itemDto.getPrice() != null ? itemDto.getPrice() : BigDecimal.ZERO);
+                order.addItem(item);
+            }
+        }
+
+        return order;
+    }
+
+    public OrderDTO toDto(Order entity) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(entity.getId());
+        dto.setOrderNumber(entity.getOrderNumber());
+        dto.setStatus(entity.getStatus());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setProcessedAt(entity.getProcessedAt());
+        dto.setCompletedAt(entity.getCompletedAt());
+        dto.setTotalAmount(entity.getTotalAmount());
+        dto.setVersion(entity.getVersion());
+
+        List<OrderItem> items = entity.getItems();
+        if (items != null) {
+            List<OrderItemDTO> itemDtos = new ArrayList<>(items.size());
+            for (OrderItem item : items) {
+                itemDtos.add(toItemDto(item));
+            }
+            dto.setItems(itemDtos);
+        }
+
+        return dto;
+    }
+
+    public List<OrderDTO> toDtos(List<Order> entities) {
+        List<OrderDTO> dtos = new ArrayList<>(entities.size());
+        for (Order entity : entities) {
+            dtos.add(toDto(entity));
+        }
+        return dtos;
+    }
+
+    public OrderItemDTO toItemDto(OrderItem entity) {
+        OrderItemDTO dto = new OrderItemDTO();
+        dto.setId(entity.getId());
+        dto.setProductId(entity.getProductId());
+        dto.setProductName(entity.getProductName());
+        dto.setQuantity(entity.getQuantity());
+        dto.setPrice(entity.getPrice());
+        return dto;
+    }
+
+    /** Só os campos de status, sem tocar nos itens (coleção lazy na entidade). */
+    public OrderStatusDTO toStatusDto(Order entity) {
+        OrderStatusDTO dto = new OrderStatusDTO();
+        dto.setId(entity.getId());
+        dto.setOrderNumber(entity.getOrderNumber());
+        dto.setStatus(entity.getStatus());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setProcessedAt(entity.getProcessedAt());
+        dto.setCompletedAt(entity.getCompletedAt());
+        dto.setTotalAmount(entity.getTotalAmount());
+        dto.setVersion(entity.getVersion());
+        return dto;
+    }
+
+    /** Payload enviado ao sistema externo B, sempre com o status {@code CALCULATED}. */
+    public ExternalOrderDTO toExternalOrder(Order entity) {
+        List<OrderItem> items = entity.getItems();
+        List<ExternalOrderDTO.ExternalOrderItemDTO> externalItems = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            externalItems.add(new ExternalOrderDTO.ExternalOrderItemDTO(
+                    item.getProductId(), item.getProductName(), item.getQuantity(), item.getPrice()));
+        }
+
+        ExternalOrderDTO dto = new ExternalOrderDTO();
+        dto.setOrderNumber(entity.getOrderNumber());
+        dto.setStatus("CALCULATED");
+        dto.setTotalAmount(entity.getTotalAmount());
+        dto.setItems(externalItems);
+        return dto;
+    }
+}
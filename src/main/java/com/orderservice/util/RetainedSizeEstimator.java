@@ -0,0 +1,175 @@
+package com.orderservice.util;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusDTO;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Estimativa do tamanho retido (bytes de heap) dos objetos guardados em
+ * cache, usada como peso no Caffeine para limitar os caches por memória e
+ * não por número de entradas.
+ *
+ * Assume a JVM 64 bits padrão com compressed oops (heap &lt; 32 GB):
+ * cabeçalho de 12 bytes, referências de 4 bytes e alinhamento de 8. Objetos
+ * compartilhados (enums, Boolean, Integer/Long de -128 a 127) não contam.
+ * A string que o {@link BigDecimal} guarda após ser serializado é incluída,
+ * já que todo DTO em cache acaba sendo serializado.
+ */
+public final class RetainedSizeEstimator {
+
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+
+    private static final long UUID_SIZE = align(OBJECT_HEADER + 2 * 8);
+    private static final long STRING_SIZE = align(OBJECT_HEADER + REFERENCE + 4 + 1 + 1);
+    private static final long BOXED_INT_SIZE = align(OBJECT_HEADER + 4);
+    private static final long BOXED_LONG_SIZE = align(OBJECT_HEADER + 8);
+    private static final long LOCAL_DATE_TIME_SIZE = align(OBJECT_HEADER + 2 * REFERENCE)
+            + align(OBJECT_HEADER + 4 + 2 + 2)
+            + align(OBJECT_HEADER + 4 + 3);
+    private static final long BIG_DECIMAL_SIZE = align(OBJECT_HEADER + 2 * REFERENCE + 2 * 4 + 8);
+    private static final long BIG_INTEGER_SIZE = align(OBJECT_HEADER + REFERENCE + 5 * 4);
+    private static final long LIST_SIZE = align(OBJECT_HEADER + REFERENCE + 2 * 4);
+    private static final long ORDER_DTO_SIZE = align(OBJECT_HEADER + 9 * REFERENCE);
+    private static final long ORDER_ITEM_DTO_SIZE = align(OBJECT_HEADER + 5 * REFERENCE);
+    private static final long ORDER_STATUS_DTO_SIZE = align(OBJECT_HEADER + 8 * REFERENCE);
+    private static final long UNKNOWN_SIZE = align(OBJECT_HEADER);
+
+    /** Maior valor long que cabe no campo compacto do {@link BigDecimal}. */
+    private static final int COMPACT_PRECISION = 18;
+
+    private RetainedSizeEstimator() {
+    }
+
+    /**
+     * Objetos que sabem estimar o próprio tamanho retido.
+     */
+    public interface Sized {
+        long retainedSize();
+    }
+
+    /**
+     * Peso de uma entrada de cache (chave + valor), limitado a {@code int}.
+     */
+    public static int weigh(Object key, Object value) {
+        return (int) Math.min(Integer.MAX_VALUE, estimate(key) + estimate(value));
+    }
+
+    public static long estimate(Object value) {
+        return switch (value) {
+            case null -> 0;
+            case OrderDTO dto -> estimate(dto);
+            case OrderStatusDTO dto -> estimate(dto);
+            case UUID ignored -> UUID_SIZE;
+            case String string -> estimate(string);
+            case byte[] bytes -> align(ARRAY_HEADER + bytes.length);
+            case Integer boxed -> boxed(boxed);
+            case Long boxed -> boxed(boxed);
+            case Sized sized -> sized.retainedSize();
+            case Boolean ignored -> 0;
+            case Enum<?> ignored -> 0;
+            default -> UNKNOWN_SIZE;
+        };
+    }
+
+    static long estimate(OrderDTO dto) {
+        long size = ORDER_DTO_SIZE
+                + uuid(dto.getId())
+                + estimate(dto.getOrderNumber())
+                + dateTime(dto.getCreatedAt())
+                + dateTime(dto.getProcessedAt())
+                + dateTime(dto.getCompletedAt())
+                + estimate(dto.getTotalAmount())
+                + boxed(dto.getVersion());
+
+        if (dto.getItems() != null) {
+            size += list(dto.getItems());
+            for (OrderItemDTO item : dto.getItems()) {
+                size += estimate(item);
+            }
+        }
+        return size;
+    }
+
+    static long estimate(OrderItemDTO item) {
+        if (item == null) {
+            return 0;
+        }
+        return ORDER_ITEM_DTO_SIZE
+                + uuid(item.getId())
+                + estimate(item.getProductId())
+                + estimate(item.getProductName())
+                + boxed(item.getQuantity())
+                + estimate(item.getPrice());
+    }
+
+    static long estimate(OrderStatusDTO dto) {
+        return ORDER_STATUS_DTO_SIZE
+                + uuid(dto.getId())
+                + estimate(dto.getOrderNumber())
+                + dateTime(dto.getCreatedAt())
+                + dateTime(dto.getProcessedAt())
+                + dateTime(dto.getCompletedAt())
+                + estimate(dto.getTotalAmount())
+                + boxed(dto.getVersion());
+    }
+
+    static long estimate(String string) {
+        if (string == null) {
+            return 0;
+        }
+        int bytesPerChar = 1;
+        for (int i = 0; i < string.length(); i++) {
+            if (string.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        return STRING_SIZE + align(ARRAY_HEADER + (long) string.length() * bytesPerChar);
+    }
+
+    static long estimate(BigDecimal value) {
+        if (value == null) {
+            return 0;
+        }
+        int precision = value.precision();
+        long size = BIG_DECIMAL_SIZE;
+        if (precision > COMPACT_PRECISION) {
+            int words = (value.unscaledValue().bitLength() + 31) / 32;
+            size += BIG_INTEGER_SIZE + align(ARRAY_HEADER + 4L * words);
+        }
+        // toString em cache: dígitos, sinal e ponto decimal (ou "0.")
+        int length = precision + (value.signum() < 0 ? 1 : 0) + (value.scale() > 0 ? 2 : 0);
+        return size + STRING_SIZE + align(ARRAY_HEADER + length);
+    }
+
+    private static long uuid(UUID id) {
+        return id != null ? UUID_SIZE : 0;
+    }
+
+    private static long dateTime(LocalDateTime dateTime) {
+        return dateTime != null ? LOCAL_DATE_TIME_SIZE : 0;
+    }
+
+    private static long list(Collection<?> items) {
+        return LIST_SIZE + align(ARRAY_HEADER + (long) REFERENCE * items.size());
+    }
+
+    private static long boxed(Integer value) {
+        return value == null || (value >= -128 && value <= 127) ? 0 : BOXED_INT_SIZE;
+    }
+
+    private static long boxed(Long value) {
+        return value == null || (value >= -128 && value <= 127) ? 0 : BOXED_LONG_SIZE;
+    }
+
+    public static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,5 @@
+-- Pedidos em ERROR com nova tentativa pendente, na ordem em que vencem. A
+-- busca do job de recuperação (status = 'ERROR' AND next_retry_at <= ?) vira
+-- uma varredura de intervalo neste índice, que só contém essas linhas.
+CREATE INDEX IF NOT EXISTS idx_orders_retry_due ON orders (next_retry_at)
+    WHERE status = 'ERROR' AND next_retry_at IS NOT NULL;
@@ -8,10 +8,14 @@ CREATE TABLE IF NOT EXISTS orders (
     total_amount DECIMAL(15, 2) NOT NULL,
     notified_to_external_b BOOLEAN NOT NULL DEFAULT FALSE,
     retry_count INT NOT NULL DEFAULT 0,
+    next_retry_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     version BIGINT,
     CONSTRAINT idx_orders_order_number UNIQUE (order_number)
 );
 
+-- bases criadas antes da coluna: pedidos existentes ficam elegíveis a partir de agora
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP;
+
 CREATE INDEX IF NOT EXISTS idx_orders_status ON orders (status);
 CREATE INDEX IF NOT EXISTS idx_orders_created_at ON orders (created_at);
 
@@ -26,3 +30,14 @@ CREATE TABLE IF NOT EXISTS order_items (
 );
 
 CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+CREATE TABLE IF NOT EXISTS order_purge_progress (
+    job_name VARCHAR(100) PRIMARY KEY,
+    cutoff TIMESTAMP NOT NULL,
+    last_order_id UUID,
+    orders_deleted BIGINT NOT NULL DEFAULT 0,
+    items_deleted BIGINT NOT NULL DEFAULT 0,
+    started_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    finished_at TIMESTAMP
+);
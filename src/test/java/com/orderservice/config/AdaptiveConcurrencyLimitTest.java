@@ -0,0 +1,111 @@
+package com.orderservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MILLIS = Duration.ofMillis(1).toNanos();
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondLimitUntilReleased() {
+        AdmissionProperties.Budget spec = budget(2);
+        spec.setMinLimit(1);
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(spec);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(10 * MILLIS, false);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void onSample_ShouldGrowAdditivelyWhileLatencyIsStableAndLimitIsUsed() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(budget(10));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, false, 10, now + i * MILLIS);
+        }
+
+        assertTrue(limit.getLimit() >= 15 && limit.getLimit() <= 20, "limite: " + limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldNotGrowWhenLimitIsUnused() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(budget(10));
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(10 * MILLIS, false, 1, now + i * MILLIS);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldBackOffMultiplicativelyWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(budget(100));
+        long now = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(10 * MILLIS, false, 1, now + i * MILLIS);
+        }
+
+        long later = now + Duration.ofSeconds(1).toNanos();
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(100 * MILLIS, false, 100, later + i * 100 * MILLIS);
+        }
+
+        assertTrue(limit.getLimit() < 50, "limite: " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    @Test
+    void onSample_ShouldBackOffOnlyOncePerBaselineWindow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(budget(100));
+        long now = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+        limit.onSample(10 * MILLIS, false, 1, now);
+
+        // rajada de falhas no mesmo instante: uma única redução
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(10 * MILLIS, true, 100, now + MILLIS);
+        }
+
+        assertEquals(90, limit.getLimit());
+    }
+
+    @Test
+    void onSample_ShouldNeverDropBelowMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(budget(10));
+        long now = System.nanoTime();
+
+        for (int i = 1; i <= 100; i++) {
+            limit.onSample(10 * MILLIS, true, 10, now + i * Duration.ofSeconds(1).toNanos());
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void getRetryAfterSeconds_ShouldRoundUpToWholeSeconds() {
+        AdmissionProperties.Budget spec = budget(10);
+        spec.setRetryAfter(Duration.ofMillis(1500));
+
+        assertEquals(2, new AdaptiveConcurrencyLimit(spec).getRetryAfterSeconds());
+    }
+
+    private static AdmissionProperties.Budget budget(int initialLimit) {
+        AdmissionProperties.Budget spec = new AdmissionProperties.Budget();
+        spec.setInitialLimit(initialLimit);
+        spec.setMinLimit(5);
+        spec.setMaxLimit(1000);
+        spec.setMaxLatency(Duration.ofMillis(500));
+        return spec;
+    }
+}
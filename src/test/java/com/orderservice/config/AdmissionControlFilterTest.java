@@ -0,0 +1,129 @@
+package com.orderservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getBudgets().put(AdmissionControlFilter.WRITES, budget(1));
+        properties.getBudgets().put(AdmissionControlFilter.STATUS, budget(1));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new AdmissionControlFilter(properties, meterRegistry);
+    }
+
+    @Test
+    void budgetOf_ShouldClassifyOrderEndpoints() {
+        assertEquals("writes", AdmissionControlFilter.budgetOf(request("POST", "/api/orders")));
+        assertEquals("writes", AdmissionControlFilter.budgetOf(request("POST", "/api/orders/1/process")));
+        assertEquals("status", AdmissionControlFilter.budgetOf(request("GET", "/api/orders/1/status")));
+        assertEquals("status", AdmissionControlFilter.budgetOf(request("GET", "/api/orders/number/ORD-1")));
+        assertEquals("status", AdmissionControlFilter.budgetOf(request("POST", "/api/orders/status:batchGet")));
+        assertEquals("listings", AdmissionControlFilter.budgetOf(request("GET", "/api/orders")));
+    }
+
+    @Test
+    void budgetOf_ShouldSkipLongPollStreamsAndOtherPaths() {
+        MockHttpServletRequest longPoll = request("GET", "/api/orders/1/status");
+        longPoll.setParameter("waitFor", "NOTIFIED");
+
+        assertNull(AdmissionControlFilter.budgetOf(longPoll));
+        assertNull(AdmissionControlFilter.budgetOf(request("GET", "/api/orders/1/status/stream")));
+        assertNull(AdmissionControlFilter.budgetOf(request("GET", "/actuator/health")));
+    }
+
+    @Test
+    void doFilter_ShouldRejectWithRetryAfterWhenBudgetIsExhausted() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        AtomicInteger reached = new AtomicInteger();
+        FilterChain blocking = (req, res) -> {
+            reached.incrementAndGet();
+            filter.doFilter(request("POST", "/api/orders"), rejected, (r, s) -> reached.incrementAndGet());
+        };
+
+        filter.doFilter(request("POST", "/api/orders"), new MockHttpServletResponse(), blocking);
+
+        assertEquals(1, reached.get());
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("http.admission.rejected").tag("budget", "writes").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldKeepBudgetsIndependent() throws Exception {
+        MockHttpServletResponse statusResponse = new MockHttpServletResponse();
+        AtomicInteger reached = new AtomicInteger();
+        FilterChain blocking = (req, res) ->
+                filter.doFilter(request("GET", "/api/orders/1/status"), statusResponse, (r, s) -> reached.incrementAndGet());
+
+        filter.doFilter(request("POST", "/api/orders"), new MockHttpServletResponse(), blocking);
+
+        assertEquals(1, reached.get());
+        assertEquals(HttpServletResponse.SC_OK, statusResponse.getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldReleaseSlotAfterResponse() throws Exception {
+        filter.doFilter(request("POST", "/api/orders"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(request("POST", "/api/orders"), second, new MockFilterChain());
+
+        assertEquals(HttpServletResponse.SC_OK, second.getStatus());
+        assertEquals(0.0, meterRegistry.get("http.admission.inflight").tag("budget", "writes").gauge().value());
+    }
+
+    @Test
+    void doFilter_ShouldBackOffOnlyOnOverloadResponses() throws Exception {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.getBudgets().put(AdmissionControlFilter.WRITES, budget(10));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControlFilter adaptive = new AdmissionControlFilter(properties, registry);
+
+        adaptive.doFilter(request("POST", "/api/orders/1/process"), new MockHttpServletResponse(),
+                (req, res) -> ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR));
+        assertEquals(10.0, registry.get("http.admission.limit").tag("budget", "writes").gauge().value());
+
+        adaptive.doFilter(request("POST", "/api/orders/1/process"), new MockHttpServletResponse(),
+                (req, res) -> ((HttpServletResponse) res).setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE));
+        assertTrue(registry.get("http.admission.limit").tag("budget", "writes").gauge().value() < 10.0);
+    }
+
+    @Test
+    void doFilter_ShouldPassThroughBudgetsWithoutLimit() throws Exception {
+        AtomicInteger reached = new AtomicInteger();
+
+        filter.doFilter(request("GET", "/api/orders"), new MockHttpServletResponse(), (r, s) -> reached.incrementAndGet());
+
+        assertEquals(1, reached.get());
+        assertNull(meterRegistry.find("http.admission.limit").tag("budget", "listings").gauge());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+
+    private static AdmissionProperties.Budget budget(int limit) {
+        AdmissionProperties.Budget spec = new AdmissionProperties.Budget();
+        spec.setInitialLimit(limit);
+        spec.setMinLimit(1);
+        spec.setRetryAfter(Duration.ofSeconds(2));
+        return spec;
+    }
+}
@@ -0,0 +1,98 @@
+package com.orderservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(CacheConfig.class)
+            .withBean("cacheRefreshExecutor", Executor.class, () -> Runnable::run)
+            .withPropertyValues(
+                    "app.cache.caches.orders.maximum-size=100",
+                    "app.cache.caches.orders.refresh-after-write=1m",
+                    "app.cache.caches.orderNumbers.manager=duplicateCheckCacheManager");
+
+    @Test
+    void caches_ShouldBeRegisteredOnlyInConfiguredManager() {
+        contextRunner.run(context -> {
+            assertThat(context).hasNotFailed();
+            CacheManager primary = context.getBean("cacheManager", CacheManager.class);
+            CacheManager duplicateCheck = context.getBean("duplicateCheckCacheManager", CacheManager.class);
+
+            assertThat(primary.getCacheNames()).containsExactly("orders");
+            assertThat(duplicateCheck.getCacheNames()).containsExactly("orderNumbers");
+            assertThat(primary.getCache("calculations")).isNull();
+        });
+    }
+
+    @Test
+    void startup_ShouldFailWhenAnnotationUsesUnknownCache() {
+        contextRunner.withUserConfiguration(UnknownCacheUser.class).run(context -> {
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure())
+                    .hasMessageContaining("CachedService.lookup")
+                    .hasMessageContaining("calculations");
+        });
+    }
+
+    @Test
+    void startup_ShouldFailWhenCacheDeclaresUnknownManager() {
+        contextRunner.withPropertyValues("app.cache.caches.products.manager=missingCacheManager").run(context -> {
+            assertThat(context).hasFailed();
+            assertThat(context.getStartupFailure()).hasMessageContaining("missingCacheManager");
+        });
+    }
+
+    @Test
+    void startup_ShouldAcceptAnnotationsUsingKnownCaches() {
+        contextRunner.withUserConfiguration(KnownCacheUser.class).run(context -> assertThat(context).hasNotFailed());
+    }
+
+    static class CachedService {
+
+        @Cacheable("calculations")
+        public String lookup(String key) {
+            return key;
+        }
+
+        @Cacheable(value = "orderNumbers", cacheManager = "duplicateCheckCacheManager")
+        public String known(String key) {
+            return key;
+        }
+    }
+
+    static class KnownCachedService {
+
+        @Cacheable("orders")
+        public String lookup(String key) {
+            return key;
+        }
+    }
+
+    @Configuration
+    static class UnknownCacheUser {
+
+        @Bean
+        CachedService cachedService() {
+            return new CachedService();
+        }
+    }
+
+    @Configuration
+    static class KnownCacheUser {
+
+        @Bean
+        KnownCachedService knownCachedService() {
+            return new KnownCachedService();
+        }
+    }
+}
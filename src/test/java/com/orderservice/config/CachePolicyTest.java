@@ -0,0 +1,74 @@
+package com.orderservice.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachePolicyTest {
+
+    private final CacheLoaderRegistry loaders = new CacheLoaderRegistry();
+
+    @Test
+    void refreshAfterWrite_ShouldServePreviousValueAndReloadOnce() throws InterruptedException {
+        AtomicInteger reloads = new AtomicInteger();
+        Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+        loaders.register("orders", key -> "v" + reloads.incrementAndGet());
+        Cache<Object, Object> cache = new CachePolicy("orders", 16, 100, null, Duration.ofMinutes(30), Duration.ofMillis(10), 0.1)
+                .build(loaders, pending::add);
+
+        cache.put("key", "v0");
+        runAll(pending);
+        Thread.sleep(20);
+
+        assertEquals("v0", cache.getIfPresent("key"));
+        assertEquals("v0", cache.getIfPresent("key"));
+        runAll(pending);
+
+        assertEquals("v1", cache.getIfPresent("key"));
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void refreshAfterWrite_ShouldKeepValueWithoutRegisteredLoader() throws InterruptedException {
+        Cache<Object, Object> cache = new CachePolicy("orders", 16, 100, null, Duration.ofMinutes(30), Duration.ofMillis(10), 0.1)
+                .build(loaders, Runnable::run);
+
+        cache.put("key", "v0");
+        Thread.sleep(20);
+
+        assertEquals("v0", cache.getIfPresent("key"));
+        assertEquals("v0", cache.getIfPresent("key"));
+    }
+
+    @Test
+    void jitteredExpiry_ShouldSpreadTtlWithinConfiguredFraction() {
+        Duration ttl = Duration.ofMinutes(30);
+        CachePolicy.JitteredExpiry expiry = new CachePolicy.JitteredExpiry(ttl, 0.1);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+
+        for (int i = 0; i < 1_000; i++) {
+            long nanos = expiry.expireAfterCreate("key", "value", 0);
+            min = Math.min(min, nanos);
+            max = Math.max(max, nanos);
+        }
+
+        assertTrue(min >= ttl.toNanos() * 9 / 10);
+        assertTrue(max <= ttl.toNanos());
+        assertTrue(max - min > ttl.toNanos() / 20, "Expirações deveriam estar espalhadas");
+        assertEquals(123L, expiry.expireAfterRead("key", "value", 0, 123L));
+    }
+
+    private static void runAll(Queue<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.orderservice.config;
+
+import com.orderservice.metrics.ExecutorMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ExecutorSizingControllerTest {
+
+    private static final String NAME = "orderProcessingExecutor";
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private ExecutorSizingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorSizingController controller;
+    private ThreadPoolTaskExecutor executor;
+    private ExecutorMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ExecutorSizingProperties();
+        properties.setConnectionShare(Map.of(NAME, 0.6));
+        properties.setSmoothing(1.0);
+        meterRegistry = new SimpleMeterRegistry();
+        controller = new ExecutorSizingController(properties, 50, meterRegistry);
+
+        executor = mock(ThreadPoolTaskExecutor.class);
+        when(executor.getCorePoolSize()).thenReturn(20);
+        when(executor.getMaxPoolSize()).thenReturn(100);
+        metrics = mock(ExecutorMetrics.class);
+        when(metrics.getName()).thenReturn(NAME);
+        when(metrics.snapshot()).thenReturn(new ExecutorMetrics.Snapshot(0, 0, 0, 0, 0));
+    }
+
+    @Test
+    void manage_ShouldCapPoolAtShareOfConnectionPool() {
+        controller.manage(executor, metrics);
+
+        verify(executor).setMaxPoolSize(30);
+        verify(executor).setCorePoolSize(20);
+        assertNotNull(meterRegistry.find("executor.sizing.concurrency").tag("name", NAME).gauge());
+    }
+
+    @Test
+    void constructor_ShouldRejectSharesLeavingNoConnectionsForRequests() {
+        properties.setConnectionShare(Map.of(NAME, 0.6, "notificationExecutor", 0.3, "cacheRefreshExecutor", 0.1));
+        assertThrows(IllegalStateException.class, () -> new ExecutorSizingController(properties, 50, meterRegistry));
+
+        properties.setConnectionShare(Map.of(NAME, 0.0));
+        assertThrows(IllegalStateException.class, () -> new ExecutorSizingController(properties, 50, meterRegistry));
+
+        properties.setConnectionShare(Map.of(NAME, 0.45, "notificationExecutor", 0.25, "cacheRefreshExecutor", 0.05));
+        assertDoesNotThrow(() -> new ExecutorSizingController(properties, 50, meterRegistry));
+    }
+
+    @Test
+    void manage_ShouldIgnoreExecutorWithoutConnectionShare() {
+        when(metrics.getName()).thenReturn("statusStreamExecutor");
+
+        controller.manage(executor, metrics);
+        controller.adjust(System.nanoTime() + 10 * SECOND);
+
+        verify(executor, never()).setMaxPoolSize(anyInt());
+        verify(executor, never()).setCorePoolSize(anyInt());
+    }
+
+    @Test
+    void adjust_ShouldSizePoolByLittlesLaw() {
+        controller.manage(executor, metrics);
+        long start = System.nanoTime();
+        // 100 tarefas/s com 200ms cada: L = 20 threads ocupadas, 25 com a folga
+        when(metrics.snapshot()).thenReturn(snapshot(1000, 0, Duration.ofMillis(200)));
+
+        controller.adjust(start + 10 * SECOND);
+
+        verify(executor).setCorePoolSize(25);
+        assertEquals(20.0, meterRegistry.get("executor.sizing.concurrency").gauge().value(), 0.5);
+    }
+
+    @Test
+    void adjust_ShouldNeverExceedConnectionCap() {
+        controller.manage(executor, metrics);
+        long start = System.nanoTime();
+        when(metrics.snapshot()).thenReturn(snapshot(5000, 0, Duration.ofMillis(200)));
+
+        controller.adjust(start + 10 * SECOND);
+
+        verify(executor).setCorePoolSize(30);
+    }
+
+    @Test
+    void adjust_ShouldGrowWhileTasksWaitInQueue() {
+        controller.manage(executor, metrics);
+        long start = System.nanoTime();
+        // Little estima 10 threads, mas as tarefas esperam 500ms na fila
+        when(metrics.snapshot()).thenReturn(snapshot(500, 500, Duration.ofMillis(200)));
+        when(executor.getQueueSize()).thenReturn(200);
+
+        controller.adjust(start + 10 * SECOND);
+
+        verify(executor).setCorePoolSize(25);
+    }
+
+    @Test
+    void adjust_ShouldShrinkGradually() {
+        controller.manage(executor, metrics);
+        long start = System.nanoTime();
+        when(metrics.snapshot()).thenReturn(snapshot(10, 0, Duration.ofMillis(200)));
+
+        controller.adjust(start + 10 * SECOND);
+
+        verify(executor).setCorePoolSize(15);
+    }
+
+    @Test
+    void adjust_ShouldWaitForCompletedTasksBeforeResizing() {
+        controller.manage(executor, metrics);
+        long start = System.nanoTime();
+        when(metrics.snapshot()).thenReturn(new ExecutorMetrics.Snapshot(100, 0, 0, 0, 0));
+
+        controller.adjust(start + 10 * SECOND);
+
+        verify(executor, times(1)).setCorePoolSize(anyInt());
+    }
+
+    private static ExecutorMetrics.Snapshot snapshot(long tasks, long waitMillisEach, Duration serviceTime) {
+        return new ExecutorMetrics.Snapshot(tasks, tasks, tasks,
+                tasks * Duration.ofMillis(waitMillisEach).toNanos(), tasks * serviceTime.toNanos());
+    }
+}
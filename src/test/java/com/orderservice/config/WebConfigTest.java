@@ -0,0 +1,127 @@
+package com.orderservice.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebConfigTest {
+
+    private WebConfig webConfig;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+
+    @BeforeEach
+    void setUp() {
+        webConfig = new WebConfig(new DefaultListableBeanFactory().getBeanProvider(Jackson2ObjectMapperBuilder.class));
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = webConfig.binaryMapper(new CBORFactory());
+        smile = webConfig.binaryMapper(new SmileFactory());
+    }
+
+    @Test
+    void extendMessageConverters_ShouldReplaceDefaultBinaryConverters() {
+        List<HttpMessageConverter<?>> converters = new ArrayList<>();
+        converters.add(new MappingJackson2CborHttpMessageConverter());
+        converters.add(new MappingJackson2SmileHttpMessageConverter());
+
+        webConfig.extendMessageConverters(converters);
+
+        assertEquals(2, converters.size());
+        assertEquals(1, converters.stream().filter(MappingJackson2CborHttpMessageConverter.class::isInstance).count());
+        assertEquals(1, converters.stream().filter(MappingJackson2SmileHttpMessageConverter.class::isInstance).count());
+    }
+
+    @Test
+    void binaryFormats_ShouldRoundTripOrders() throws Exception {
+        OrderDTO order = order(1);
+
+        for (ObjectMapper mapper : List.of(cbor, smile)) {
+            OrderDTO decoded = mapper.readValue(mapper.writeValueAsBytes(order), OrderDTO.class);
+
+            assertEquals(order.getId(), decoded.getId());
+            assertEquals(order.getCreatedAt(), decoded.getCreatedAt());
+            assertEquals(0, order.getTotalAmount().compareTo(decoded.getTotalAmount()));
+            assertEquals(order.getItems().get(1).getPrice(), decoded.getItems().get(1).getPrice());
+            assertNull(decoded.getVersion());
+        }
+    }
+
+    @Test
+    void binaryFormats_ShouldBeSmallerThanJson() throws Exception {
+        List<OrderDTO> orders = IntStream.range(0, 1000).mapToObj(this::order).toList();
+        OrderStatusDTO status = status(orders.get(0));
+
+        int jsonList = json.writeValueAsBytes(orders).length;
+        int jsonStatus = json.writeValueAsBytes(status).length;
+
+        for (ObjectMapper mapper : List.of(cbor, smile)) {
+            byte[] list = mapper.writeValueAsBytes(orders);
+            assertTrue(list.length < jsonList * 0.8,
+                    "lista binária " + list.length + " bytes, JSON " + jsonList);
+            assertTrue(mapper.writeValueAsBytes(status).length < jsonStatus);
+            assertEquals(1000, mapper.readValue(list, new TypeReference<List<OrderDTO>>() { }).size());
+        }
+    }
+
+    private OrderDTO order(int n) {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 8, 10, 0, 5, 123_000_000).plusSeconds(n);
+
+        OrderItemDTO first = new OrderItemDTO();
+        first.setId(UUID.randomUUID());
+        first.setProductId("PROD-001");
+        first.setProductName("Produto 1");
+        first.setQuantity(2);
+        first.setPrice(new BigDecimal("20.00"));
+
+        OrderItemDTO second = new OrderItemDTO();
+        second.setId(UUID.randomUUID());
+        second.setProductId("PROD-002");
+        second.setProductName("Produto 2");
+        second.setQuantity(1);
+        second.setPrice(new BigDecimal("30.50"));
+
+        OrderDTO order = new OrderDTO();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-BENCH-" + n);
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setCreatedAt(createdAt);
+        order.setProcessedAt(createdAt.plusSeconds(2));
+        order.setTotalAmount(new BigDecimal("70.50"));
+        order.setItems(List.of(first, second));
+        order.setVersion(3L);
+        return order;
+    }
+
+    private OrderStatusDTO status(OrderDTO order) {
+        OrderStatusDTO status = new OrderStatusDTO();
+        status.setId(order.getId());
+        status.setOrderNumber(order.getOrderNumber());
+        status.setStatus(order.getStatus());
+        status.setCreatedAt(order.getCreatedAt());
+        status.setProcessedAt(order.getProcessedAt());
+        status.setTotalAmount(order.getTotalAmount());
+        return status;
+    }
+}
@@ -1,45 +1,85 @@
 package com.orderservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
 import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
 import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.exception.DuplicateOrderException;
+import com.orderservice.exception.SubscriptionLimitExceededException;
 import com.orderservice.model.OrderStatus;
+import com.orderservice.service.OrderCache;
+import com.orderservice.service.OrderResponseCache;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStatusSubscriptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(OrderController.class)
+@Import({OrderResponseCache.class, OrderControllerTest.ResponseCacheConfig.class})
 class OrderControllerTest {
 
+    @TestConfiguration
+    static class ResponseCacheConfig {
+
+        @Bean
+        CacheManager cacheManager() {
+            return new CaffeineCacheManager("orderResponses", "orderStatusResponses");
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OrderResponseCache responseCache;
+
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderCache orderCache;
+
+    @MockBean
+    private OrderStatusSubscriptions statusSubscriptions;
+
     private OrderDTO orderDTO;
     private UUID orderId;
     private String orderNumber;
@@ -110,6 +150,99 @@ class OrderControllerTest {
         verify(orderService).getOrderById(orderId);
     }
 
+    @Test
+    void getOrderById_ShouldReturn304WhenETagMatches() throws Exception {
+        orderDTO.setVersion(1L);
+        when(orderService.getOrderById(orderId)).thenReturn(orderDTO);
+
+        String etag = mockMvc.perform(get("/api/orders/" + orderId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(orderCache.peek(orderId)).thenReturn(orderDTO);
+        mockMvc.perform(get("/api/orders/" + orderId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        OrderDTO calculated = new OrderDTO();
+        calculated.setId(orderId);
+        calculated.setOrderNumber(orderNumber);
+        calculated.setStatus(OrderStatus.CALCULATED);
+        calculated.setVersion(2L);
+        when(orderCache.peek(orderId)).thenReturn(calculated);
+
+        mockMvc.perform(get("/api/orders/" + orderId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.status", is("CALCULATED")));
+
+        verify(orderService, times(1)).getOrderById(orderId);
+    }
+
+    @Test
+    void getOrderById_ShouldNegotiateCborWhenPreferred() throws Exception {
+        when(orderService.getOrderById(orderId)).thenReturn(orderDTO);
+
+        byte[] body = mockMvc.perform(get("/api/orders/" + orderId)
+                        .accept("application/cbor, application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        OrderDTO decoded = new ObjectMapper(new CBORFactory()).findAndRegisterModules().readValue(body, OrderDTO.class);
+        assertEquals(orderId, decoded.getId());
+        assertEquals(orderNumber, decoded.getOrderNumber());
+        // corpo e ETag saem do mesmo DTO
+        verify(orderService, times(1)).getOrderById(orderId);
+    }
+
+    @Test
+    void getOrderById_ShouldReturn304ForBinaryWhenETagMatches() throws Exception {
+        orderDTO.setVersion(1L);
+        when(orderService.getOrderById(orderId)).thenReturn(orderDTO);
+        when(orderCache.peek(orderId)).thenReturn(orderDTO);
+
+        String jsonEtag = mockMvc.perform(get("/api/orders/" + orderId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String cborEtag = mockMvc.perform(get("/api/orders/" + orderId).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(cborEtag);
+        assertNotEquals(jsonEtag, cborEtag);
+        mockMvc.perform(get("/api/orders/" + orderId)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborEtag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/orders/" + orderId)
+                        .accept("application/x-jackson-smile")
+                        .header(HttpHeaders.IF_NONE_MATCH, cborEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listOrders_ShouldNegotiateSmile() throws Exception {
+        when(orderService.listOrders(0, 20, null)).thenReturn(Collections.singletonList(orderDTO));
+
+        mockMvc.perform(get("/api/orders").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"));
+    }
+
+    @Test
+    void preferredBinary_ShouldFollowQualityBetweenKnownFormats() {
+        assertNull(OrderController.preferredBinary(null));
+        assertNull(OrderController.preferredBinary("*/*"));
+        assertNull(OrderController.preferredBinary("application/json, application/cbor;q=0.9"));
+        assertEquals(MediaType.APPLICATION_CBOR, OrderController.preferredBinary("application/cbor"));
+        assertEquals(MediaType.valueOf("application/x-jackson-smile"),
+                OrderController.preferredBinary("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(MediaType.APPLICATION_CBOR, OrderController.preferredBinary("application/cbor;q=0.8"));
+        assertNull(OrderController.preferredBinary("não é um media type"));
+    }
+
     @Test
     void getOrderByNumber_ShouldReturnOrder() throws Exception {
         when(orderService.getOrderByNumber(orderNumber)).thenReturn(orderDTO);
@@ -139,6 +272,65 @@ class OrderControllerTest {
         verify(orderService).getOrderStatus(orderId);
     }
 
+    @Test
+    void awaitOrderStatus_ShouldRespondWhenStatusIsReached() throws Exception {
+        OrderStatusDTO statusDTO = new OrderStatusDTO();
+        statusDTO.setId(orderId);
+        statusDTO.setOrderNumber(orderNumber);
+        statusDTO.setStatus(OrderStatus.NOTIFIED);
+        statusDTO.setVersion(3L);
+        when(orderCache.peekStatus(orderId)).thenReturn(statusDTO);
+
+        CompletableFuture<OrderResponseCache.CachedResponse> pending = new CompletableFuture<>();
+        when(statusSubscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofSeconds(10)))
+                .thenReturn(pending);
+
+        MvcResult result = mockMvc.perform(get("/api/orders/" + orderId + "/status")
+                        .param("waitFor", "NOTIFIED")
+                        .param("timeout", "10s"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        pending.complete(responseCache.status(orderId));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.status", is("NOTIFIED")));
+    }
+
+    @Test
+    void streamOrderStatus_ShouldReturn503WhenLimitIsReached() throws Exception {
+        when(statusSubscriptions.stream(orderId))
+                .thenThrow(new SubscriptionLimitExceededException("Limite de conexões de status atingido", Duration.ofSeconds(3)));
+
+        mockMvc.perform(get("/api/orders/" + orderId + "/status/stream")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+
+        verify(statusSubscriptions).stream(eq(orderId));
+    }
+
+    @Test
+    void getOrderStatuses_ShouldReturnStatusesAndNotFound() throws Exception {
+        OrderStatusDTO statusDTO = new OrderStatusDTO();
+        statusDTO.setId(orderId);
+        statusDTO.setOrderNumber(orderNumber);
+        statusDTO.setStatus(OrderStatus.CALCULATED);
+
+        when(orderService.getOrderStatuses(List.of(orderId), List.of("ORD-MISSING")))
+                .thenReturn(new OrderStatusBatchResponseDTO(List.of(statusDTO), List.of("ORD-MISSING")));
+
+        mockMvc.perform(post("/api/orders/status:batchGet")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + orderId + "\"],\"orderNumbers\":[\"ORD-MISSING\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statuses", hasSize(1)))
+                .andExpect(jsonPath("$.statuses[0].status", is("CALCULATED")))
+                .andExpect(jsonPath("$.notFound[0]", is("ORD-MISSING")));
+    }
+
     @Test
     void listOrders_ShouldReturnOrders() throws Exception {
         List<OrderDTO> orders = Collections.singletonList(orderDTO);
@@ -166,6 +358,32 @@ class OrderControllerTest {
         verify(orderService).processOrder(orderId);
     }
 
+    @Test
+    void processOrders_ShouldProcessBatchAndReturnOutcomes() throws Exception {
+        UUID missingId = UUID.randomUUID();
+        when(orderService.processOrders(List.of(orderId, missingId)))
+                .thenReturn(new OrderProcessBatchResponseDTO(List.of(orderId), List.of(), List.of(), List.of(missingId)));
+
+        mockMvc.perform(post("/api/orders/process:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + orderId + "\",\"" + missingId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.calculated[0]", is(orderId.toString())))
+                .andExpect(jsonPath("$.notFound[0]", is(missingId.toString())));
+
+        verify(orderService).processOrders(List.of(orderId, missingId));
+    }
+
+    @Test
+    void processOrders_ShouldRejectEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/orders/process:batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(orderService, never()).processOrders(any());
+    }
+
     @Test
     void notifyExternalSystem_ShouldNotifyAndReturnOrder() throws Exception {
         orderDTO.setStatus(OrderStatus.NOTIFIED);
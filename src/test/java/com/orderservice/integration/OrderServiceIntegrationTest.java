@@ -1,21 +1,35 @@
 package com.orderservice.integration;
 
+import com.orderservice.config.CacheLoaderRegistry;
 import com.orderservice.dto.OrderDTO;
 import com.orderservice.dto.OrderItemDTO;
 import com.orderservice.exception.DuplicateOrderException;
 import com.orderservice.integration.mock.MockExternalProductAClient;
 import com.orderservice.integration.mock.MockExternalProductBClient;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
 import com.orderservice.model.OrderStatus;
 import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderResponseCache.CachedResponse;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStateMachine;
+import com.orderservice.service.OrderStatusSubscriptions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,6 +50,15 @@ public class OrderServiceIntegrationTest {
     @Autowired
     private ExternalProductBClient productBClient;
 
+    @Autowired
+    private CacheLoaderRegistry cacheLoaderRegistry;
+
+    @Autowired
+    private OrderStateMachine orderStateMachine;
+
+    @Autowired
+    private OrderStatusSubscriptions orderStatusSubscriptions;
+
     @Test
     public void testCreateOrder() throws DuplicateOrderException {
         OrderDTO orderDTO = new OrderDTO();
@@ -75,6 +98,49 @@ public class OrderServiceIntegrationTest {
         assertNotNull(retrievedOrder);
         assertEquals(createdOrder.getOrderNumber(), retrievedOrder.getOrderNumber());
     }
-    
 
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testCacheRefreshLoaderOutsideTransaction() {
+        Order order = new Order();
+        order.setOrderNumber("INT-TEST-REFRESH-" + System.currentTimeMillis());
+        order.setStatus(OrderStatus.RECEIVED);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setTotalAmount(BigDecimal.ZERO);
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-1");
+        item.setQuantity(2);
+        item.setOrder(order);
+        order.getItems().add(item);
+        UUID orderId = orderRepository.saveAndFlush(order).getId();
+
+        // o refresh chama a carga registrada sem transação, como faz o executor de refresh
+        Object refreshed = cacheLoaderRegistry.find("orders").orElseThrow().apply(orderId);
+
+        OrderDTO dto = assertInstanceOf(OrderDTO.class, refreshed);
+        assertEquals(1, dto.getItems().size());
+        assertEquals("PROD-1", dto.getItems().get(0).getProductId());
+        assertNotNull(cacheLoaderRegistry.find("orderStatuses").orElseThrow().apply(orderId));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testStateMachineTransitionNotifiesStatusSubscribers() throws Exception {
+        Order order = new Order();
+        order.setOrderNumber("INT-TEST-SUBSCRIBE-" + System.currentTimeMillis());
+        order.setStatus(OrderStatus.NOTIFIED);
+        order.setCreatedAt(LocalDateTime.now());
+        order.setTotalAmount(BigDecimal.ZERO);
+        UUID orderId = orderRepository.saveAndFlush(order).getId();
+
+        CompletableFuture<CachedResponse> completed =
+                orderStatusSubscriptions.awaitStatus(orderId, OrderStatus.COMPLETED, Duration.ofSeconds(30));
+        assertFalse(completed.isDone());
+
+        assertEquals(1, orderStateMachine.transitionAll(List.of(orderId), OrderStatus.NOTIFIED, OrderStatus.COMPLETED));
+
+        CachedResponse response = completed.get(5, TimeUnit.SECONDS);
+        assertTrue(new String(response.body(), StandardCharsets.UTF_8).contains("\"COMPLETED\""));
+        assertEquals(OrderStatus.COMPLETED, orderService.getOrderStatus(orderId).getStatus());
+    }
 }
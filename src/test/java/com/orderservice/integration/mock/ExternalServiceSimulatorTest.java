@@ -0,0 +1,121 @@
+package com.orderservice.integration.mock;
+
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import org.junit.jupiter.api.Test;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalServiceSimulatorTest {
+
+    private static final String METHOD_KEY = "ExternalProductAClient#getProducts()";
+
+    @Test
+    void call_ShouldSucceedWhenNoFaultsAreConfigured() {
+        ExternalServiceSimulator simulator = new ExternalServiceSimulator("http://mock/api", endpoint());
+
+        assertDoesNotThrow(() -> simulator.call(METHOD_KEY, Request.HttpMethod.GET, "/products"));
+    }
+
+    @Test
+    void call_ShouldThrottleWithRetryAfter() {
+        MockExternalProperties.Endpoint spec = endpoint();
+        spec.setThrottleRate(1.0);
+        spec.setRetryAfter(Duration.ofSeconds(2));
+        ExternalServiceSimulator simulator = new ExternalServiceSimulator("http://mock/api", spec);
+
+        FeignException.TooManyRequests e = assertThrows(FeignException.TooManyRequests.class,
+                () -> simulator.call(METHOD_KEY, Request.HttpMethod.GET, "/products"));
+        assertEquals(429, e.status());
+        assertEquals("2", e.responseHeaders().get("Retry-After").iterator().next());
+        assertEquals("http://mock/api/products", e.request().url());
+    }
+
+    @Test
+    void call_ShouldFailWithServiceUnavailable() {
+        MockExternalProperties.Endpoint spec = endpoint();
+        spec.setErrorRate(1.0);
+        ExternalServiceSimulator simulator = new ExternalServiceSimulator("http://mock/api", spec);
+
+        FeignException e = assertThrows(FeignException.ServiceUnavailable.class,
+                () -> simulator.call(METHOD_KEY, Request.HttpMethod.GET, "/products"));
+        assertEquals(503, e.status());
+    }
+
+    @Test
+    void call_ShouldTimeOutAfterConfiguredWait() {
+        MockExternalProperties.Endpoint spec = endpoint();
+        spec.setTimeoutRate(1.0);
+        spec.setTimeout(Duration.ofMillis(20));
+        ExternalServiceSimulator simulator = new ExternalServiceSimulator("http://mock/api", spec);
+
+        long start = System.nanoTime();
+        RetryableException e = assertThrows(RetryableException.class,
+                () -> simulator.call(METHOD_KEY, Request.HttpMethod.POST, "/orders"));
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(20).toNanos());
+        assertInstanceOf(SocketTimeoutException.class, e.getCause());
+        assertEquals(Request.HttpMethod.POST, e.method());
+    }
+
+    @Test
+    void sampleLatency_ShouldReturnMedianForFixedDistribution() {
+        MockExternalProperties.Latency latency = new MockExternalProperties.Latency();
+        latency.setMedian(Duration.ofMillis(30));
+
+        assertEquals(Duration.ofMillis(30), ExternalServiceSimulator.sampleLatency(latency, new Random(1)));
+    }
+
+    @Test
+    void sampleLatency_ShouldCenterLogNormalOnMedianAndRespectMax() {
+        MockExternalProperties.Latency latency = new MockExternalProperties.Latency();
+        latency.setDistribution(MockExternalProperties.Distribution.LOGNORMAL);
+        latency.setMedian(Duration.ofMillis(40));
+        latency.setSigma(0.5);
+        latency.setMax(Duration.ofMillis(200));
+
+        long[] samples = samplesMillis(latency, 10_000);
+
+        assertEquals(40, samples[samples.length / 2], 3);
+        assertTrue(samples[samples.length - 1] <= 200);
+        assertTrue(samples[samples.length * 99 / 100] > 100);
+    }
+
+    @Test
+    void sampleLatency_ShouldProduceSlowModeAtConfiguredProbability() {
+        MockExternalProperties.Latency latency = new MockExternalProperties.Latency();
+        latency.setDistribution(MockExternalProperties.Distribution.BIMODAL);
+        latency.setMedian(Duration.ofMillis(10));
+        latency.setSigma(0.1);
+        latency.setSlowProbability(0.05);
+        latency.setSlowMedian(Duration.ofSeconds(1));
+
+        long[] samples = samplesMillis(latency, 10_000);
+        long slow = Arrays.stream(samples).filter(millis -> millis > 500).count();
+
+        assertEquals(500, slow, 100);
+        assertEquals(10, samples[samples.length / 2], 2);
+    }
+
+    private static long[] samplesMillis(MockExternalProperties.Latency latency, int count) {
+        Random random = new Random(42);
+        long[] samples = new long[count];
+        for (int i = 0; i < count; i++) {
+            samples[i] = ExternalServiceSimulator.sampleLatency(latency, random).toMillis();
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static MockExternalProperties.Endpoint endpoint() {
+        MockExternalProperties.Endpoint spec = new MockExternalProperties.Endpoint();
+        spec.getLatency().setMedian(Duration.ZERO);
+        return spec;
+    }
+}
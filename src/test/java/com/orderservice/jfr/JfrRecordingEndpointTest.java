@@ -0,0 +1,87 @@
+package com.orderservice.jfr;
+
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrRecordingEndpointTest {
+
+    private final JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+
+    @AfterEach
+    void tearDown() {
+        endpoint.stop();
+    }
+
+    @Test
+    void events_ShouldBeDisabledOutsideRecording() {
+        assertFalse(new OrderStageEvent().isEnabled());
+        assertFalse(new ExternalCallEvent().isEnabled());
+        assertEquals("NONE", endpoint.status().get("state"));
+    }
+
+    @Test
+    void start_ShouldRecordServiceEventsAndDumpThem() throws IOException {
+        endpoint.start(new String[] {"start", "default", "5m"});
+        assertEquals("RUNNING", endpoint.status().get("state"));
+
+        UUID orderId = UUID.randomUUID();
+        Order order = new Order();
+        order.setId(orderId);
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setItems(List.of(new OrderItem(), new OrderItem()));
+        OrderStageEvent.start(OrderStageEvent.PROCESS, orderId).finish("success", order);
+        DuplicateCheckEvent.start(DuplicateCheckEvent.NUMBER).finish("cache", true);
+
+        Resource dump = endpoint.dump("dump");
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath());
+
+        RecordedEvent stage = find(events, OrderStageEvent.NAME);
+        assertEquals(orderId.toString(), stage.getString("orderId"));
+        assertEquals("process", stage.getString("stage"));
+        assertEquals(2, stage.getInt("itemCount"));
+        assertEquals("success", stage.getString("outcome"));
+        assertEquals("CALCULATED", stage.getString("status"));
+
+        RecordedEvent duplicate = find(events, DuplicateCheckEvent.NAME);
+        assertEquals("number", duplicate.getString("check"));
+        assertEquals("cache", duplicate.getString("source"));
+        assertTrue(duplicate.getBoolean("duplicate"));
+        assertTrue(events.stream().noneMatch(event ->
+                JfrRecordingEndpoint.SENSITIVE_EVENTS.contains(event.getEventType().getName())));
+    }
+
+    @Test
+    void stop_ShouldDiscardRecording() {
+        endpoint.start(new String[] {"start"});
+
+        assertEquals("NONE", endpoint.stop().get("state"));
+        assertNull(endpoint.dump("dump"));
+        assertFalse(new OrderStageEvent().isEnabled());
+    }
+
+    @Test
+    void start_ShouldRejectUnknownActionOrSettings() {
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(new String[] {"restart"}));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.start(new String[] {"start", "inexistente"}));
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Evento ausente: " + name));
+    }
+}
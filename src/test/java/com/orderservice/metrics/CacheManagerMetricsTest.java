@@ -0,0 +1,50 @@
+package com.orderservice.metrics;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheManagerMetricsTest {
+
+    @Test
+    void bindAll_ShouldExportStatsForEveryCacheOfEveryManager() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        CaffeineCacheManager primary = cacheManager("orders");
+        CaffeineCacheManager duplicateCheck = cacheManager("orderNumbers");
+
+        new CacheManagerMetrics(registry, Map.of(
+                "cacheManager", primary,
+                "duplicateCheckCacheManager", duplicateCheck)).bindAll();
+
+        Cache orders = primary.getCache("orders");
+        orders.put("a", "1");
+        orders.get("a");
+        orders.get("a");
+        orders.get("b");
+
+        assertEquals(2.0, registry.get("cache.gets")
+                .tags("cache", "orders", "cache.manager", "cacheManager", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets")
+                .tags("cache", "orders", "result", "miss")
+                .functionCounter().count());
+        assertEquals(2.0 / 3.0, registry.get("cache.hit.ratio").tags("cache", "orders").gauge().value(), 1e-9);
+        assertEquals(1.0, registry.get("cache.size").tags("cache", "orders").gauge().value());
+        assertNotNull(registry.get("cache.evictions")
+                .tags("cache", "orderNumbers", "cache.manager", "duplicateCheckCacheManager")
+                .functionCounter());
+    }
+
+    private static CaffeineCacheManager cacheManager(String cacheName) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(cacheName);
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,97 @@
+package com.orderservice.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ExecutorMetrics metrics;
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new ExecutorMetrics("testExecutor", meterRegistry);
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("Test-");
+        executor.setTaskDecorator(metrics);
+        executor.setRejectedExecutionHandler(metrics.callerRunsPolicy());
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void decorate_ShouldRecordQueueWaitAndTaskTime() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+            done.countDown();
+        });
+        executor.execute(done::countDown);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        Timer queueWait = meterRegistry.get("executor.queue.wait").tag("name", "testExecutor").timer();
+        Timer taskTime = meterRegistry.get("executor.task.time").tag("name", "testExecutor").timer();
+        assertEquals(2, queueWait.count());
+        assertTrue(queueWait.max(TimeUnit.MILLISECONDS) >= 50);
+        assertEquals(2, taskTime.count());
+
+        ExecutorMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(2, snapshot.submitted());
+        assertEquals(2, snapshot.completed());
+        assertTrue(snapshot.busyNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void callerRunsPolicy_ShouldRunOnCallerThreadAndCount() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> rejectedThread = new AtomicReference<>();
+
+        executor.execute(() -> await(release));
+        executor.execute(() -> { });
+        executor.execute(() -> rejectedThread.set(Thread.currentThread().getName()));
+        release.countDown();
+
+        assertEquals(Thread.currentThread().getName(), rejectedThread.get());
+        assertEquals(1.0, meterRegistry.get("executor.rejected")
+                .tag("name", "testExecutor")
+                .tag("policy", "caller-runs")
+                .counter().count());
+        assertEquals(3, metrics.snapshot().submitted());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,237 +1,179 @@
 package com.orderservice.metrics;
 
-import io.micrometer.core.instrument.Counter;
-import io.micrometer.core.instrument.MeterRegistry;
+import com.orderservice.model.OrderStatus;
 import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.*;
 
-@ExtendWith(MockitoExtension.class)
 class OrderMetricsTest {
 
-    @Mock
-    private MeterRegistry meterRegistry;
-
-    @Mock
-    private Counter ordersReceivedCounter;
-
-    @Mock
-    private Counter ordersProcessedCounter;
-
-    @Mock
-    private Counter ordersNotifiedCounter;
-
-    @Mock
-    private Counter ordersErrorCounter;
-
-    @Mock
-    private Counter duplicateOrdersCounter;
-
-    @Mock
-    private Timer orderCreationTimer;
-
-    @Mock
-    private Timer orderProcessingTimer;
-
-    @Mock
-    private Timer orderNotificationTimer;
-
-    @Mock
-    private Timer externalServiceATimer;
-
-    @Mock
-    private Timer externalServiceBTimer;
-
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private OrderMetrics orderMetrics;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
         orderMetrics = new OrderMetrics(meterRegistry);
-
-        orderMetrics.ordersReceivedCounter = ordersReceivedCounter;
-        orderMetrics.ordersProcessedCounter = ordersProcessedCounter;
-        orderMetrics.ordersNotifiedCounter = ordersNotifiedCounter;
-        orderMetrics.ordersErrorCounter = ordersErrorCounter;
-        orderMetrics.duplicateOrdersCounter = duplicateOrdersCounter;
-        orderMetrics.orderCreationTimer = orderCreationTimer;
-        orderMetrics.orderProcessingTimer = orderProcessingTimer;
-        orderMetrics.orderNotificationTimer = orderNotificationTimer;
-        orderMetrics.externalServiceATimer = externalServiceATimer;
-        orderMetrics.externalServiceBTimer = externalServiceBTimer;
     }
 
     @Test
     void incrementOrdersReceived_ShouldIncrementCounter() {
         orderMetrics.incrementOrdersReceived();
 
-        verify(ordersReceivedCounter).increment();
+        assertEquals(1.0, meterRegistry.get("orders.received").counter().count());
     }
 
     @Test
     void incrementOrdersProcessed_ShouldIncrementCounter() {
         orderMetrics.incrementOrdersProcessed();
 
-        verify(ordersProcessedCounter).increment();
+        assertEquals(1.0, meterRegistry.get("orders.processed").counter().count());
     }
 
     @Test
     void incrementOrdersNotified_ShouldIncrementCounter() {
         orderMetrics.incrementOrdersNotified();
 
-        verify(ordersNotifiedCounter).increment();
+        assertEquals(1.0, meterRegistry.get("orders.notified").counter().count());
     }
 
     @Test
     void incrementOrdersError_ShouldIncrementCounter() {
         orderMetrics.incrementOrdersError();
 
-        verify(ordersErrorCounter).increment();
+        assertEquals(1.0, meterRegistry.get("orders.error").counter().count());
     }
 
     @Test
     void incrementDuplicateOrders_ShouldIncrementCounter() {
         orderMetrics.incrementDuplicateOrders();
 
-        verify(duplicateOrdersCounter).increment();
+        assertEquals(1.0, meterRegistry.get("orders.duplicates").counter().count());
     }
 
     @Test
-    void recordOrderCreationTime_ShouldRecordTime() {
-        orderMetrics.recordOrderCreationTime(500);
+    void incrementScheduledDispatches_ShouldCountByJob() {
+        orderMetrics.incrementScheduledDispatches("received", 3);
+        orderMetrics.incrementScheduledDispatches("received", 2);
+        orderMetrics.incrementScheduledDispatches("error", 1);
 
-        verify(orderCreationTimer).record(500, TimeUnit.MILLISECONDS);
+        assertEquals(5.0, meterRegistry.get("orders.scheduler.dispatched").tag("job", "received").counter().count());
+        assertEquals(1.0, meterRegistry.get("orders.scheduler.dispatched").tag("job", "error").counter().count());
     }
 
     @Test
-    void recordOrderProcessingTime_ShouldRecordTime() {
-        orderMetrics.recordOrderProcessingTime(1000);
+    void recordOrderCreationTime_ShouldRecordElapsedNanosByOutcome() {
+        long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20);
 
-        verify(orderProcessingTimer).record(1000, TimeUnit.MILLISECONDS);
+        orderMetrics.recordOrderCreationTime(start, OrderMetrics.OUTCOME_SUCCESS);
+        orderMetrics.recordOrderCreationTime(System.nanoTime(), OrderMetrics.OUTCOME_DUPLICATE);
+
+        Timer success = meterRegistry.get("orders.creation.time").tag("outcome", "success").timer();
+        assertEquals(1, success.count());
+        assertTrue(success.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertEquals(1, meterRegistry.get("orders.creation.time").tag("outcome", "duplicate").timer().count());
     }
 
     @Test
-    void recordOrderNotificationTime_ShouldRecordTime() {
-        orderMetrics.recordOrderNotificationTime(300);
+    void recordOrderProcessingTime_ShouldTagOutcomeAndStatusAndPublishSloBuckets() {
+        orderMetrics.recordOrderProcessingTime(System.nanoTime(), OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+
+        Timer timer = meterRegistry.get("orders.processing.time")
+                .tag("outcome", "success")
+                .tag("status", "CALCULATED")
+                .timer();
+        assertEquals(1, timer.count());
 
-        verify(orderNotificationTimer).record(300, TimeUnit.MILLISECONDS);
+        double[] buckets = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .mapToDouble(bucket -> bucket.bucket(TimeUnit.MILLISECONDS))
+                .toArray();
+        for (var slo : OrderMetrics.PROCESSING_SLOS) {
+            assertTrue(Arrays.stream(buckets).anyMatch(bucket -> bucket == slo.toMillis()),
+                    "Bucket de SLO ausente: " + slo);
+        }
     }
 
     @Test
-    void recordExternalServiceATime_ShouldRecordTime() {
-        orderMetrics.recordExternalServiceATime(200);
+    void recordOrderProcessingTime_ShouldReuseTimerPerTagCombination() {
+        orderMetrics.recordOrderProcessingTime(System.nanoTime(), OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+        orderMetrics.recordOrderProcessingTime(System.nanoTime(), OrderMetrics.OUTCOME_SUCCESS, OrderStatus.CALCULATED);
+        orderMetrics.recordOrderProcessingTime(System.nanoTime(), OrderMetrics.OUTCOME_SKIPPED, OrderStatus.CALCULATED);
 
-        verify(externalServiceATimer).record(200, TimeUnit.MILLISECONDS);
+        assertEquals(2, meterRegistry.get("orders.processing.time").timers().size());
+        assertEquals(2, meterRegistry.get("orders.processing.time")
+                .tag("outcome", "success")
+                .timer().count());
     }
 
     @Test
-    void recordExternalServiceBTime_ShouldRecordTime() {
-        orderMetrics.recordExternalServiceBTime(150);
+    void recordOrderNotificationTime_ShouldTagOutcomeAndStatus() {
+        orderMetrics.recordOrderNotificationTime(System.nanoTime(), OrderMetrics.OUTCOME_ERROR, OrderStatus.CALCULATED);
 
-        verify(externalServiceBTimer).record(150, TimeUnit.MILLISECONDS);
+        assertEquals(1, meterRegistry.get("orders.notification.time")
+                .tag("outcome", "error")
+                .tag("status", "CALCULATED")
+                .timer().count());
     }
 
     @Test
-    void measureOrderCreationTime_ShouldMeasureAndReturnResult() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(orderCreationTimer).record(anyLong(), any(TimeUnit.class));
-
-        String result = orderMetrics.measureOrderCreationTime(() -> "test-result");
-
-        assertEquals("test-result", result);
-        verify(orderCreationTimer).record(anyLong(), any(TimeUnit.class));
-    }
+    void recordTimeInState_ShouldUseOrderTimestamps() {
+        LocalDateTime createdAt = LocalDateTime.of(2025, 5, 8, 10, 0, 0);
 
-    @Test
-    void measureOrderProcessingTime_ShouldMeasureAndReturnResult() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(orderProcessingTimer).record(anyLong(), any(TimeUnit.class));
-
-        Integer result = orderMetrics.measureOrderProcessingTime(() -> 42);
-
-        assertEquals(42, result);
-        verify(orderProcessingTimer).record(anyLong(), any(TimeUnit.class));
+        orderMetrics.recordTimeInState(OrderStatus.RECEIVED, OrderStatus.CALCULATED,
+                createdAt, createdAt.plusSeconds(3));
+
+        Timer timer = meterRegistry.get("orders.state.transition.time")
+                .tag("from", "RECEIVED")
+                .tag("to", "CALCULATED")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(3000.0, timer.totalTime(TimeUnit.MILLISECONDS));
+        CountAtBucket fiveSeconds = Arrays.stream(timer.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 5000)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1.0, fiveSeconds.count());
     }
 
     @Test
-    void measureOrderNotificationTime_ShouldMeasureAndReturnResult() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(orderNotificationTimer).record(anyLong(), any(TimeUnit.class));
-
-        Boolean result = orderMetrics.measureOrderNotificationTime(() -> true);
-
-        assertTrue(result);
-        verify(orderNotificationTimer).record(anyLong(), any(TimeUnit.class));
+    void recordTimeInState_ShouldIgnoreMissingTimestamps() {
+        orderMetrics.recordTimeInState(OrderStatus.CALCULATED, OrderStatus.NOTIFIED, null, LocalDateTime.now());
+
+        assertNull(meterRegistry.find("orders.state.transition.time").timer());
     }
 
     @Test
     void measureExternalServiceATime_ShouldMeasureAndReturnResult() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(externalServiceATimer).record(anyLong(), any(TimeUnit.class));
-
-        String result = orderMetrics.measureExternalServiceATime(() -> "service-a-response");
+        String result = orderMetrics.measureExternalServiceATime("getProducts", () -> "service-a-response");
 
         assertEquals("service-a-response", result);
-        verify(externalServiceATimer).record(anyLong(), any(TimeUnit.class));
+        assertEquals(1, meterRegistry.get("external.service.a.time")
+                .tag("operation", "getProducts")
+                .tag("outcome", "success")
+                .timer().count());
     }
 
     @Test
-    void measureExternalServiceBTime_ShouldMeasureAndReturnResult() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(externalServiceBTimer).record(anyLong(), any(TimeUnit.class));
-
-        String result = orderMetrics.measureExternalServiceBTime(() -> "service-b-response");
-
-        assertEquals("service-b-response", result);
-        verify(externalServiceBTimer).record(anyLong(), any(TimeUnit.class));
-    }
-
-    @Test
-    void measureOrderCreationTime_ShouldHandleExceptions() {
-        doAnswer(invocation -> {
-            long timeInMs = invocation.getArgument(0);
-            TimeUnit timeUnit = invocation.getArgument(1);
-            assertEquals(TimeUnit.MILLISECONDS, timeUnit);
-            return null;
-        }).when(orderCreationTimer).record(anyLong(), any(TimeUnit.class));
-
+    void measureExternalServiceBTime_ShouldRecordErrorOutcomeAndRethrow() {
         RuntimeException expectedException = new RuntimeException("Test exception");
 
-        assertThrows(RuntimeException.class, () -> {
-            orderMetrics.measureOrderCreationTime(() -> {
-                throw expectedException;
-            });
-        });
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> orderMetrics.measureExternalServiceBTime("notifyOrder", () -> {
+                    throw expectedException;
+                }));
 
-        verify(orderCreationTimer).record(anyLong(), any(TimeUnit.class));
+        assertSame(expectedException, thrown);
+        assertEquals(1, meterRegistry.get("external.service.b.time")
+                .tag("operation", "notifyOrder")
+                .tag("outcome", "error")
+                .timer().count());
     }
 }
@@ -1,12 +1,15 @@
 package com.orderservice.repository;
 
+import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.model.Order;
 import com.orderservice.model.OrderItem;
 import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepositoryCustom.ErroredStatus;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -14,9 +17,14 @@ import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +35,9 @@ class OrderRepositoryTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @AfterEach
     void tearDown() {
         orderRepository.deleteAll();
@@ -202,7 +213,7 @@ class OrderRepositoryTest {
         int deleted = orderRepository.deleteCompletedOrdersOlderThan(now.minusDays(5));
 
         assertEquals(1, deleted);
-        assertEquals(3, orderRepository.count());
+        assertEquals(1, orderRepository.count());
         assertTrue(orderRepository.findByOrderNumber("DELETE-RECENT-001").isPresent());
         assertFalse(orderRepository.findByOrderNumber("DELETE-OLD-001").isPresent());
     }
@@ -225,6 +236,263 @@ class OrderRepositoryTest {
         assertEquals(0, stuckOrders.size());
     }
 
+    @Test
+    void findStatuses_ShouldProjectStatusByIdsAndOrderNumbers() {
+        Order first = orderRepository.save(createTestOrder("BATCH-001", OrderStatus.CALCULATED));
+        Order second = orderRepository.save(createTestOrder("BATCH-002", OrderStatus.NOTIFIED));
+
+        List<OrderStatusDTO> byId = orderRepository.findStatusesByIdIn(List.of(first.getId(), UUID.randomUUID()));
+        List<OrderStatusDTO> byNumber = orderRepository.findStatusesByOrderNumberIn(List.of("BATCH-002", "BATCH-999"));
+
+        assertEquals(1, byId.size());
+        assertEquals(first.getId(), byId.get(0).getId());
+        assertEquals(OrderStatus.CALCULATED, byId.get(0).getStatus());
+        assertNotNull(byId.get(0).getVersion());
+
+        assertEquals(1, byNumber.size());
+        assertEquals(second.getId(), byNumber.get(0).getId());
+        assertEquals(OrderStatus.NOTIFIED, byNumber.get(0).getStatus());
+    }
+
+    @Test
+    void findWithItemsById_ShouldFetchItems() {
+        Order saved = orderRepository.saveAndFlush(createTestOrder("FETCH-001", OrderStatus.RECEIVED));
+        entityManager.clear();
+
+        Order found = orderRepository.findWithItemsById(saved.getId()).orElseThrow();
+        entityManager.clear();
+
+        assertEquals(1, found.getItems().size());
+        assertEquals("PROD-001", found.getItems().get(0).getProductId());
+    }
+
+    @Test
+    void applyCalculation_ShouldUpdateOrderAndItemsOnlyFromReceived() {
+        Order order = orderRepository.saveAndFlush(createTestOrder("CALC-001", OrderStatus.RECEIVED));
+        entityManager.clear();
+        Long version = order.getVersion();
+        OrderItem item = order.getItems().get(0);
+        item.setProductName("Produto Atualizado");
+        item.setPrice(new BigDecimal("75.00"));
+        order.calculateTotal();
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setProcessedAt(LocalDateTime.now());
+
+        assertTrue(orderRepository.applyCalculation(order));
+        assertEquals(version + 1, order.getVersion());
+        assertFalse(orderRepository.applyCalculation(order));
+
+        Order stored = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.CALCULATED, stored.getStatus());
+        assertEquals(0, new BigDecimal("150.00").compareTo(stored.getTotalAmount()));
+        assertNotNull(stored.getProcessedAt());
+        assertEquals(version + 1, stored.getVersion());
+        assertEquals("Produto Atualizado", stored.getItems().get(0).getProductName());
+        assertEquals(0, new BigDecimal("75.00").compareTo(stored.getItems().get(0).getPrice()));
+    }
+
+    @Test
+    void findAllWithItemsByIdIn_ShouldFetchOrdersWithItems() {
+        Order first = orderRepository.saveAndFlush(createTestOrder("FETCH-ALL-001", OrderStatus.RECEIVED));
+        Order second = orderRepository.saveAndFlush(createTestOrder("FETCH-ALL-002", OrderStatus.ERROR));
+        entityManager.clear();
+
+        List<Order> found = orderRepository.findAllWithItemsByIdIn(List.of(first.getId(), second.getId(), UUID.randomUUID()));
+        entityManager.clear();
+
+        assertEquals(2, found.size());
+        found.forEach(order -> assertEquals(1, order.getItems().size()));
+    }
+
+    @Test
+    void applyCalculations_ShouldReturnOnlyOrdersStillReceived() {
+        Order first = orderRepository.saveAndFlush(createTestOrder("CALC-ALL-001", OrderStatus.RECEIVED));
+        Order second = orderRepository.saveAndFlush(createTestOrder("CALC-ALL-002", OrderStatus.RECEIVED));
+        entityManager.clear();
+        Long version = first.getVersion();
+        assertEquals(1, orderRepository.transitionStatus(List.of(second.getId()),
+                List.of(OrderStatus.RECEIVED), OrderStatus.CALCULATED).size());
+        for (Order order : List.of(first, second)) {
+            order.getItems().get(0).setPrice(new BigDecimal("60.00"));
+            order.calculateTotal();
+            order.setStatus(OrderStatus.CALCULATED);
+            order.setProcessedAt(LocalDateTime.now());
+        }
+
+        List<Order> applied = orderRepository.applyCalculations(List.of(first, second));
+
+        assertEquals(List.of(first), applied);
+        assertEquals(version + 1, first.getVersion());
+        Order stored = orderRepository.findWithItemsById(first.getId()).orElseThrow();
+        assertEquals(OrderStatus.CALCULATED, stored.getStatus());
+        assertEquals(0, new BigDecimal("120.00").compareTo(stored.getTotalAmount()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(stored.getItems().get(0).getPrice()));
+        assertTrue(orderRepository.applyCalculations(List.of()).isEmpty());
+    }
+
+    @Test
+    void applyNotification_ShouldUpdateOnlyPendingCalculatedOrders() {
+        Order order = orderRepository.saveAndFlush(createTestOrder("NOTIFY-001", OrderStatus.CALCULATED));
+        Order received = orderRepository.saveAndFlush(createTestOrder("NOTIFY-002", OrderStatus.RECEIVED));
+        entityManager.clear();
+        order.setCompletedAt(LocalDateTime.now());
+
+        assertTrue(orderRepository.applyNotification(order));
+        assertFalse(orderRepository.applyNotification(order));
+        assertFalse(orderRepository.applyNotification(received));
+
+        Order stored = orderRepository.findById(order.getId()).orElseThrow();
+        assertEquals(OrderStatus.NOTIFIED, stored.getStatus());
+        assertTrue(stored.isNotifiedToExternalB());
+        assertNotNull(stored.getCompletedAt());
+        assertEquals(OrderStatus.RECEIVED, orderRepository.findById(received.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void transitionStatus_ShouldOnlyUpdateOrdersInSourceStatus() {
+        Order received = orderRepository.saveAndFlush(createTestOrder("CAS-001", OrderStatus.RECEIVED));
+        Order notified = orderRepository.saveAndFlush(createTestOrder("CAS-002", OrderStatus.NOTIFIED));
+        Long version = received.getVersion();
+        entityManager.clear();
+
+        List<OrderStatusDTO> updated = orderRepository.transitionStatus(List.of(received.getId(), notified.getId()),
+                List.of(OrderStatus.RECEIVED, OrderStatus.CALCULATED), OrderStatus.ERROR);
+        entityManager.clear();
+
+        assertEquals(1, updated.size());
+        OrderStatusDTO returned = updated.get(0);
+        assertEquals(received.getId(), returned.getId());
+        assertEquals("CAS-001", returned.getOrderNumber());
+        assertEquals(OrderStatus.ERROR, returned.getStatus());
+        assertEquals(version + 1, returned.getVersion());
+        Order stored = orderRepository.findById(received.getId()).orElseThrow();
+        assertEquals(OrderStatus.ERROR, stored.getStatus());
+        assertEquals(version + 1, stored.getVersion());
+        assertEquals(OrderStatus.NOTIFIED, orderRepository.findById(notified.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void markErrored_ShouldScheduleNextRetryByRetryCount() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Order first = createTestOrder("FAIL-001", OrderStatus.RECEIVED);
+        Order second = createTestOrder("FAIL-002", OrderStatus.CALCULATED);
+        second.setRetryCount(1);
+        Order exhausted = createTestOrder("FAIL-003", OrderStatus.RECEIVED);
+        exhausted.setRetryCount(2);
+        Order notified = createTestOrder("FAIL-004", OrderStatus.NOTIFIED);
+        orderRepository.saveAllAndFlush(List.of(first, second, exhausted, notified));
+        entityManager.clear();
+
+        List<ErroredStatus> errored = orderRepository.markErrored(
+                List.of(first.getId(), second.getId(), exhausted.getId(), notified.getId()),
+                List.of(OrderStatus.RECEIVED, OrderStatus.CALCULATED),
+                retries -> retries < 2 ? now.plusMinutes(retries + 1) : null);
+        entityManager.clear();
+
+        Map<UUID, LocalDateTime> updated = new HashMap<>();
+        errored.forEach(row -> updated.put(row.status().getId(), row.nextRetryAt()));
+        assertEquals(Set.of(first.getId(), second.getId(), exhausted.getId()), updated.keySet());
+        assertEquals(now.plusMinutes(2), updated.get(second.getId()));
+        assertNull(updated.get(exhausted.getId()));
+        Order storedFirst = orderRepository.findById(first.getId()).orElseThrow();
+        assertEquals(OrderStatus.ERROR, storedFirst.getStatus());
+        assertEquals(now.plusMinutes(1), storedFirst.getNextRetryAt());
+        assertTrue(errored.stream().allMatch(row -> row.status().getStatus() == OrderStatus.ERROR));
+        assertEquals(storedFirst.getVersion(), errored.stream()
+                .filter(row -> row.status().getId().equals(first.getId())).findFirst().orElseThrow().status().getVersion());
+        assertEquals(now.plusMinutes(2), orderRepository.findById(second.getId()).orElseThrow().getNextRetryAt());
+        assertNull(orderRepository.findById(exhausted.getId()).orElseThrow().getNextRetryAt());
+        assertEquals(OrderStatus.NOTIFIED, orderRepository.findById(notified.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void markErrored_ShouldScheduleEachOrderSeparately() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Order first = orderRepository.saveAndFlush(createTestOrder("FAIL-SEP-001", OrderStatus.RECEIVED));
+        Order second = orderRepository.saveAndFlush(createTestOrder("FAIL-SEP-002", OrderStatus.RECEIVED));
+        entityManager.clear();
+        AtomicInteger calls = new AtomicInteger();
+
+        orderRepository.markErrored(List.of(first.getId(), second.getId()), List.of(OrderStatus.RECEIVED),
+                retries -> now.plusSeconds(calls.incrementAndGet()));
+        entityManager.clear();
+
+        assertEquals(2, calls.get());
+        assertNotEquals(orderRepository.findById(first.getId()).orElseThrow().getNextRetryAt(),
+                orderRepository.findById(second.getId()).orElseThrow().getNextRetryAt());
+    }
+
+    @Test
+    void requeueErrored_ShouldOnlyRequeueDueOrdersAndCountRetry() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Order due = createTestOrder("REQUEUE-001", OrderStatus.ERROR);
+        due.setRetryCount(1);
+        due.setNextRetryAt(now.minusSeconds(1));
+        Order notDue = createTestOrder("REQUEUE-002", OrderStatus.ERROR);
+        notDue.setNextRetryAt(now.plusMinutes(1));
+        orderRepository.saveAllAndFlush(List.of(due, notDue));
+        entityManager.clear();
+
+        List<OrderStatusDTO> requeued = orderRepository.requeueErrored(List.of(due.getId(), notDue.getId()), now);
+        assertEquals(1, requeued.size());
+        assertEquals(due.getId(), requeued.get(0).getId());
+        assertEquals(OrderStatus.RECEIVED, requeued.get(0).getStatus());
+        assertTrue(orderRepository.requeueErrored(List.of(due.getId()), now).isEmpty());
+        entityManager.clear();
+
+        Order stored = orderRepository.findById(due.getId()).orElseThrow();
+        assertEquals(OrderStatus.RECEIVED, stored.getStatus());
+        assertEquals(2, stored.getRetryCount());
+        assertEquals(OrderStatus.ERROR, orderRepository.findById(notDue.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void requeueDueErrored_ShouldClaimOnlyDueOrdersWithRetriesLeft() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Order due = createTestOrder("DUE-001", OrderStatus.ERROR);
+        due.setNextRetryAt(now.minusMinutes(1));
+        Order notDue = createTestOrder("DUE-002", OrderStatus.ERROR);
+        notDue.setNextRetryAt(now.plusMinutes(5));
+        Order exhausted = createTestOrder("DUE-003", OrderStatus.ERROR);
+        exhausted.setRetryCount(3);
+        exhausted.setNextRetryAt(now.minusMinutes(1));
+        Order lastRetry = createTestOrder("DUE-004", OrderStatus.ERROR);
+        lastRetry.setRetryCount(2);
+        lastRetry.setNextRetryAt(now.minusMinutes(2));
+        orderRepository.saveAllAndFlush(List.of(due, notDue, exhausted, lastRetry));
+        entityManager.clear();
+
+        List<OrderStatusDTO> claimed = orderRepository.requeueDueErrored(now, 3, 10);
+        entityManager.clear();
+
+        assertEquals(Set.of(lastRetry.getId(), due.getId()),
+                claimed.stream().map(OrderStatusDTO::getId).collect(Collectors.toSet()));
+        Order requeued = orderRepository.findById(due.getId()).orElseThrow();
+        assertEquals(OrderStatus.RECEIVED, requeued.getStatus());
+        assertEquals(1, requeued.getRetryCount());
+        assertEquals(OrderStatus.ERROR, orderRepository.findById(notDue.getId()).orElseThrow().getStatus());
+        assertEquals(OrderStatus.ERROR, orderRepository.findById(exhausted.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findPendingRetries_ShouldReturnScheduledRetriesInDueOrder() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Order later = createTestOrder("PENDING-001", OrderStatus.ERROR);
+        later.setNextRetryAt(now.plusMinutes(5));
+        Order sooner = createTestOrder("PENDING-002", OrderStatus.ERROR);
+        sooner.setNextRetryAt(now.plusMinutes(1));
+        Order exhausted = createTestOrder("PENDING-003", OrderStatus.ERROR);
+        exhausted.setRetryCount(3);
+        Order received = createTestOrder("PENDING-004", OrderStatus.RECEIVED);
+        orderRepository.saveAllAndFlush(List.of(later, sooner, exhausted, received));
+        entityManager.clear();
+
+        Map<UUID, LocalDateTime> pending = orderRepository.findPendingRetries(3, 10);
+
+        assertEquals(List.of(sooner.getId(), later.getId()), List.copyOf(pending.keySet()));
+        assertEquals(now.plusMinutes(1), pending.get(sooner.getId()));
+    }
+
     private Order createTestOrder(String orderNumber, OrderStatus status) {
         Order order = new Order();
         order.setId(UUID.randomUUID());
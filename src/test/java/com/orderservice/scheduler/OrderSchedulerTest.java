@@ -1,9 +1,15 @@
 package com.orderservice.scheduler;
 
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.metrics.OrderMetrics;
 import com.orderservice.model.Order;
+import com.orderservice.model.OrderPurgeProgress;
 import com.orderservice.model.OrderStatus;
 import com.orderservice.repository.OrderRepository;
+import com.orderservice.service.OrderArchiveService;
+import com.orderservice.service.OrderPurgeService;
 import com.orderservice.service.OrderService;
+import com.orderservice.service.OrderStateMachine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +21,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.Executor;
 
@@ -24,7 +31,9 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +46,18 @@ class OrderSchedulerTest {
     @Mock
     private OrderService orderService;
 
+    @Mock
+    private OrderPurgeService orderPurgeService;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private OrderStateMachine orderStateMachine;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
     @Mock
     private Executor orderProcessingExecutor;
 
@@ -55,9 +76,9 @@ class OrderSchedulerTest {
             return null;
         }).when(orderProcessingExecutor).execute(any(Runnable.class));
 
-        ReflectionTestUtils.setField(orderScheduler, "retryLimit", 3);
         ReflectionTestUtils.setField(orderScheduler, "batchSize", 50);
         ReflectionTestUtils.setField(orderScheduler, "cleanupEnabled", false);
+        ReflectionTestUtils.setField(orderScheduler, "retentionDays", 180);
 
         receivedOrder = new Order();
         receivedOrder.setId(UUID.randomUUID());
@@ -85,13 +106,15 @@ class OrderSchedulerTest {
         when(orderRepository.findByStatusAndCreatedAtBefore(
                 eq(OrderStatus.RECEIVED), any(LocalDateTime.class), eq(50)))
                 .thenReturn(Collections.singletonList(receivedOrder));
+        when(orderService.processOrders(any())).thenReturn(emptyResult());
 
         orderScheduler.processReceivedOrders();
 
         verify(orderRepository).findByStatusAndCreatedAtBefore(
                 eq(OrderStatus.RECEIVED), any(LocalDateTime.class), eq(50));
-        verify(orderService).processOrder(receivedOrder.getId());
-        verify(orderProcessingExecutor).execute(any(Runnable.class));
+        verify(orderService).processOrders(List.of(receivedOrder.getId()));
+        verify(orderService, never()).processOrder(any(UUID.class));
+        verify(orderMetrics).incrementScheduledDispatches("received", 1);
     }
 
     @Test
@@ -104,8 +127,8 @@ class OrderSchedulerTest {
 
         verify(orderRepository).findByStatusAndCreatedAtBefore(
                 eq(OrderStatus.RECEIVED), any(LocalDateTime.class), eq(50));
-        verify(orderService, never()).processOrder(any(UUID.class));
-        verify(orderProcessingExecutor, never()).execute(any(Runnable.class));
+        verify(orderService, never()).processOrders(any());
+        verifyNoInteractions(orderMetrics);
     }
 
     @Test
@@ -120,6 +143,7 @@ class OrderSchedulerTest {
                 eq(OrderStatus.CALCULATED), eq(50));
         verify(orderService).notifyExternalSystem(calculatedOrder.getId());
         verify(orderProcessingExecutor).execute(any(Runnable.class));
+        verify(orderMetrics).incrementScheduledDispatches("calculated", 1);
     }
 
     @Test
@@ -137,36 +161,41 @@ class OrderSchedulerTest {
     }
 
     @Test
-    void recoverErroredOrders_ShouldRecoverOrdersWithinRetryLimit() {
-        when(orderRepository.findByStatusAndRetryCountLessThan(
-                eq(OrderStatus.ERROR), eq(3), eq(50)))
-                .thenReturn(Collections.singletonList(errorOrder));
+    void recoverErroredOrders_ShouldProcessClaimedOrders() {
+        when(orderStateMachine.requeueDue(50)).thenReturn(List.of(errorOrder.getId()));
+        when(orderService.processOrders(any())).thenReturn(emptyResult());
 
         orderScheduler.recoverErroredOrders();
 
-        verify(orderRepository).findByStatusAndRetryCountLessThan(
-                eq(OrderStatus.ERROR), eq(3), eq(50));
-        verify(orderRepository).save(errorOrder);
-        verify(orderService).processOrder(errorOrder.getId());
-        verify(orderProcessingExecutor).execute(any(Runnable.class));
+        verify(orderStateMachine).requeueDue(50);
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderService).processOrders(List.of(errorOrder.getId()));
+        verify(orderMetrics).incrementScheduledDispatches("error", 1);
+    }
+
+    @Test
+    void recoverErroredOrders_ShouldClaimNextBatchWhileBatchesAreFull() {
+        ReflectionTestUtils.setField(orderScheduler, "batchSize", 2);
+        List<UUID> fullBatch = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> lastBatch = List.of(UUID.randomUUID());
+        when(orderStateMachine.requeueDue(2)).thenReturn(fullBatch).thenReturn(lastBatch);
+        when(orderService.processOrders(any())).thenReturn(emptyResult());
+
+        orderScheduler.recoverErroredOrders();
 
-        assertEquals(OrderStatus.RECEIVED, errorOrder.getStatus());
-        assertEquals(2, errorOrder.getRetryCount());
+        verify(orderStateMachine, times(2)).requeueDue(2);
+        verify(orderService).processOrders(fullBatch);
+        verify(orderService).processOrders(lastBatch);
     }
 
     @Test
     void recoverErroredOrders_ShouldHandleNoOrders() {
-        when(orderRepository.findByStatusAndRetryCountLessThan(
-                eq(OrderStatus.ERROR), eq(3), eq(50)))
-                .thenReturn(Collections.emptyList());
+        when(orderStateMachine.requeueDue(50)).thenReturn(Collections.emptyList());
 
         orderScheduler.recoverErroredOrders();
 
-        verify(orderRepository).findByStatusAndRetryCountLessThan(
-                eq(OrderStatus.ERROR), eq(3), eq(50));
-        verify(orderRepository, never()).save(any(Order.class));
-        verify(orderService, never()).processOrder(any(UUID.class));
-        verify(orderProcessingExecutor, never()).execute(any(Runnable.class));
+        verify(orderStateMachine).requeueDue(50);
+        verify(orderService, never()).processOrders(any());
     }
 
     @Test
@@ -203,6 +232,19 @@ class OrderSchedulerTest {
         orderScheduler.cleanupOldOrders();
 
         verify(orderRepository, never()).deleteCompletedOrdersOlderThan(any(LocalDateTime.class));
+        verify(orderPurgeService, never()).purgeCompletedOrdersOlderThan(any(LocalDateTime.class));
+    }
+
+    @Test
+    void cleanupOldOrders_ShouldDelegateToChunkedPurgeWhenEnabled() {
+        ReflectionTestUtils.setField(orderScheduler, "cleanupEnabled", true);
+        when(orderPurgeService.purgeCompletedOrdersOlderThan(any(LocalDateTime.class)))
+                .thenReturn(new OrderPurgeProgress());
+
+        orderScheduler.cleanupOldOrders();
+
+        verify(orderPurgeService).purgeCompletedOrdersOlderThan(any(LocalDateTime.class));
+        verify(orderRepository, never()).deleteCompletedOrdersOlderThan(any(LocalDateTime.class));
     }
 
     @Test
@@ -212,13 +254,13 @@ class OrderSchedulerTest {
                 .thenReturn(Collections.singletonList(receivedOrder));
 
         doThrow(new RuntimeException("Test processing error"))
-                .when(orderService).processOrder(receivedOrder.getId());
+                .when(orderService).processOrders(List.of(receivedOrder.getId()));
 
         orderScheduler.processReceivedOrders();
 
         verify(orderRepository).findByStatusAndCreatedAtBefore(
                 eq(OrderStatus.RECEIVED), any(LocalDateTime.class), eq(50));
-        verify(orderService).processOrder(receivedOrder.getId());
+        verify(orderService).processOrders(List.of(receivedOrder.getId()));
     }
 
     @Test
@@ -236,4 +278,8 @@ class OrderSchedulerTest {
                 eq(OrderStatus.CALCULATED), eq(50));
         verify(orderService).notifyExternalSystem(calculatedOrder.getId());
     }
+
+    private static OrderProcessBatchResponseDTO emptyResult() {
+        return new OrderProcessBatchResponseDTO(List.of(), List.of(), List.of(), List.of());
+    }
 }
@@ -0,0 +1,127 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OrderArchiveService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiveServiceTest {
+
+    @Autowired
+    private OrderArchiveService archiveService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        configure(archiveService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void archive_ShouldMoveColdOrdersToDatePartitionedSegments() throws IOException {
+        Order old1 = orderRepository.save(createOrder("ARCH-OLD-1", OrderStatus.NOTIFIED, now.minusDays(60)));
+        orderRepository.save(createOrder("ARCH-OLD-2", OrderStatus.COMPLETED, now.minusDays(45)));
+        orderRepository.save(createOrder("ARCH-RECENT", OrderStatus.NOTIFIED, now.minusDays(1)));
+        orderRepository.save(createOrder("ARCH-ERROR", OrderStatus.ERROR, now.minusDays(60)));
+
+        int archived = archiveService.archiveOrdersCompletedBefore(now.minusDays(30));
+
+        assertEquals(2, archived);
+        assertFalse(orderRepository.findByOrderNumber("ARCH-OLD-1").isPresent());
+        assertFalse(orderRepository.findByOrderNumber("ARCH-OLD-2").isPresent());
+        assertTrue(orderRepository.findByOrderNumber("ARCH-RECENT").isPresent());
+        assertTrue(orderRepository.findByOrderNumber("ARCH-ERROR").isPresent());
+
+        try (Stream<Path> files = Files.walk(archiveDir)) {
+            assertEquals(2, files.filter(p -> p.toString().endsWith(".oca.gz")).count());
+        }
+
+        Optional<OrderDTO> restored = archiveService.findById(old1.getId());
+        assertTrue(restored.isPresent());
+        assertEquals("ARCH-OLD-1", restored.get().getOrderNumber());
+        assertEquals(OrderStatus.NOTIFIED, restored.get().getStatus());
+        assertEquals(0, new BigDecimal("100.00").compareTo(restored.get().getTotalAmount()));
+        assertEquals(1, restored.get().getItems().size());
+        assertEquals("PROD-001", restored.get().getItems().get(0).getProductId());
+        assertEquals(2, restored.get().getItems().get(0).getQuantity());
+    }
+
+    @Test
+    void findByOrderNumber_ShouldUseIndexReloadedFromDisk() {
+        orderRepository.save(createOrder("ARCH-RELOAD", OrderStatus.COMPLETED, now.minusDays(90)));
+        archiveService.archiveOrdersCompletedBefore(now.minusDays(30));
+
+        OrderArchiveService restarted = new OrderArchiveService(orderRepository, transactionManager);
+        configure(restarted);
+        restarted.loadIndex();
+
+        Optional<OrderDTO> restored = restarted.findByOrderNumber("ARCH-RELOAD");
+        assertTrue(restored.isPresent());
+        assertEquals(OrderStatus.COMPLETED, restored.get().getStatus());
+        assertFalse(restarted.findByOrderNumber("UNKNOWN").isPresent());
+    }
+
+    private void configure(OrderArchiveService service) {
+        ReflectionTestUtils.setField(service, "archiveDir", archiveDir);
+        ReflectionTestUtils.setField(service, "batchSize", 1);
+    }
+
+    private Order createOrder(String orderNumber, OrderStatus status, LocalDateTime completedAt) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setProcessedAt(completedAt.minusMinutes(1));
+        order.setCompletedAt(completedAt);
+
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-001");
+        item.setProductName("Test Product");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("50.00"));
+        order.addItem(item);
+
+        return order;
+    }
+}
@@ -0,0 +1,289 @@
+package com.orderservice.service;
+
+import com.orderservice.config.CacheLoaderRegistry;
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCacheTest {
+
+    private OrderCache orderCache;
+    private final UUID orderId = UUID.randomUUID();
+    private final AtomicReference<Order> database = new AtomicReference<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        orderCache = new OrderCache(new CaffeineCacheManager(), new CacheLoaderRegistry(), event -> { });
+        database.set(order(OrderStatus.RECEIVED, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getByNumber_ShouldShareEntryWithIdLookup() {
+        OrderDTO byNumber = orderCache.getByNumber("ORD-1", this::load, number -> toDto(database.get()));
+        assertEquals(orderId, byNumber.getId());
+
+        orderCache.getById(orderId, this::load);
+        orderCache.getByNumber("ORD-1", this::load, number -> fail("Índice não utilizado"));
+        assertEquals(1, loads.get());
+
+        database.set(order(OrderStatus.CALCULATED, 1));
+        orderCache.invalidate(orderId);
+
+        assertEquals(OrderStatus.CALCULATED,
+                orderCache.getByNumber("ORD-1", this::load, number -> fail("Índice não utilizado")).getStatus());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void put_ShouldKeepCacheWarmAcrossTransitions() {
+        orderCache.put(database.get(), OrderCacheTest::toDto);
+        transition(OrderStatus.PROCESSING, 1);
+        transition(OrderStatus.CALCULATED, 2);
+
+        assertEquals(OrderStatus.CALCULATED, orderCache.getById(orderId, this::load).getStatus());
+        assertEquals(OrderStatus.CALCULATED, orderCache.getStatus(orderId, id -> fail("Status não cacheado")).getStatus());
+        assertEquals(OrderStatus.CALCULATED,
+                orderCache.getByNumber("ORD-1", this::load, number -> fail("Índice não populado")).getStatus());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void put_ShouldIgnoreOlderVersionArrivingLate() {
+        Order processing = order(OrderStatus.PROCESSING, 1);
+        transition(OrderStatus.CALCULATED, 2);
+        orderCache.put(processing, OrderCacheTest::toDto);
+
+        assertEquals(OrderStatus.CALCULATED, orderCache.getById(orderId, this::load).getStatus());
+        assertEquals(OrderStatus.CALCULATED, orderCache.getStatus(orderId, id -> fail("Status não cacheado")).getStatus());
+    }
+
+    @Test
+    void put_ShouldOnlyWriteAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        Order order = database.get();
+        orderCache.put(order, OrderCacheTest::toDto);
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setVersion(1L);
+
+        assertNull(orderCache.getById(orderId, id -> null));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        OrderDTO cached = orderCache.getById(orderId, id -> fail("Pedido não cacheado"));
+        assertEquals(OrderStatus.CALCULATED, cached.getStatus());
+        assertEquals(1L, cached.getVersion());
+    }
+
+    @Test
+    void putStatusChanges_ShouldReplaceCachedOrderAndPublishAfterCommit() {
+        List<OrderStatusChangedEvent> events = new ArrayList<>();
+        orderCache = new OrderCache(new CaffeineCacheManager(), new CacheLoaderRegistry(),
+                event -> events.add((OrderStatusChangedEvent) event));
+        orderCache.put(database.get(), OrderCacheTest::toDto);
+        events.clear();
+
+        TransactionSynchronizationManager.initSynchronization();
+        orderCache.putStatusChanges(List.of(toStatus(order(OrderStatus.ERROR, 1))));
+        assertTrue(events.isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(1, events.size());
+        assertEquals(OrderStatus.ERROR, events.get(0).newStatus());
+        assertEquals(1L, events.get(0).version());
+        assertEquals(OrderStatus.ERROR, orderCache.getStatus(orderId, id -> fail("Status não cacheado")).getStatus());
+        assertNull(orderCache.peek(orderId));
+
+        orderCache.putStatusChanges(List.of(toStatus(order(OrderStatus.ERROR, 1))));
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void getById_ShouldLetWriteCommittedDuringLoadWin() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch written = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<OrderDTO> slowRead = executor.submit(() -> orderCache.getById(orderId, id -> {
+                OrderDTO snapshot = toDto(database.get());
+                loaded.countDown();
+                await(written);
+                return snapshot;
+            }));
+
+            assertTrue(loaded.await(5, TimeUnit.SECONDS));
+            Future<?> write = executor.submit(() -> transition(OrderStatus.CALCULATED, 1));
+            written.countDown();
+
+            assertEquals(OrderStatus.RECEIVED, slowRead.get(5, TimeUnit.SECONDS).getStatus());
+            write.get(5, TimeUnit.SECONDS);
+            assertEquals(OrderStatus.CALCULATED, orderCache.getById(orderId, id -> fail("Pedido não cacheado")).getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getById_ShouldLoadHotKeyOnlyOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            List<Future<OrderDTO>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    await(start);
+                    return orderCache.getById(orderId, id -> {
+                        sleep(50);
+                        return load(id);
+                    });
+                }));
+            }
+            start.countDown();
+
+            for (Future<OrderDTO> result : results) {
+                assertEquals(orderId, result.get(5, TimeUnit.SECONDS).getId());
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void concurrentReadsDuringProcessing_ShouldNeverGoBackInTime() throws Exception {
+        int readers = 8;
+        int versions = 2_000;
+        AtomicBoolean running = new AtomicBoolean(true);
+        // última versão cuja escrita no cache já terminou
+        AtomicLong published = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < readers; i++) {
+                results.add(executor.submit(() -> {
+                    int stale = 0;
+                    while (running.get()) {
+                        long committed = published.get();
+                        OrderDTO read = orderCache.getById(orderId, id -> toDto(database.get()));
+                        if (read.getVersion() < committed) {
+                            stale++;
+                        }
+                    }
+                    return stale;
+                }));
+            }
+
+            for (int version = 1; version <= versions; version++) {
+                if (version % 2 == 0) {
+                    transition(OrderStatus.PROCESSING, version);
+                } else {
+                    database.set(order(OrderStatus.PROCESSING, version));
+                    orderCache.invalidate(orderId);
+                }
+                published.set(version);
+            }
+            running.set(false);
+
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(versions, orderCache.getById(orderId, id -> toDto(database.get())).getVersion());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void transition(OrderStatus status, long version) {
+        Order order = order(status, version);
+        database.set(order);
+        orderCache.put(order, OrderCacheTest::toDto);
+    }
+
+    private OrderDTO load(UUID id) {
+        loads.incrementAndGet();
+        return toDto(database.get());
+    }
+
+    private Order order(OrderStatus status, long version) {
+        Order order = new Order();
+        order.setId(orderId);
+        order.setOrderNumber("ORD-1");
+        order.setStatus(status);
+        order.setTotalAmount(BigDecimal.valueOf(version));
+        order.setVersion(version);
+        return order;
+    }
+
+    private static OrderDTO toDto(Order order) {
+        OrderDTO dto = new OrderDTO();
+        dto.setId(order.getId());
+        dto.setOrderNumber(order.getOrderNumber());
+        dto.setStatus(order.getStatus());
+        dto.setTotalAmount(order.getTotalAmount());
+        dto.setVersion(order.getVersion());
+        return dto;
+    }
+
+    private static OrderStatusDTO toStatus(Order order) {
+        OrderStatusDTO status = new OrderStatusDTO();
+        status.setId(order.getId());
+        status.setOrderNumber(order.getOrderNumber());
+        status.setStatus(order.getStatus());
+        status.setVersion(order.getVersion());
+        return status;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
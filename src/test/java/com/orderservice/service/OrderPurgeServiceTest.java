@@ -0,0 +1,130 @@
+package com.orderservice.service;
+
+import com.orderservice.config.CacheLoaderRegistry;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderPurgeProgress;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderPurgeProgressRepository;
+import com.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({OrderPurgeService.class, OrderCache.class, CaffeineCacheManager.class, CacheLoaderRegistry.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderPurgeServiceTest {
+
+    @Autowired
+    private OrderPurgeService purgeService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderPurgeProgressRepository progressRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purgeService, "chunkSize", 2);
+        ReflectionTestUtils.setField(purgeService, "minPause", Duration.ZERO);
+        ReflectionTestUtils.setField(purgeService, "maxPause", Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+        progressRepository.deleteAll();
+    }
+
+    @Test
+    void purge_ShouldDeleteOldCompletedOrdersAndItemsInChunks() {
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(createOrder("PURGE-OLD-" + i, OrderStatus.COMPLETED, now.minusDays(200)));
+        }
+        orderRepository.save(createOrder("PURGE-RECENT", OrderStatus.COMPLETED, now.minusDays(1)));
+        orderRepository.save(createOrder("PURGE-NOTIFIED", OrderStatus.NOTIFIED, now.minusDays(200)));
+
+        OrderPurgeProgress progress = purgeService.purgeCompletedOrdersOlderThan(now.minusDays(180));
+
+        assertTrue(progress.isFinished());
+        assertEquals(5, progress.getOrdersDeleted());
+        assertEquals(5, progress.getItemsDeleted());
+        assertFalse(orderRepository.findByOrderNumber("PURGE-OLD-0").isPresent());
+        assertTrue(orderRepository.findByOrderNumber("PURGE-RECENT").isPresent());
+        assertTrue(orderRepository.findByOrderNumber("PURGE-NOTIFIED").isPresent());
+        assertEquals(5.0, meterRegistry.get("orders.purge.rows").tag("table", "orders").counter().count());
+        assertEquals(5.0, meterRegistry.get("orders.purge.rows").tag("table", "order_items").counter().count());
+    }
+
+    @Test
+    void purge_ShouldResumeUnfinishedRunWithOriginalCutoff() {
+        orderRepository.save(createOrder("RESUME-OLD", OrderStatus.COMPLETED, now.minusDays(200)));
+        orderRepository.save(createOrder("RESUME-MID", OrderStatus.COMPLETED, now.minusDays(100)));
+
+        OrderPurgeProgress interrupted = new OrderPurgeProgress();
+        interrupted.setJobName(OrderPurgeService.JOB_NAME);
+        interrupted.setCutoff(now.minusDays(150));
+        interrupted.setStartedAt(now.minusHours(1));
+        interrupted.setOrdersDeleted(10);
+        progressRepository.save(interrupted);
+
+        OrderPurgeProgress progress = purgeService.purgeCompletedOrdersOlderThan(now.minusDays(30));
+
+        assertTrue(progress.isFinished());
+        assertEquals(11, progress.getOrdersDeleted());
+        assertFalse(orderRepository.findByOrderNumber("RESUME-OLD").isPresent());
+        assertTrue(orderRepository.findByOrderNumber("RESUME-MID").isPresent());
+    }
+
+    @Test
+    void pauseFor_ShouldScaleWithLatencyAndRespectBounds() {
+        ReflectionTestUtils.setField(purgeService, "dutyCycle", 0.5);
+        ReflectionTestUtils.setField(purgeService, "minPause", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(purgeService, "maxPause", Duration.ofSeconds(1));
+
+        assertEquals(Duration.ofMillis(200), purgeService.pauseFor(Duration.ofMillis(200).toNanos()));
+        assertEquals(Duration.ofMillis(10), purgeService.pauseFor(Duration.ofMillis(1).toNanos()));
+        assertEquals(Duration.ofSeconds(1), purgeService.pauseFor(Duration.ofSeconds(5).toNanos()));
+    }
+
+    private Order createOrder(String orderNumber, OrderStatus status, LocalDateTime completedAt) {
+        Order order = new Order();
+        order.setOrderNumber(orderNumber);
+        order.setStatus(status);
+        order.setTotalAmount(new BigDecimal("100.00"));
+        order.setCompletedAt(completedAt);
+
+        OrderItem item = new OrderItem();
+        item.setProductId("PROD-001");
+        item.setProductName("Test Product");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("50.00"));
+        order.addItem(item);
+
+        return order;
+    }
+}
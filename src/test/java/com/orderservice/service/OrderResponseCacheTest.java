@@ -0,0 +1,99 @@
+package com.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.service.OrderResponseCache.CachedResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderResponseCacheTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderCache orderCache;
+
+    private ObjectMapper objectMapper;
+    private OrderResponseCache responseCache;
+    private final UUID orderId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = spy(new ObjectMapper().registerModule(new JavaTimeModule()));
+        responseCache = new OrderResponseCache(orderService, orderCache, objectMapper,
+                new CaffeineCacheManager("orderResponses", "orderStatusResponses"));
+    }
+
+    @Test
+    void status_ShouldReuseSerializedBytesWhileVersionIsUnchanged() throws Exception {
+        when(orderCache.peekStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+
+        CachedResponse first = responseCache.status(orderId);
+        CachedResponse second = responseCache.status(orderId);
+
+        assertSame(first, second);
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+        assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("\"status\":\"PROCESSING\""));
+        assertFalse(new String(first.body(), StandardCharsets.UTF_8).contains("version"));
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void status_ShouldReserializeWhenVersionChanges() {
+        when(orderCache.peekStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+        CachedResponse processing = responseCache.status(orderId);
+
+        when(orderCache.peekStatus(orderId)).thenReturn(status(OrderStatus.CALCULATED, 2L));
+        CachedResponse calculated = responseCache.status(orderId);
+
+        assertNotEquals(processing.etag(), calculated.etag());
+        assertEquals(2L, calculated.version());
+    }
+
+    @Test
+    void status_ShouldLoadThroughServiceOnCacheMiss() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.RECEIVED, 0L));
+
+        assertEquals(0L, responseCache.status(orderId).version());
+        verify(orderService).getOrderStatus(orderId);
+    }
+
+    @Test
+    void onStatusChanged_ShouldDropOlderVersionsOnly() throws Exception {
+        when(orderCache.peekStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+        responseCache.status(orderId);
+
+        responseCache.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.PROCESSING, 1L)));
+        responseCache.status(orderId);
+        verify(objectMapper, times(1)).writeValueAsBytes(any());
+
+        responseCache.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.CALCULATED, 2L)));
+        responseCache.status(orderId);
+        verify(objectMapper, times(2)).writeValueAsBytes(any());
+    }
+
+    private OrderStatusDTO status(OrderStatus status, Long version) {
+        OrderStatusDTO dto = new OrderStatusDTO();
+        dto.setId(orderId);
+        dto.setOrderNumber("ORD-1");
+        dto.setStatus(status);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,163 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.metrics.OrderMetrics;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.util.HashedTimingWheel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderRetrySchedulerTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderStateMachine orderStateMachine;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderMetrics orderMetrics;
+
+    private final Executor directExecutor = Runnable::run;
+    private final HashedTimingWheel<UUID> wheel = new HashedTimingWheel<>(Duration.ofMillis(10), 64);
+
+    private OrderRetryScheduler retryScheduler;
+    private UUID orderId;
+
+    @BeforeEach
+    void setUp() {
+        retryScheduler = new OrderRetryScheduler(orderRepository, orderStateMachine, orderService, orderMetrics,
+                directExecutor, directExecutor, wheel, 100);
+        orderId = UUID.randomUUID();
+    }
+
+    @Test
+    void scheduleRecovery_ShouldRequeueAndProcessWhenDue() throws InterruptedException {
+        when(orderStateMachine.requeue(List.of(orderId))).thenReturn(List.of(orderId));
+
+        retryScheduler.scheduleRecovery(orderId, LocalDateTime.now());
+        assertTrue(wheel.contains(orderId));
+        tickUntilEmpty();
+
+        verify(orderService).processOrders(List.of(orderId));
+        verify(orderMetrics).incrementScheduledDispatches("retry", 1);
+    }
+
+    @Test
+    void scheduleRecovery_ShouldDispatchRetriesDueInSameTickAsOneBatch() throws InterruptedException {
+        UUID other = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        when(orderStateMachine.requeue(anyCollection())).thenReturn(List.of(orderId, other));
+
+        retryScheduler.scheduleRecovery(orderId, LocalDateTime.now());
+        retryScheduler.scheduleRecovery(other, LocalDateTime.now());
+        retryScheduler.scheduleRecovery(stale, LocalDateTime.now());
+        tickOnceAllDue();
+
+        ArgumentCaptor<Collection<UUID>> requeued = ArgumentCaptor.captor();
+        verify(orderStateMachine).requeue(requeued.capture());
+        assertEquals(Set.of(orderId, other, stale), Set.copyOf(requeued.getValue()));
+        verify(orderService).processOrders(List.of(orderId, other));
+        verify(orderService, never()).processOrder(any());
+        verify(orderMetrics).incrementScheduledDispatches("retry", 2);
+    }
+
+    @Test
+    void scheduleRecovery_ShouldSkipOrderNoLongerWaitingForRetry() throws InterruptedException {
+        when(orderStateMachine.requeue(List.of(orderId))).thenReturn(List.of());
+
+        retryScheduler.scheduleRecovery(orderId, LocalDateTime.now());
+        tickUntilEmpty();
+
+        verify(orderService, never()).processOrders(anyCollection());
+    }
+
+    @Test
+    void scheduleRecovery_ShouldNotScheduleWhenRetriesAreExhausted() {
+        retryScheduler.scheduleRecovery(orderId, null);
+
+        assertFalse(wheel.contains(orderId));
+    }
+
+    @Test
+    void scheduleNotification_ShouldRescheduleWhileOrderStaysCalculated() throws InterruptedException {
+        when(orderStateMachine.getMaxRetries()).thenReturn(2);
+        when(orderStateMachine.retryDelay(anyInt())).thenReturn(Duration.ZERO);
+        OrderDTO calculated = new OrderDTO();
+        calculated.setStatus(OrderStatus.CALCULATED);
+        when(orderService.notifyExternalSystem(orderId)).thenReturn(calculated);
+
+        retryScheduler.scheduleNotification(orderId, 0);
+        tickUntilEmpty();
+
+        verify(orderService, times(2)).notifyExternalSystem(orderId);
+        assertFalse(wheel.contains(orderId));
+    }
+
+    @Test
+    void scheduleNotification_ShouldStopOnceNotified() throws InterruptedException {
+        when(orderStateMachine.getMaxRetries()).thenReturn(3);
+        when(orderStateMachine.retryDelay(anyInt())).thenReturn(Duration.ZERO);
+        OrderDTO notified = new OrderDTO();
+        notified.setStatus(OrderStatus.NOTIFIED);
+        when(orderService.notifyExternalSystem(orderId)).thenReturn(notified);
+
+        retryScheduler.scheduleNotification(orderId, 0);
+        tickUntilEmpty();
+
+        verify(orderService).notifyExternalSystem(orderId);
+    }
+
+    @Test
+    void reloadPendingRetries_ShouldScheduleStoredRetries() {
+        Map<UUID, LocalDateTime> pending = new LinkedHashMap<>();
+        pending.put(orderId, LocalDateTime.now().plusMinutes(1));
+        pending.put(UUID.randomUUID(), LocalDateTime.now().plusMinutes(2));
+        when(orderStateMachine.getMaxRetries()).thenReturn(3);
+        when(orderRepository.findPendingRetries(3, 100)).thenReturn(pending);
+
+        retryScheduler.reloadPendingRetries();
+
+        assertEquals(2, wheel.size());
+        assertTrue(wheel.contains(orderId));
+    }
+
+    private void tickOnceAllDue() throws InterruptedException {
+        Thread.sleep(30);
+        retryScheduler.tick();
+        assertEquals(0, wheel.size());
+    }
+
+    private void tickUntilEmpty() throws InterruptedException {
+        for (int i = 0; i < 100 && wheel.size() > 0; i++) {
+            Thread.sleep(10);
+            retryScheduler.tick();
+        }
+        assertEquals(0, wheel.size());
+    }
+}
@@ -1,7 +1,11 @@
 package com.orderservice.service;
 
+import com.orderservice.config.CacheLoaderRegistry;
 import com.orderservice.dto.OrderDTO;
 import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderProcessBatchResponseDTO;
+import com.orderservice.dto.OrderStatusBatchResponseDTO;
+import com.orderservice.dto.OrderStatusDTO;
 import com.orderservice.exception.DuplicateOrderException;
 import com.orderservice.integration.ExternalProductAClient;
 import com.orderservice.integration.ExternalProductBClient;
@@ -12,14 +16,20 @@ import com.orderservice.model.OrderItem;
 import com.orderservice.model.OrderStatus;
 import com.orderservice.repository.OrderRepository;
 import com.orderservice.util.OrderDuplicateChecker;
+import com.orderservice.util.OrderMapper;
 import com.orderservice.util.OrderValidator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -28,7 +38,11 @@ import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +67,18 @@ class OrderServiceImplTest {
     @Mock
     private OrderMetrics orderMetrics;
 
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Spy
+    private OrderMapper orderMapper = new OrderMapper();
+
+    @Mock
+    private OrderStateMachine orderStateMachine;
+
+    @Mock
+    private OrderRetryScheduler orderRetryScheduler;
+
     @Mock
     private OrderService self;
 
@@ -86,6 +112,11 @@ class OrderServiceImplTest {
             return null;
         }).when(notificationExecutor).execute(any(Runnable.class));
 
+        when(orderMetrics.measureExternalServiceATime(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<OrderMetrics.MeasuredOperation<?>>getArgument(1).execute());
+        when(orderMetrics.measureExternalServiceBTime(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<OrderMetrics.MeasuredOperation<?>>getArgument(1).execute());
+
         OrderItemDTO itemDTO1 = new OrderItemDTO();
         itemDTO1.setProductId("PROD-001");
         itemDTO1.setQuantity(2);
@@ -132,6 +163,16 @@ class OrderServiceImplTest {
         externalProducts = Arrays.asList(product1, product2);
 
         ReflectionTestUtils.setField(orderService, "self", self);
+        ReflectionTestUtils.setField(orderService, "orderProcessingExecutor", orderProcessingExecutor);
+        ReflectionTestUtils.setField(orderService, "notificationExecutor", notificationExecutor);
+        ReflectionTestUtils.setField(orderService, "orderCache", new OrderCache(new CaffeineCacheManager(), new CacheLoaderRegistry(), event -> { }));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -147,6 +188,238 @@ class OrderServiceImplTest {
         verify(orderValidator).validate(orderDTO);
         verify(orderRepository).save(any(Order.class));
         verify(orderProcessingExecutor).execute(any(Runnable.class));
+        verify(orderMetrics).incrementOrdersReceived();
+        verify(orderMetrics).recordOrderCreationTime(anyLong(), eq(OrderMetrics.OUTCOME_SUCCESS));
+    }
+
+    @Test
+    void createOrder_ShouldStartProcessingOnlyAfterCommit() throws DuplicateOrderException {
+        when(duplicateChecker.isOrderNumberDuplicate(anyString())).thenReturn(false);
+        when(duplicateChecker.isOrderContentDuplicate(any(OrderDTO.class))).thenReturn(false);
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        TransactionSynchronizationManager.initSynchronization();
+        orderService.createOrder(orderDTO);
+        verify(orderProcessingExecutor, never()).execute(any(Runnable.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(orderProcessingExecutor).execute(any(Runnable.class));
+        verify(self).processOrder(order.getId());
+    }
+
+    @Test
+    void processInSinglePass_ShouldCalculateAndNotifyWithConditionalUpdates() {
+        ReflectionTestUtils.setField(orderService, "singlePassProcessing", true);
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculation(order)).thenReturn(true);
+        when(orderRepository.applyNotification(order)).thenReturn(true);
+
+        orderService.processOrderAsync(orderId);
+
+        assertEquals(OrderStatus.NOTIFIED, order.getStatus());
+        assertEquals(0, BigDecimal.valueOf(400).compareTo(order.getTotalAmount()));
+        assertEquals("Produto 1", order.getItems().get(0).getProductName());
+        assertNotNull(order.getProcessedAt());
+        assertNotNull(order.getCompletedAt());
+        verify(externalProductBClient).notifyOrder(any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderRepository, never()).findById(any());
+        verify(self, never()).processOrder(any());
+        verify(orderMetrics).incrementOrdersProcessed();
+        verify(orderMetrics).incrementOrdersNotified();
+        verify(orderMetrics).recordOrderProcessingTime(anyLong(), eq(OrderMetrics.OUTCOME_SUCCESS), eq(OrderStatus.CALCULATED));
+    }
+
+    @Test
+    void processInSinglePass_ShouldStopWhenAnotherExecutionCalculatedFirst() {
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculation(order)).thenReturn(false);
+
+        orderService.processInSinglePass(orderId);
+
+        verify(externalProductBClient, never()).notifyOrder(any());
+        verify(orderRepository, never()).applyNotification(any());
+        verify(orderMetrics, never()).incrementOrdersProcessed();
+        verify(orderMetrics).recordOrderProcessingTime(anyLong(), eq(OrderMetrics.OUTCOME_SKIPPED), eq(OrderStatus.RECEIVED));
+    }
+
+    @Test
+    void processInSinglePass_ShouldSkipOrderAlreadyCalculatedWithoutNotifying() {
+        order.setStatus(OrderStatus.CALCULATED);
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+
+        orderService.processInSinglePass(orderId);
+
+        verify(externalProductAClient, never()).getProducts();
+        verify(orderRepository, never()).applyCalculation(any());
+        verify(externalProductBClient, never()).notifyOrder(any());
+        verify(orderMetrics).recordOrderProcessingTime(anyLong(), eq(OrderMetrics.OUTCOME_SKIPPED), eq(OrderStatus.CALCULATED));
+        assertEquals(OrderStatus.CALCULATED, order.getStatus());
+    }
+
+    @Test
+    void notifyCalculatedOrder_ShouldKeepOrderCalculatedWhenNotificationFails() {
+        order.setStatus(OrderStatus.CALCULATED);
+        doThrow(new RuntimeException("Service B unavailable")).when(externalProductBClient).notifyOrder(any());
+
+        assertThrows(RuntimeException.class, () -> orderService.notifyCalculatedOrder(order));
+
+        assertEquals(OrderStatus.CALCULATED, order.getStatus());
+        assertFalse(order.isNotifiedToExternalB());
+        verify(orderRepository, never()).applyNotification(any());
+        verify(orderMetrics).recordOrderNotificationTime(anyLong(), eq(OrderMetrics.OUTCOME_ERROR), eq(OrderStatus.CALCULATED));
+    }
+
+    @Test
+    void processInSinglePass_ShouldMarkErrorWithoutLoadingWhenPricingFails() {
+        ReflectionTestUtils.setField(orderService, "singlePassProcessing", true);
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculation(order)).thenThrow(new RuntimeException("deadlock"));
+        LocalDateTime nextRetryAt = LocalDateTime.now().plusMinutes(1);
+        when(orderStateMachine.markErrored(orderId)).thenReturn(Map.of(orderId, nextRetryAt));
+
+        orderService.processOrderAsync(orderId);
+
+        verify(orderStateMachine).markErrored(orderId);
+        verify(orderRepository, never()).findById(any());
+        verify(orderRepository, never()).save(any(Order.class));
+        verify(orderMetrics).incrementOrdersError();
+        verify(orderRetryScheduler).scheduleRecovery(orderId, nextRetryAt);
+    }
+
+    @Test
+    void processOrders_ShouldPriceAllOrdersWithOneCatalogLookupAndOneBatchUpdate() {
+        Order other = receivedOrder("ORD-TEST-456", "PROD-002", 3);
+        when(orderRepository.findAllWithItemsByIdIn(List.of(orderId, other.getId())))
+                .thenReturn(List.of(order, other));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculations(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.applyNotification(any(Order.class))).thenReturn(true);
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(List.of(orderId, other.getId(), orderId));
+
+        assertEquals(List.of(orderId, other.getId()), result.getCalculated());
+        assertTrue(result.getSkipped().isEmpty());
+        assertTrue(result.getFailed().isEmpty());
+        assertEquals(0, BigDecimal.valueOf(400).compareTo(order.getTotalAmount()));
+        assertEquals(0, BigDecimal.valueOf(600).compareTo(other.getTotalAmount()));
+        verify(externalProductAClient).getProducts();
+        verify(orderRepository).applyCalculations(List.of(order, other));
+        verify(externalProductBClient, times(2)).notifyOrder(any());
+        verify(orderMetrics, times(2)).incrementOrdersProcessed();
+    }
+
+    @Test
+    void processOrders_ShouldReportSkippedAndNotFoundOrders() {
+        order.setStatus(OrderStatus.NOTIFIED);
+        UUID missingId = UUID.randomUUID();
+        when(orderRepository.findAllWithItemsByIdIn(List.of(orderId, missingId))).thenReturn(List.of(order));
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(List.of(orderId, missingId));
+
+        assertEquals(List.of(orderId), result.getSkipped());
+        assertEquals(List.of(missingId), result.getNotFound());
+        assertTrue(result.getCalculated().isEmpty());
+        verify(externalProductAClient, never()).getProducts();
+        verify(orderRepository, never()).applyCalculations(anyList());
+    }
+
+    @Test
+    void processOrders_ShouldSkipCalculatedOrderWithoutNotifying() {
+        order.setStatus(OrderStatus.CALCULATED);
+        when(orderRepository.findAllWithItemsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(List.of(orderId));
+
+        assertEquals(List.of(orderId), result.getSkipped());
+        verify(externalProductBClient, never()).notifyOrder(any());
+        verify(orderRepository, never()).applyNotification(any());
+    }
+
+    @Test
+    void processOrders_ShouldSkipOrdersCalculatedByAnotherExecution() {
+        when(orderRepository.findAllWithItemsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculations(anyList())).thenReturn(List.of());
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(List.of(orderId));
+
+        assertEquals(List.of(orderId), result.getSkipped());
+        verify(externalProductBClient, never()).notifyOrder(any());
+        verify(orderMetrics, never()).incrementOrdersProcessed();
+        verify(orderMetrics).recordOrderProcessingTime(anyLong(), eq(OrderMetrics.OUTCOME_SKIPPED), eq(OrderStatus.RECEIVED));
+    }
+
+    @Test
+    void processOrders_ShouldMarkBatchErroredWhenUpdateFails() {
+        when(orderRepository.findAllWithItemsByIdIn(List.of(orderId))).thenReturn(List.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculations(anyList())).thenThrow(new RuntimeException("deadlock"));
+        LocalDateTime nextRetryAt = LocalDateTime.now().plusMinutes(1);
+        when(orderStateMachine.markErrored(List.of(orderId), OrderStatus.RECEIVED)).thenReturn(Map.of(orderId, nextRetryAt));
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(List.of(orderId));
+
+        assertEquals(List.of(orderId), result.getFailed());
+        verify(orderMetrics).incrementOrdersError();
+        verify(orderRetryScheduler).scheduleRecovery(orderId, nextRetryAt);
+        verify(externalProductBClient, never()).notifyOrder(any());
+    }
+
+    @Test
+    void processOrders_ShouldOnlyReportOrdersThatActuallyErrored() {
+        Order other = new Order();
+        other.setId(UUID.randomUUID());
+        other.setOrderNumber("ORD-OTHER");
+        other.setStatus(OrderStatus.RECEIVED);
+        other.setCreatedAt(LocalDateTime.now());
+        other.setItems(new ArrayList<>(order.getItems()));
+        List<UUID> ids = List.of(orderId, other.getId());
+        when(orderRepository.findAllWithItemsByIdIn(ids)).thenReturn(List.of(order, other));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculations(anyList())).thenThrow(new RuntimeException("deadlock"));
+        when(orderStateMachine.markErrored(ids, OrderStatus.RECEIVED)).thenReturn(Map.of(orderId, LocalDateTime.now()));
+
+        OrderProcessBatchResponseDTO result = orderService.processOrders(ids);
+
+        assertEquals(List.of(orderId), result.getFailed());
+        assertEquals(List.of(other.getId()), result.getSkipped());
+        verify(orderMetrics).incrementOrdersError();
+        verify(orderRetryScheduler).scheduleRecovery(eq(orderId), any(LocalDateTime.class));
+        verify(orderRetryScheduler, never()).scheduleRecovery(eq(other.getId()), any());
+    }
+
+    @Test
+    void processInSinglePass_ShouldScheduleNotificationRetryWhenNotifyFails() {
+        when(orderRepository.findWithItemsById(orderId)).thenReturn(Optional.of(order));
+        when(externalProductAClient.getProducts()).thenReturn(externalProducts);
+        when(orderRepository.applyCalculation(order)).thenReturn(true);
+        doThrow(new RuntimeException("Service B unavailable")).when(externalProductBClient).notifyOrder(any());
+
+        orderService.processInSinglePass(orderId);
+
+        assertEquals(OrderStatus.CALCULATED, order.getStatus());
+        verify(orderRetryScheduler).scheduleNotification(orderId, 0);
+        verify(orderStateMachine, never()).transition(any(UUID.class), any(OrderStatus.class));
+    }
+
+    @Test
+    void processOrderFallback_ShouldMarkErrorWithNextRetry() {
+        LocalDateTime nextRetryAt = LocalDateTime.now().plusMinutes(1);
+        order.setRetryCount(1);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderStateMachine.nextRetryAt(eq(1), any(LocalDateTime.class))).thenReturn(nextRetryAt);
+
+        orderService.processOrderFallback(orderId, new RuntimeException("circuito aberto"));
+
+        assertEquals(OrderStatus.ERROR, order.getStatus());
+        assertEquals(nextRetryAt, order.getNextRetryAt());
+        verify(orderMetrics).incrementOrdersError();
+        verify(orderRetryScheduler).scheduleRecovery(orderId, nextRetryAt);
     }
 
     @Test
@@ -156,6 +429,8 @@ class OrderServiceImplTest {
 
         assertThrows(DuplicateOrderException.class, () -> orderService.createOrder(orderDTO));
         verify(orderRepository, never()).save(any(Order.class));
+        verify(orderMetrics).incrementDuplicateOrders();
+        verify(orderMetrics).recordOrderCreationTime(anyLong(), eq(OrderMetrics.OUTCOME_DUPLICATE));
     }
 
     @Test
@@ -179,6 +454,8 @@ class OrderServiceImplTest {
         assertEquals(OrderStatus.CALCULATED, result.getStatus());
         assertEquals(0, new BigDecimal("400.00").compareTo(order.getTotalAmount()));
         verify(orderRepository, times(2)).save(any(Order.class));
+        verify(orderMetrics).incrementOrdersProcessed();
+        verify(orderMetrics).recordOrderProcessingTime(anyLong(), eq(OrderMetrics.OUTCOME_SUCCESS), eq(OrderStatus.CALCULATED));
     }
 
     @Test
@@ -227,7 +504,8 @@ class OrderServiceImplTest {
     @Test
     void getOrderById_ShouldReturnOrder() {
         when(orderRepository.findById(orderId)).thenReturn(Optional.of(order));
-        when(self.getOrderById(orderId)).thenReturn(orderService.mapToDto(order));
+        OrderDTO mapped = orderMapper.toDto(order);
+        when(self.getOrderById(orderId)).thenReturn(mapped);
 
         OrderDTO result = orderService.getOrderById(orderId);
 
@@ -242,6 +520,21 @@ class OrderServiceImplTest {
         assertThrows(RuntimeException.class, () -> orderService.getOrderById(orderId));
     }
 
+    @Test
+    void getOrderById_ShouldFallBackToArchiveWhenNotInDatabase() {
+        OrderDTO archived = new OrderDTO();
+        archived.setId(orderId);
+        archived.setOrderNumber("ORD-ARCHIVED");
+        archived.setStatus(OrderStatus.COMPLETED);
+        when(orderRepository.findById(orderId)).thenReturn(Optional.empty());
+        when(orderArchiveService.findById(orderId)).thenReturn(Optional.of(archived));
+
+        OrderDTO result = orderService.getOrderById(orderId);
+
+        assertEquals("ORD-ARCHIVED", result.getOrderNumber());
+        assertEquals(OrderStatus.COMPLETED, result.getStatus());
+    }
+
     @Test
     void getOrderByNumber_ShouldReturnOrder() {
         String orderNumber = "ORD-TEST-123";
@@ -260,4 +553,72 @@ class OrderServiceImplTest {
 
         assertThrows(RuntimeException.class, () -> orderService.getOrderByNumber(orderNumber));
     }
+
+    @Test
+    void getOrderStatuses_ShouldServeCachedStatusesAndLoadMissesInChunks() {
+        OrderCache orderCache = (OrderCache) ReflectionTestUtils.getField(orderService, "orderCache");
+        OrderStatusDTO cached = statusOf(orderId, "ORD-TEST-123", OrderStatus.CALCULATED);
+        orderCache.putStatuses(List.of(cached));
+
+        List<UUID> ids = new ArrayList<>();
+        ids.add(orderId);
+        for (int i = 0; i < OrderServiceImpl.STATUS_QUERY_CHUNK_SIZE + 1; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        UUID loadedId = ids.get(1);
+        when(orderRepository.findStatusesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> chunk = invocation.getArgument(0);
+            return chunk.contains(loadedId)
+                    ? List.of(statusOf(loadedId, "ORD-LOADED", OrderStatus.PROCESSING))
+                    : List.of();
+        });
+        when(orderRepository.findStatusesByOrderNumberIn(anyCollection())).thenReturn(List.of());
+
+        OrderStatusBatchResponseDTO response = orderService.getOrderStatuses(ids, List.of("ORD-TEST-123", "ORD-MISSING"));
+
+        assertEquals(List.of(orderId, loadedId), response.getStatuses().stream().map(OrderStatusDTO::getId).toList());
+        assertEquals(OrderServiceImpl.STATUS_QUERY_CHUNK_SIZE + 1, response.getNotFound().size());
+        assertTrue(response.getNotFound().contains("ORD-MISSING"));
+        verify(orderRepository, times(2)).findStatusesByIdIn(anyCollection());
+        verify(orderRepository).findStatusesByOrderNumberIn(List.of("ORD-MISSING"));
+        assertEquals(OrderStatus.PROCESSING, orderCache.peekStatus(loadedId).getStatus());
+    }
+
+    @Test
+    void getOrderStatuses_ShouldNotQueryWhenEverythingIsCached() {
+        OrderCache orderCache = (OrderCache) ReflectionTestUtils.getField(orderService, "orderCache");
+        orderCache.putStatuses(List.of(statusOf(orderId, "ORD-TEST-123", OrderStatus.NOTIFIED)));
+
+        OrderStatusBatchResponseDTO response = orderService.getOrderStatuses(List.of(orderId), List.of("ORD-TEST-123"));
+
+        assertEquals(1, response.getStatuses().size());
+        assertTrue(response.getNotFound().isEmpty());
+        verify(orderRepository, never()).findStatusesByIdIn(anyCollection());
+        verify(orderRepository, never()).findStatusesByOrderNumberIn(anyCollection());
+    }
+
+    private OrderStatusDTO statusOf(UUID id, String orderNumber, OrderStatus status) {
+        OrderStatusDTO dto = new OrderStatusDTO();
+        dto.setId(id);
+        dto.setOrderNumber(orderNumber);
+        dto.setStatus(status);
+        dto.setVersion(1L);
+        return dto;
+    }
+
+    private Order receivedOrder(String orderNumber, String productId, int quantity) {
+        Order received = new Order();
+        received.setId(UUID.randomUUID());
+        received.setOrderNumber(orderNumber);
+        received.setStatus(OrderStatus.RECEIVED);
+        received.setCreatedAt(LocalDateTime.now());
+        received.setTotalAmount(BigDecimal.ZERO);
+
+        OrderItem item = new OrderItem();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        item.setOrder(received);
+        received.setItems(List.of(item));
+        return received;
+    }
 }
@@ -0,0 +1,215 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.repository.OrderRepository;
+import com.orderservice.repository.OrderRepositoryCustom.ErroredStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStateMachineTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderCache orderCache;
+
+    private OrderStateMachine stateMachine;
+
+    @BeforeEach
+    void setUp() {
+        stateMachine = new OrderStateMachine(orderRepository, orderCache, 4,
+                Duration.ofMinutes(1), Duration.ofMinutes(3), 0);
+    }
+
+    @Test
+    void canTransition_ShouldFollowOrderLifecycle() {
+        assertTrue(OrderStateMachine.canTransition(OrderStatus.RECEIVED, OrderStatus.CALCULATED));
+        assertTrue(OrderStateMachine.canTransition(OrderStatus.CALCULATED, OrderStatus.NOTIFIED));
+        assertTrue(OrderStateMachine.canTransition(OrderStatus.ERROR, OrderStatus.RECEIVED));
+        assertFalse(OrderStateMachine.canTransition(OrderStatus.NOTIFIED, OrderStatus.ERROR));
+        assertFalse(OrderStateMachine.canTransition(OrderStatus.RECEIVED, OrderStatus.NOTIFIED));
+        assertFalse(OrderStateMachine.canTransition(OrderStatus.COMPLETED, OrderStatus.RECEIVED));
+        assertEquals(EnumSet.of(OrderStatus.RECEIVED, OrderStatus.PROCESSING, OrderStatus.CALCULATED),
+                OrderStateMachine.sourcesOf(OrderStatus.ERROR));
+    }
+
+    @Test
+    void apply_ShouldRejectIllegalTransitionAndAllowSameStatus() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.NOTIFIED);
+
+        assertThrows(IllegalStateException.class, () -> OrderStateMachine.apply(order, OrderStatus.ERROR));
+        assertEquals(OrderStatus.NOTIFIED, order.getStatus());
+
+        OrderStateMachine.apply(order, OrderStatus.NOTIFIED);
+        OrderStateMachine.apply(order, OrderStatus.COMPLETED);
+        assertEquals(OrderStatus.COMPLETED, order.getStatus());
+    }
+
+    @Test
+    void transition_ShouldCompareAndSetFromLegalSourcesAndPublishReturnedStatus() {
+        UUID id = UUID.randomUUID();
+        OrderStatusDTO returned = status(id, OrderStatus.RECEIVED);
+        when(orderRepository.transitionStatus(List.of(id), Set.of(OrderStatus.ERROR), OrderStatus.RECEIVED))
+                .thenReturn(List.of(returned));
+
+        assertTrue(stateMachine.transition(id, OrderStatus.RECEIVED));
+        verify(orderCache).putStatusChanges(List.of(returned));
+    }
+
+    @Test
+    void transition_ToErrorShouldScheduleNextRetry() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime before = LocalDateTime.now();
+        when(orderRepository.markErrored(eq(List.of(id)), eq(OrderStateMachine.sourcesOf(OrderStatus.ERROR)), any()))
+                .thenAnswer(invocation -> List.of(new ErroredStatus(status(id, OrderStatus.ERROR),
+                        invocation.<IntFunction<LocalDateTime>>getArgument(2).apply(1))));
+
+        assertTrue(stateMachine.transition(id, OrderStatus.ERROR));
+        verify(orderRepository, never()).transitionStatus(anyCollection(), any(), any());
+        verify(orderCache).putStatusChanges(List.of(status(id, OrderStatus.ERROR)));
+
+        ArgumentCaptor<IntFunction<LocalDateTime>> schedule = ArgumentCaptor.captor();
+        verify(orderRepository).markErrored(anyCollection(), any(), schedule.capture());
+        assertFalse(schedule.getValue().apply(1).isBefore(before.plusMinutes(2)));
+        assertNull(schedule.getValue().apply(4));
+    }
+
+    @Test
+    void markErrored_ShouldReturnScheduledRetryWithoutRereadingIt() {
+        UUID id = UUID.randomUUID();
+        LocalDateTime nextRetryAt = LocalDateTime.now().plusMinutes(1);
+        when(orderRepository.markErrored(eq(List.of(id)), eq(OrderStateMachine.sourcesOf(OrderStatus.ERROR)), any()))
+                .thenReturn(List.of(new ErroredStatus(status(id, OrderStatus.ERROR), nextRetryAt)));
+
+        assertEquals(Map.of(id, nextRetryAt), stateMachine.markErrored(id));
+        verify(orderCache).putStatusChanges(List.of(status(id, OrderStatus.ERROR)));
+        verifyNoMoreInteractions(orderRepository);
+    }
+
+    @Test
+    void transition_ShouldReportLostRace() {
+        UUID id = UUID.randomUUID();
+        when(orderRepository.transitionStatus(List.of(id), Set.of(OrderStatus.CALCULATED), OrderStatus.NOTIFIED))
+                .thenReturn(List.of());
+
+        assertFalse(stateMachine.transition(id, OrderStatus.CALCULATED, OrderStatus.NOTIFIED));
+        verify(orderCache).putStatusChanges(List.of());
+    }
+
+    @Test
+    void transition_ShouldRejectIllegalTransitionWithoutTouchingDatabase() {
+        assertThrows(IllegalArgumentException.class,
+                () -> stateMachine.transition(UUID.randomUUID(), OrderStatus.NOTIFIED, OrderStatus.RECEIVED));
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    void transitionAll_ShouldSplitLargeListsIntoChunks() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < OrderStateMachine.BULK_CHUNK_SIZE + 5; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        when(orderRepository.transitionStatus(anyCollection(), eq(Set.of(OrderStatus.NOTIFIED)), eq(OrderStatus.COMPLETED)))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(0).stream()
+                        .map(id -> status(id, OrderStatus.COMPLETED)).toList());
+
+        int updated = stateMachine.transitionAll(ids, OrderStatus.NOTIFIED, OrderStatus.COMPLETED);
+
+        assertEquals(ids.size(), updated);
+        verify(orderRepository, times(2)).transitionStatus(anyCollection(), any(), eq(OrderStatus.COMPLETED));
+        ArgumentCaptor<List<OrderStatusDTO>> published = ArgumentCaptor.captor();
+        verify(orderCache, times(2)).putStatusChanges(published.capture());
+        assertEquals(OrderStateMachine.BULK_CHUNK_SIZE, published.getAllValues().get(0).size());
+        assertEquals(5, published.getAllValues().get(1).size());
+    }
+
+    @Test
+    void requeue_ShouldMoveErroredOrdersBackToReceived() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        OrderStatusDTO requeued = status(ids.get(0), OrderStatus.RECEIVED);
+        when(orderRepository.requeueErrored(eq(ids), any(LocalDateTime.class))).thenReturn(List.of(requeued));
+
+        assertEquals(List.of(ids.get(0)), stateMachine.requeue(ids));
+        verify(orderCache).putStatusChanges(List.of(requeued));
+    }
+
+    @Test
+    void requeueDue_ShouldClaimDueOrdersAndPublishStatus() {
+        OrderStatusDTO claimed = status(UUID.randomUUID(), OrderStatus.RECEIVED);
+        when(orderRepository.requeueDueErrored(any(LocalDateTime.class), eq(4), eq(50)))
+                .thenReturn(List.of(claimed));
+
+        assertEquals(List.of(claimed.getId()), stateMachine.requeueDue(50));
+        verify(orderCache).putStatusChanges(List.of(claimed));
+    }
+
+    @Test
+    void nextRetryAt_ShouldDoubleBackoffUpToMaximum() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+        assertEquals(now.plusMinutes(1), stateMachine.nextRetryAt(0, now));
+        assertEquals(now.plusMinutes(2), stateMachine.nextRetryAt(1, now));
+        assertEquals(now.plusMinutes(3), stateMachine.nextRetryAt(2, now));
+        assertEquals(now.plusMinutes(3), stateMachine.nextRetryAt(3, now));
+        assertNull(stateMachine.nextRetryAt(4, now));
+    }
+
+    @Test
+    void transitionAll_ToErrorShouldDrawJitterPerOrder() {
+        OrderStateMachine jittered = new OrderStateMachine(orderRepository, orderCache, 4,
+                Duration.ofHours(1), Duration.ofHours(1), 0.5);
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        Map<UUID, LocalDateTime> errored = new LinkedHashMap<>();
+        when(orderRepository.markErrored(eq(ids), eq(Set.of(OrderStatus.RECEIVED)), any())).thenAnswer(invocation -> {
+            // o repositório aplica o agendamento uma vez por linha, com o mesmo número de tentativas
+            IntFunction<LocalDateTime> nextRetryAt = invocation.getArgument(2);
+            ids.forEach(id -> errored.put(id, nextRetryAt.apply(0)));
+            return ids.stream().map(id -> new ErroredStatus(status(id, OrderStatus.ERROR), errored.get(id))).toList();
+        });
+
+        assertEquals(2, jittered.transitionAll(ids, OrderStatus.RECEIVED, OrderStatus.ERROR));
+
+        assertNotEquals(errored.get(ids.get(0)), errored.get(ids.get(1)));
+    }
+
+    @Test
+    void retryDelay_ShouldStayWithinJitterBounds() {
+        OrderStateMachine jittered = new OrderStateMachine(orderRepository, orderCache, 4,
+                Duration.ofMinutes(1), Duration.ofHours(1), 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            long millis = jittered.retryDelay(1).toMillis();
+            assertTrue(millis >= 96_000 && millis <= 144_000, "atraso fora da faixa: " + millis);
+        }
+    }
+
+    private static OrderStatusDTO status(UUID id, OrderStatus status) {
+        return OrderStatusDTO.builder().id(id).status(status).version(1L).build();
+    }
+}
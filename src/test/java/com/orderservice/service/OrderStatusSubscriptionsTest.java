@@ -0,0 +1,169 @@
+package com.orderservice.service;
+
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.event.OrderStatusChangedEvent;
+import com.orderservice.exception.SubscriptionLimitExceededException;
+import com.orderservice.model.OrderStatus;
+import com.orderservice.service.OrderResponseCache.CachedResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatusSubscriptionsTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderResponseCache responseCache;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ScheduledFuture<?> timer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrderStatusSubscriptions subscriptions;
+    private final UUID orderId = UUID.randomUUID();
+    private final CachedResponse response = new CachedResponse(new byte[0], "\"etag\"", 1L);
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        subscriptions = new OrderStatusSubscriptions(orderService, responseCache, Runnable::run,
+                taskScheduler, meterRegistry);
+        ReflectionTestUtils.setField(subscriptions, "maxConnections", 10);
+        ReflectionTestUtils.setField(subscriptions, "maxPerOrder", 2);
+        ReflectionTestUtils.setField(subscriptions, "streamTimeout", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(subscriptions, "maxWait", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(subscriptions, "retryAfter", Duration.ofSeconds(7));
+    }
+
+    @Test
+    void awaitStatus_ShouldCompleteImmediatelyWhenStatusAlreadyReached() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.NOTIFIED, 3L));
+        when(responseCache.status(orderId)).thenReturn(response);
+
+        CompletableFuture<CachedResponse> result =
+                subscriptions.awaitStatus(orderId, OrderStatus.CALCULATED, Duration.ofSeconds(30));
+
+        assertSame(response, result.join());
+        assertEquals(0, subscriptions.activeSubscribers());
+        verifyNoInteractions(taskScheduler);
+    }
+
+    @Test
+    void awaitStatus_ShouldCompleteOnlyWhenTargetStatusArrives() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+        doReturn(timer).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        CompletableFuture<CachedResponse> result =
+                subscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofSeconds(30));
+        assertEquals(1, subscriptions.activeSubscribers());
+
+        subscriptions.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.CALCULATED, 2L)));
+        assertFalse(result.isDone());
+
+        when(responseCache.status(orderId)).thenReturn(response);
+        subscriptions.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.NOTIFIED, 3L)));
+
+        assertSame(response, result.join());
+        assertEquals(0, subscriptions.activeSubscribers());
+        verify(timer).cancel(false);
+    }
+
+    @Test
+    void awaitStatus_ShouldRespondWithCurrentStatusOnTimeout() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+        doReturn(timer).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        Instant before = Instant.now();
+        CompletableFuture<CachedResponse> result =
+                subscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofMinutes(10));
+
+        ArgumentCaptor<Runnable> timeout = ArgumentCaptor.forClass(Runnable.class);
+        ArgumentCaptor<Instant> deadline = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler).schedule(timeout.capture(), deadline.capture());
+        assertFalse(deadline.getValue().isAfter(Instant.now().plusSeconds(60)));
+        assertFalse(deadline.getValue().isBefore(before.plusSeconds(60)));
+
+        when(responseCache.status(orderId)).thenReturn(response);
+        timeout.getValue().run();
+
+        assertSame(response, result.join());
+        assertEquals(0, subscriptions.activeSubscribers());
+    }
+
+    @Test
+    void awaitStatus_ShouldRejectAboveLimitPerOrder() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+        doReturn(timer).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+
+        subscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofSeconds(30));
+        subscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofSeconds(30));
+
+        SubscriptionLimitExceededException rejected = assertThrows(SubscriptionLimitExceededException.class,
+                () -> subscriptions.awaitStatus(orderId, OrderStatus.NOTIFIED, Duration.ofSeconds(30)));
+        assertEquals(7, rejected.getRetryAfterSeconds());
+        assertEquals(2, subscriptions.activeSubscribers());
+        assertEquals(1.0, meterRegistry.get("orders.status.subscriptions.rejected").counter().count());
+    }
+
+    @Test
+    void stream_ShouldCloseWhenOrderReachesFinalStatus() {
+        when(orderService.getOrderStatus(orderId)).thenReturn(status(OrderStatus.PROCESSING, 1L));
+
+        assertNotNull(subscriptions.stream(orderId));
+        assertEquals(1, subscriptions.activeSubscribers());
+
+        subscriptions.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.CALCULATED, 2L)));
+        assertEquals(1, subscriptions.activeSubscribers());
+
+        subscriptions.onStatusChanged(new OrderStatusChangedEvent(status(OrderStatus.NOTIFIED, 3L)));
+        assertEquals(0, subscriptions.activeSubscribers());
+    }
+
+    @Test
+    void stream_ShouldNotRegisterWhenOrderDoesNotExist() {
+        when(orderService.getOrderStatus(orderId)).thenThrow(new RuntimeException("Pedido não encontrado"));
+
+        assertThrows(RuntimeException.class, () -> subscriptions.stream(orderId));
+        assertEquals(0, subscriptions.activeSubscribers());
+    }
+
+    @Test
+    void reached_ShouldFollowLifecycleOrderExceptForError() {
+        assertTrue(OrderStatusSubscriptions.reached(OrderStatus.CALCULATED, OrderStatus.CALCULATED));
+        assertTrue(OrderStatusSubscriptions.reached(OrderStatus.NOTIFIED, OrderStatus.CALCULATED));
+        assertFalse(OrderStatusSubscriptions.reached(OrderStatus.PROCESSING, OrderStatus.CALCULATED));
+        assertFalse(OrderStatusSubscriptions.reached(OrderStatus.ERROR, OrderStatus.NOTIFIED));
+        assertTrue(OrderStatusSubscriptions.reached(OrderStatus.ERROR, OrderStatus.ERROR));
+    }
+
+    private OrderStatusDTO status(OrderStatus status, Long version) {
+        OrderStatusDTO dto = new OrderStatusDTO();
+        dto.setId(orderId);
+        dto.setOrderNumber("ORD-1");
+        dto.setStatus(status);
+        dto.setVersion(version);
+        return dto;
+    }
+}
@@ -0,0 +1,105 @@
+package com.orderservice.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    private static final long TICK_NANOS = Duration.ofMillis(100).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> fired = new ArrayList<>();
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HashedTimingWheel<>(Duration.ofMillis(100), 8, clock::get);
+    }
+
+    @Test
+    void expire_ShouldReturnTasksOnlyAfterTheirDeadline() {
+        wheel.schedule("a", Duration.ofMillis(250), () -> fired.add("a"));
+
+        advanceTicks(2);
+        assertTrue(fired.isEmpty());
+
+        advanceTicks(1);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void expire_ShouldKeepTasksThatNeedMoreThanOneRound() {
+        wheel.schedule("long", Duration.ofMillis(2_000), () -> fired.add("long"));
+
+        advanceTicks(8);
+        advanceTicks(8);
+        assertTrue(fired.isEmpty());
+        assertTrue(wheel.contains("long"));
+
+        advanceTicks(4);
+        assertEquals(List.of("long"), fired);
+    }
+
+    @Test
+    void expire_ShouldCatchUpOnMissedTicks() {
+        wheel.schedule("a", Duration.ofMillis(100), () -> fired.add("a"));
+        wheel.schedule("b", Duration.ofMillis(5_000), () -> fired.add("b"));
+
+        clock.addAndGet(TICK_NANOS * 100);
+        fire();
+
+        assertEquals(List.of("a", "b"), fired);
+    }
+
+    @Test
+    void schedule_ShouldReplaceTaskWithSameKey() {
+        wheel.schedule("a", Duration.ofMillis(100), () -> fired.add("first"));
+        wheel.schedule("a", Duration.ofMillis(300), () -> fired.add("second"));
+        assertEquals(1, wheel.size());
+
+        advanceTicks(1);
+        assertTrue(fired.isEmpty());
+
+        advanceTicks(2);
+        assertEquals(List.of("second"), fired);
+    }
+
+    @Test
+    void schedule_ShouldFirePastDeadlinesOnNextTick() {
+        wheel.schedule("late", Duration.ofMinutes(-1), () -> fired.add("late"));
+
+        advanceTicks(1);
+        assertEquals(List.of("late"), fired);
+    }
+
+    @Test
+    void cancel_ShouldDropPendingTask() {
+        wheel.schedule("a", Duration.ofMillis(100), () -> fired.add("a"));
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        advanceTicks(1);
+
+        assertTrue(fired.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+
+    private void advanceTicks(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            clock.addAndGet(TICK_NANOS);
+            fire();
+        }
+    }
+
+    private void fire() {
+        wheel.expire().forEach(Runnable::run);
+    }
+}
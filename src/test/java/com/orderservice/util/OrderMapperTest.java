@@ -0,0 +1,149 @@
+package com.orderservice.util;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.integration.dto.ExternalOrderDTO;
+import com.orderservice.model.Order;
+import com.orderservice.model.OrderItem;
+import com.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderMapperTest {
+
+    private OrderMapper orderMapper;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        orderMapper = new OrderMapper();
+
+        order = new Order();
+        order.setId(UUID.randomUUID());
+        order.setOrderNumber("ORD-MAP-1");
+        order.setStatus(OrderStatus.CALCULATED);
+        order.setCreatedAt(LocalDateTime.of(2025, 5, 8, 10, 0));
+        order.setProcessedAt(LocalDateTime.of(2025, 5, 8, 10, 0, 2));
+        order.setTotalAmount(new BigDecimal("250.00"));
+        order.setVersion(2L);
+
+        OrderItem item1 = new OrderItem();
+        item1.setId(UUID.randomUUID());
+        item1.setProductId("PROD-001");
+        item1.setProductName("Produto 1");
+        item1.setQuantity(2);
+        item1.setPrice(new BigDecimal("100.00"));
+        order.addItem(item1);
+
+        OrderItem item2 = new OrderItem();
+        item2.setId(UUID.randomUUID());
+        item2.setProductId("PROD-002");
+        item2.setProductName("Produto 2");
+        item2.setQuantity(1);
+        item2.setPrice(new BigDecimal("50.00"));
+        order.addItem(item2);
+    }
+
+    @Test
+    void toDto_ShouldCopyOrderAndItems() {
+        OrderDTO dto = orderMapper.toDto(order);
+
+        assertEquals(order.getId(), dto.getId());
+        assertEquals("ORD-MAP-1", dto.getOrderNumber());
+        assertEquals(OrderStatus.CALCULATED, dto.getStatus());
+        assertEquals(order.getCreatedAt(), dto.getCreatedAt());
+        assertEquals(order.getProcessedAt(), dto.getProcessedAt());
+        assertEquals(new BigDecimal("250.00"), dto.getTotalAmount());
+        assertEquals(2L, dto.getVersion());
+        assertEquals(2, dto.getItems().size());
+
+        OrderItemDTO first = dto.getItems().get(0);
+        assertEquals(order.getItems().get(0).getId(), first.getId());
+        assertEquals("PROD-001", first.getProductId());
+        assertEquals("Produto 1", first.getProductName());
+        assertEquals(2, first.getQuantity());
+        assertEquals(new BigDecimal("100.00"), first.getPrice());
+    }
+
+    @Test
+    void toDto_ShouldLeaveItemsNullWhenEntityHasNone() {
+        order.setItems(null);
+
+        assertNull(orderMapper.toDto(order).getItems());
+    }
+
+    @Test
+    void toDtos_ShouldKeepOrder() {
+        Order other = new Order();
+        other.setOrderNumber("ORD-MAP-2");
+
+        List<OrderDTO> dtos = orderMapper.toDtos(List.of(order, other));
+
+        assertEquals(2, dtos.size());
+        assertEquals("ORD-MAP-1", dtos.get(0).getOrderNumber());
+        assertEquals("ORD-MAP-2", dtos.get(1).getOrderNumber());
+        assertTrue(dtos.get(1).getItems().isEmpty());
+    }
+
+    @Test
+    void toEntity_ShouldLinkItemsAndDefaultMissingPrice() {
+        OrderItemDTO priced = new OrderItemDTO();
+        priced.setProductId("PROD-001");
+        priced.setQuantity(2);
+        priced.setPrice(new BigDecimal("10.00"));
+
+        OrderItemDTO unpriced = new OrderItemDTO();
+        unpriced.setProductId("PROD-002");
+        unpriced.setQuantity(1);
+
+        OrderDTO dto = new OrderDTO();
+        dto.setOrderNumber("ORD-NEW");
+        dto.setItems(new ArrayList<>(List.of(priced, unpriced)));
+
+        Order entity = orderMapper.toEntity(dto);
+
+        assertEquals("ORD-NEW", entity.getOrderNumber());
+        assertEquals(2, entity.getItems().size());
+        assertSame(entity, entity.getItems().get(0).getOrder());
+        assertEquals(new BigDecimal("10.00"), entity.getItems().get(0).getPrice());
+        assertEquals(BigDecimal.ZERO, entity.getItems().get(1).getPrice());
+    }
+
+    @Test
+    void toStatusDto_ShouldCopyStatusFields() {
+        OrderStatusDTO status = orderMapper.toStatusDto(order);
+
+        assertEquals(order.getId(), status.getId());
+        assertEquals("ORD-MAP-1", status.getOrderNumber());
+        assertEquals(OrderStatus.CALCULATED, status.getStatus());
+        assertEquals(order.getProcessedAt(), status.getProcessedAt());
+        assertEquals(new BigDecimal("250.00"), status.getTotalAmount());
+        assertEquals(2L, status.getVersion());
+    }
+
+    @Test
+    void toExternalOrder_ShouldBuildCalculatedPayload() {
+        ExternalOrderDTO external = orderMapper.toExternalOrder(order);
+
+        assertEquals("ORD-MAP-1", external.getOrderNumber());
+        assertEquals("CALCULATED", external.getStatus());
+        assertEquals(new BigDecimal("250.00"), external.getTotalAmount());
+        assertNull(external.getConfirmationId());
+        assertEquals(2, external.getItems().size());
+
+        ExternalOrderDTO.ExternalOrderItemDTO second = external.getItems().get(1);
+        assertEquals("PROD-002", second.getProductId());
+        assertEquals("Produto 2", second.getProductName());
+        assertEquals(1, second.getQuantity());
+        assertEquals(new BigDecimal("50.00"), second.getPrice());
+    }
+}
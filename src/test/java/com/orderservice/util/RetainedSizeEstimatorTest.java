@@ -0,0 +1,116 @@
+package com.orderservice.util;
+
+import com.orderservice.dto.OrderDTO;
+import com.orderservice.dto.OrderItemDTO;
+import com.orderservice.dto.OrderStatusDTO;
+import com.orderservice.model.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara as estimativas com o tamanho medido pelo JOL, descontando os
+ * objetos compartilhados (enums e Integer em cache).
+ */
+class RetainedSizeEstimatorTest {
+
+    private static final double TOLERANCE = 0.05;
+
+    @Test
+    void estimate_ShouldMatchJolForSingleItemOrder() {
+        assertCloseToJol(order(1, "Produto"));
+    }
+
+    @Test
+    void estimate_ShouldMatchJolForLargeOrder() {
+        assertCloseToJol(order(500, "Produto com nome razoavelmente longo"));
+    }
+
+    @Test
+    void estimate_ShouldMatchJolForNonLatinStringsAndHugeAmounts() {
+        OrderDTO dto = order(20, "Produto ção 製品");
+        dto.setTotalAmount(new BigDecimal("123456789012345678901234567890.12"));
+        assertCloseToJol(dto);
+    }
+
+    @Test
+    void estimate_ShouldMatchJolForStatus() {
+        OrderStatusDTO status = new OrderStatusDTO();
+        status.setId(UUID.randomUUID());
+        status.setOrderNumber("ORD-20240101-000123");
+        status.setStatus(OrderStatus.CALCULATED);
+        status.setCreatedAt(LocalDateTime.now());
+        status.setProcessedAt(LocalDateTime.now());
+        status.setTotalAmount(new BigDecimal("1999.90"));
+        status.setVersion(3L);
+        status.getTotalAmount().toString();
+
+        assertWithinTolerance(RetainedSizeEstimator.estimate(status), measured(status));
+    }
+
+    @Test
+    void weigh_ShouldScaleWithNumberOfItems() {
+        UUID key = UUID.randomUUID();
+        int small = RetainedSizeEstimator.weigh(key, order(1, "Produto"));
+        int large = RetainedSizeEstimator.weigh(key, order(500, "Produto"));
+
+        assertTrue(large > small * 100, "Pedido com 500 itens deveria pesar mais de 100x o de 1 item");
+        assertEquals(0, RetainedSizeEstimator.weigh("ORD-1", Boolean.TRUE) - RetainedSizeEstimator.estimate("ORD-1"));
+    }
+
+    private static void assertCloseToJol(OrderDTO dto) {
+        // simula a serialização, que guarda a string de cada BigDecimal
+        dto.getTotalAmount().toString();
+        dto.getItems().forEach(item -> item.getPrice().toString());
+
+        assertWithinTolerance(RetainedSizeEstimator.estimate(dto), measured(dto));
+    }
+
+    private static void assertWithinTolerance(long estimated, long measured) {
+        double error = Math.abs(estimated - measured) / (double) measured;
+        assertTrue(error <= TOLERANCE,
+                "Estimativa " + estimated + " bytes difere de " + measured + " medidos pelo JOL");
+    }
+
+    private static long measured(Object root) {
+        List<Object> shared = new ArrayList<>(List.of((Object[]) OrderStatus.values()));
+        for (int i = -128; i <= 127; i++) {
+            shared.add(Integer.valueOf(i));
+            shared.add(Long.valueOf(i));
+        }
+        GraphLayout layout = GraphLayout.parseInstance(root);
+        return layout.subtract(GraphLayout.parseInstance(shared.toArray())).totalSize();
+    }
+
+    private static OrderDTO order(int itemCount, String productName) {
+        List<OrderItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            OrderItemDTO item = new OrderItemDTO();
+            item.setId(UUID.randomUUID());
+            item.setProductId("PROD-" + i);
+            item.setProductName(productName + " " + i);
+            item.setQuantity(i % 2 == 0 ? 2 : 1000 + i);
+            item.setPrice(new BigDecimal(i + ".99"));
+            items.add(item);
+        }
+
+        OrderDTO dto = new OrderDTO();
+        dto.setId(UUID.randomUUID());
+        dto.setOrderNumber("ORD-20240101-000123");
+        dto.setStatus(OrderStatus.NOTIFIED);
+        dto.setCreatedAt(LocalDateTime.now());
+        dto.setProcessedAt(LocalDateTime.now());
+        dto.setCompletedAt(LocalDateTime.now());
+        dto.setTotalAmount(new BigDecimal("12345.67"));
+        dto.setVersion(1000L);
+        dto.setItems(items);
+        return dto;
+    }
+}